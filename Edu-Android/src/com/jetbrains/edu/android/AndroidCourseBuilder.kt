@@ -39,6 +39,8 @@ import java.io.File
 class AndroidCourseBuilder : GradleCourseBuilderBase() {
 
   override val buildGradleTemplateName: String = "android-build.gradle"
+  // android gradle plugin isn't guaranteed to work with configuration on demand
+  override val useModulesManifest: Boolean get() = false
 
   override fun getCourseProjectGenerator(course: Course): GradleCourseProjectGenerator = AndroidCourseProjectGenerator(this, course)
 
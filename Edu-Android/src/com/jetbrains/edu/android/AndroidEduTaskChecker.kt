@@ -62,6 +62,9 @@ class AndroidChecker(task: EduTask, project: Project) : GradleEduTaskChecker(tas
     return GradleCommandLine.create(project, instrumentedTestTask)?.launchAndCheck() ?: CheckResult.FAILED_TO_CHECK
   }
 
+  // android tasks are built and tested with several different gradle tasks
+  override fun getBatchTestTaskName(): String? = null
+
   override fun clearState() {
     deviceLaunching?.cancel(true)
     deviceLaunching = null
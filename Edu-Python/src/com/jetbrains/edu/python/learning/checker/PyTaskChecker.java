@@ -1,21 +1,17 @@
 package com.jetbrains.edu.python.learning.checker;
 
 import com.intellij.execution.ExecutionException;
-import com.intellij.execution.process.CapturingProcessHandler;
-import com.intellij.execution.process.ProcessOutput;
+import com.intellij.execution.process.OSProcessHandler;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.command.CommandProcessor;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProgressIndicator;
-import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.jetbrains.edu.learning.EduState;
 import com.jetbrains.edu.learning.EduUtils;
-import com.jetbrains.edu.learning.checker.CheckResult;
-import com.jetbrains.edu.learning.checker.CheckUtils;
-import com.jetbrains.edu.learning.checker.TaskChecker;
-import com.jetbrains.edu.learning.checker.TestsOutputParser;
+import com.jetbrains.edu.learning.checker.*;
 import com.jetbrains.edu.learning.courseFormat.CheckStatus;
 import com.jetbrains.edu.learning.courseFormat.Course;
 import com.jetbrains.edu.learning.courseFormat.TaskFile;
@@ -25,8 +21,11 @@ import com.jetbrains.edu.learning.editor.EduEditorKt;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
 
 public class PyTaskChecker extends TaskChecker<EduTask> {
   private static final Logger LOG = Logger.getInstance(PyTaskChecker.class);
@@ -48,25 +47,37 @@ public class PyTaskChecker extends TaskChecker<EduTask> {
       return new CheckResult(CheckStatus.Unchecked,
                              EduEditorKt.BROKEN_SOLUTION_ERROR_TEXT_START + EduEditorKt.ACTION_TEXT + EduEditorKt.BROKEN_SOLUTION_ERROR_TEXT_END);
     }
-    CountDownLatch latch = new CountDownLatch(1);
-    ApplicationManager.getApplication()
-      .invokeLater(() -> ApplicationManager.getApplication().runWriteAction(() -> {
-        CheckUtils.flushWindows(task, taskDir);
-        latch.countDown();
-      }));
     final PyTestRunner testRunner = new PyTestRunner(taskDir);
+    final VirtualFile fileToCheck = getTaskVirtualFile(task, taskDir);
+    if (fileToCheck == null) {
+      return CheckResult.FAILED_TO_CHECK;
+    }
+    // windows are written outside of VFS, so there is no need to refresh the whole file system before launching tests
+    Path windowsDir = null;
+    List<Path> windowsFiles = Collections.emptyList();
     try {
-      final VirtualFile fileToCheck = getTaskVirtualFile(task, taskDir);
-      if (fileToCheck != null) {
-        //otherwise answer placeholders might have been not flushed yet
-        latch.await();
-        Process testProcess = testRunner.createCheckProcess(project, fileToCheck.getPath());
-        return getCheckResult(testProcess, testRunner.getCommandLine().getCommandLineString());
+      if (PyTestRunner.isWindowsDirSupported(project)) {
+        windowsDir = CheckUtils.flushWindowsToTempDir(task, taskDir);
+      }
+      else {
+        windowsFiles = CheckUtils.flushWindows(task, taskDir, null);
+      }
+      Process testProcess = testRunner.createCheckProcess(project, fileToCheck.getPath(), windowsDir);
+      if (testProcess != null) {
+        return getCheckResult(testProcess, testRunner.getCommandLine().getCommandLineString(), getCheckLimits());
       }
     }
-    catch (ExecutionException | InterruptedException e) {
+    catch (ExecutionException | IOException e) {
       LOG.error(e);
     }
+    finally {
+      if (windowsDir != null) {
+        FileUtil.delete(windowsDir.toFile());
+      }
+      for (Path windowsFile : windowsFiles) {
+        FileUtil.delete(windowsFile.toFile());
+      }
+    }
     return CheckResult.FAILED_TO_CHECK;
   }
 
@@ -126,15 +137,20 @@ public class PyTaskChecker extends TaskChecker<EduTask> {
     return firstFile;
   }
 
-  public static CheckResult getCheckResult(@NotNull Process testProcess, @NotNull String commandLine) {
-    final CapturingProcessHandler handler = new CapturingProcessHandler(testProcess, null, commandLine);
-    final ProcessOutput output = ProgressManager.getInstance().hasProgressIndicator() ? handler
-      .runProcessWithProgressIndicator(ProgressManager.getInstance().getProgressIndicator()) : handler.runProcess();
+  public static CheckResult getCheckResult(@NotNull Process testProcess, @NotNull String commandLine, @NotNull CheckLimits limits) {
+    final OSProcessHandler handler = new OSProcessHandler(testProcess, commandLine, null);
+    final TestsOutputProcessor testsOutputProcessor = new TestsOutputProcessor(false);
+    // test process is stopped as soon as the first test fails
+    final CheckProcessOutput output = new CheckProcessRunner(limits, testsOutputProcessor::process).run(handler);
+    final CheckResult limitExceededResult = output.getLimitExceededResult();
+    if (limitExceededResult != null) {
+      return limitExceededResult;
+    }
     String stderr = output.getStderr();
     if (!stderr.isEmpty() && output.getStdout().isEmpty()) {
       LOG.info("#educational " + stderr);
       return new CheckResult(CheckStatus.Failed, stderr, null, false);
     }
-    return TestsOutputParser.getCheckResult(output.getStdoutLines(), false);
+    return testsOutputProcessor.getCheckResult();
   }
 }
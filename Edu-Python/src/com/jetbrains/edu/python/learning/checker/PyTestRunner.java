@@ -2,25 +2,36 @@ package com.jetbrains.edu.python.learning.checker;
 
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.jetbrains.edu.learning.EduUtils;
 import com.jetbrains.edu.learning.configuration.EduConfigurator;
 import com.jetbrains.edu.learning.configuration.EduConfiguratorManager;
 import com.jetbrains.edu.learning.EduNames;
 import com.jetbrains.python.PythonLanguage;
 import com.jetbrains.python.sdk.PythonSdkType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 
 class PyTestRunner {
   private static final Logger LOG = Logger.getInstance(PyTestRunner.class);
   private static final String PYTHONPATH = "PYTHONPATH";
+  /**
+   * Directory with answer placeholders windows files, see {@code get_answer_placeholders} in test_helper.py
+   */
+  private static final String WINDOWS_DIR = "EDU_WINDOWS_DIR";
   @NotNull private final VirtualFile myTaskDir;
   private GeneralCommandLine myCommandLine;
 
@@ -29,6 +40,12 @@ class PyTestRunner {
   }
 
   Process createCheckProcess(@NotNull final Project project, @NotNull final String executablePath) throws ExecutionException {
+    return createCheckProcess(project, executablePath, null);
+  }
+
+  Process createCheckProcess(@NotNull final Project project,
+                             @NotNull final String executablePath,
+                             @Nullable final Path windowsDir) throws ExecutionException {
     final Sdk sdk = PythonSdkType.findPythonSdk(ModuleManager.getInstance(project).getModules()[0]);
     EduConfigurator<?> configurator = EduConfiguratorManager.forLanguageAndCourseType(EduNames.PYCHARM, PythonLanguage.getInstance());
     if (configurator == null) {
@@ -45,6 +62,9 @@ class PyTestRunner {
     if (courseDir != null) {
       env.put(PYTHONPATH, courseDir.getPath());
     }
+    if (windowsDir != null) {
+      env.put(WINDOWS_DIR, windowsDir.toString());
+    }
     if (sdk != null) {
       String pythonPath = sdk.getHomePath();
       if (pythonPath != null) {
@@ -57,6 +77,25 @@ class PyTestRunner {
     return null;
   }
 
+  /**
+   * Test helpers of courses created by older plugin versions read windows files only next to task files
+   */
+  static boolean isWindowsDirSupported(@NotNull final Project project) {
+    final VirtualFile testHelper = EduUtils.getCourseDir(project).findChild(EduNames.TEST_HELPER);
+    if (testHelper == null) {
+      return false;
+    }
+    return ApplicationManager.getApplication().runReadAction((Computable<Boolean>) () -> {
+      try {
+        return VfsUtilCore.loadText(testHelper).contains(WINDOWS_DIR);
+      }
+      catch (IOException e) {
+        LOG.warn(e);
+        return false;
+      }
+    });
+  }
+
   GeneralCommandLine getCommandLine() {
     return myCommandLine;
   }
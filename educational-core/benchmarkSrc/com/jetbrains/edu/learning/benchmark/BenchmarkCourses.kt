@@ -0,0 +1,39 @@
+package com.jetbrains.edu.learning.benchmark
+
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.LessonBuilder
+import com.jetbrains.edu.learning.course
+import com.jetbrains.edu.learning.courseFormat.Course
+
+const val TASK_FILE_NAME = "Task.txt"
+
+/**
+ * Course of [lessons] lessons with [tasksPerLesson] edu tasks,
+ * each task has a single task file with [placeholdersPerFile] placeholders and a test file
+ */
+fun syntheticCourse(lessons: Int, tasksPerLesson: Int, placeholdersPerFile: Int, courseMode: String = EduNames.STUDY): Course {
+  val course = course(courseMode = courseMode) {
+    repeat(lessons) {
+      lesson {
+        repeat(tasksPerLesson) {
+          syntheticTask(placeholdersPerFile)
+        }
+      }
+    }
+  }
+  course.init(null, null, false)
+  return course
+}
+
+fun LessonBuilder.syntheticTask(placeholders: Int) {
+  eduTask {
+    taskFile(TASK_FILE_NAME, taskFileText(placeholders)) {
+      for (i in 0 until placeholders) {
+        placeholder(i, possibleAnswer = "answer$i", hints = listOf("hint$i"))
+      }
+    }
+    testFile("Tests.txt", "test")
+  }
+}
+
+private fun taskFileText(placeholders: Int): String = (0 until placeholders).joinToString("\n") { "value$it = <p>type here</p>" }
@@ -0,0 +1,20 @@
+package com.jetbrains.edu.learning.benchmark
+
+import com.intellij.openapi.project.Project
+import com.intellij.testFramework.runInEdtAndWait
+import com.jetbrains.edu.learning.EduTestCase
+
+/**
+ * Light project with the same environment as in [EduTestCase] to run benchmarks which need a project
+ */
+class BenchmarkProject : EduTestCase() {
+  init {
+    name = "benchmark"
+  }
+
+  val lightProject: Project get() = project
+
+  fun start() = runInEdtAndWait { setUp() }
+
+  fun stop() = runInEdtAndWait { tearDown() }
+}
@@ -0,0 +1,104 @@
+package com.jetbrains.edu.learning.benchmark
+
+import com.google.gson.GsonBuilder
+import com.intellij.idea.IdeaTestApplication
+import com.jetbrains.edu.coursecreator.configuration.YamlFormatSynchronizer
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.Lesson
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.projectView.ProgressUtil
+import com.jetbrains.edu.learning.serialization.SerializationUtils
+import org.jdom.Element
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Course model operations which don't need a project: copying, persisting and progress counting
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class CourseModelBenchmark {
+
+  @Param("10", "100")
+  @JvmField
+  var lessons: Int = 0
+
+  @Param("5")
+  @JvmField
+  var placeholders: Int = 0
+
+  private lateinit var course: Course
+  private lateinit var lesson: Lesson
+  private lateinit var task: Task
+  private lateinit var courseJson: String
+  private lateinit var taskManagerState: Element
+  private lateinit var taskYaml: String
+  private lateinit var lessonYaml: String
+
+  @Setup(Level.Trial)
+  fun setUp() {
+    IdeaTestApplication.getInstance()
+    course = syntheticCourse(lessons, TASKS_PER_LESSON, placeholders)
+    lesson = course.lessons.first()
+    task = lesson.taskList.first()
+
+    // the same format as in course archive
+    val gson = GsonBuilder()
+      .excludeFieldsWithoutExposeAnnotation()
+      .registerTypeHierarchyAdapter(Course::class.java, SerializationUtils.Json.CourseAdapter())
+      .create()
+    courseJson = gson.toJson(course)
+
+    val taskManager = StudyTaskManager(null)
+    taskManager.course = course
+    taskManagerState = taskManager.state!!
+
+    taskYaml = YamlFormatSynchronizer.MAPPER.writeValueAsString(task)
+    lessonYaml = YamlFormatSynchronizer.MAPPER.writeValueAsString(lesson)
+  }
+
+  @Benchmark
+  fun copyCourse(): Course = course.copy()
+
+  @Benchmark
+  fun copyTask(): Task = task.copy()
+
+  @Benchmark
+  fun countProgress(): Pair<Int, Int> = ProgressUtil.countProgress(course)
+
+  @Benchmark
+  fun deserializeLocalCourse(): Course? = EduUtils.deserializeLocalCourse(courseJson)
+
+  @Benchmark
+  fun taskManagerGetState(): Element? {
+    val taskManager = StudyTaskManager(null)
+    taskManager.course = course
+    return taskManager.state
+  }
+
+  @Benchmark
+  fun taskManagerLoadState(): Course? {
+    val taskManager = StudyTaskManager(null)
+    taskManager.loadState(taskManagerState.clone())
+    return taskManager.course
+  }
+
+  @Benchmark
+  fun yamlSerializeTask(): String = YamlFormatSynchronizer.MAPPER.writeValueAsString(task)
+
+  @Benchmark
+  fun yamlDeserializeTask(): Task = YamlFormatSynchronizer.deserializeTask(taskYaml)
+
+  @Benchmark
+  fun yamlSerializeLesson(): String = YamlFormatSynchronizer.MAPPER.writeValueAsString(lesson)
+
+  @Benchmark
+  fun yamlDeserializeLesson(): Lesson = YamlFormatSynchronizer.MAPPER.readValue(lessonYaml, Lesson::class.java)
+
+  companion object {
+    private const val TASKS_PER_LESSON = 10
+  }
+}
@@ -0,0 +1,69 @@
+package com.jetbrains.edu.learning.benchmark
+
+import com.intellij.openapi.editor.Document
+import com.intellij.openapi.editor.impl.DocumentImpl
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.testFramework.runInEdtAndGet
+import com.intellij.testFramework.runInEdtAndWait
+import com.jetbrains.edu.learning.EduDocumentListener
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.courseFormat.TaskFile
+import com.jetbrains.edu.learning.courseFormat.ext.getVirtualFile
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Editor hot paths which depend on number of placeholders in task file
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class TaskFileBenchmark {
+
+  @Param("1", "10", "100")
+  @JvmField
+  var placeholders: Int = 0
+
+  private lateinit var benchmarkProject: BenchmarkProject
+  private lateinit var task: Task
+  private lateinit var answerFile: VirtualFile
+  private lateinit var document: Document
+
+  @Setup(Level.Trial)
+  fun setUp() {
+    benchmarkProject = BenchmarkProject()
+    benchmarkProject.start()
+    runInEdtAndWait {
+      val course = benchmarkProject.courseWithFiles {
+        lesson {
+          syntheticTask(placeholders)
+        }
+      }
+      task = course.lessons.first().taskList.first()
+    }
+    val taskFile = task.getTaskFile(TASK_FILE_NAME)!!
+    answerFile = taskFile.getVirtualFile(benchmarkProject.lightProject)!!
+
+    // document which can be modified without write action, so only listener itself is measured
+    document = DocumentImpl(taskFile.text, true)
+    document.addDocumentListener(EduDocumentListener(benchmarkProject.lightProject, taskFile))
+  }
+
+  @TearDown(Level.Trial)
+  fun tearDown() {
+    benchmarkProject.stop()
+  }
+
+  /**
+   * Typing before all placeholders, so every placeholder is shifted
+   */
+  @Benchmark
+  fun documentChanged() {
+    document.insertString(0, "a")
+    document.deleteString(0, 1)
+  }
+
+  @Benchmark
+  fun createStudentFile(): TaskFile? = runInEdtAndGet { EduUtils.createStudentFile(benchmarkProject.lightProject, answerFile, task) }
+}
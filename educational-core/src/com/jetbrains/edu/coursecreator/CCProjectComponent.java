@@ -53,14 +53,16 @@ public class CCProjectComponent extends AbstractProjectComponent {
         GradleCourseBuilderBase gradleCourseBuilder = (GradleCourseBuilderBase)courseBuilder;
         convertToGradleProject(studyCourse,
                                gradleCourseBuilder.getTemplates(),
-                               gradleCourseBuilder.templateVariables(myProject));
+                               gradleCourseBuilder.templateVariables(myProject),
+                               gradleCourseBuilder.getUseModulesManifest());
       }
     }
   }
 
   private void convertToGradleProject(@NotNull Course course,
                                       @NotNull Map<String, String> templates,
-                                      @NotNull Map<String, Object> templateVariables) {
+                                      @NotNull Map<String, Object> templateVariables,
+                                      boolean useModulesManifest) {
     VirtualFile baseDir = myProject.getBaseDir();
     if (baseDir == null) {
       return;
@@ -78,7 +80,7 @@ public class CCProjectComponent extends AbstractProjectComponent {
       modifiableModuleModel.commit();
 
       try {
-        EduGradleUtils.createProjectGradleFiles(baseDir, templates, templateVariables);
+        EduGradleUtils.createProjectGradleFiles(baseDir, templates, templateVariables, useModulesManifest ? course : null);
 
         StartupManager.getInstance(myProject).runWhenProjectIsInitialized(() -> transformCourseStructure(course, myProject));
 
@@ -154,7 +156,7 @@ public class CCProjectComponent extends AbstractProjectComponent {
       }
       EduUsagesCollector.projectTypeOpened(CCUtils.COURSE_MODE);
       startTaskDescriptionFilesSynchronization();
-      YamlFormatSynchronizer.saveAll(myProject);
+      YamlFormatSynchronizer.saveAllInBackground(myProject);
     }
   }
 
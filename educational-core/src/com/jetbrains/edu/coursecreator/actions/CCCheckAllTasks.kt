@@ -0,0 +1,79 @@
+package com.jetbrains.edu.coursecreator.actions
+
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.actionSystem.CommonDataKeys
+import com.intellij.openapi.actionSystem.LangDataKeys
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.project.DumbAwareAction
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.checker.CheckAllTasksRunner
+import com.jetbrains.edu.learning.checker.TaskCheckReport
+import com.jetbrains.edu.learning.checker.details.CheckDetailsView
+import com.jetbrains.edu.learning.courseFormat.ItemContainer
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+
+/**
+ * Checks all tasks of the course, section or lesson selected in project view and shows report in check details tool window
+ */
+class CCCheckAllTasks : DumbAwareAction("Check All Tasks", "Check all tasks and show report", null) {
+
+  override fun update(e: AnActionEvent) {
+    val project = e.getData(CommonDataKeys.PROJECT)
+    e.presentation.isEnabledAndVisible = project != null && CCUtils.isCourseCreator(project) && getTasksToCheck(project, e) != null
+  }
+
+  override fun actionPerformed(e: AnActionEvent) {
+    val project = e.getData(CommonDataKeys.PROJECT) ?: return
+    val tasks = getTasksToCheck(project, e) ?: return
+    if (DumbService.isDumb(project)) return
+    FileDocumentManager.getInstance().saveAllDocuments()
+    CheckDetailsView.getInstance(project).clear()
+
+    ProgressManager.getInstance().run(object : com.intellij.openapi.progress.Task.Backgroundable(project, "Checking All Tasks", true) {
+      private var reports: List<TaskCheckReport> = emptyList()
+      private var durationMs: Long = 0
+
+      override fun run(indicator: ProgressIndicator) {
+        val startTime = System.currentTimeMillis()
+        reports = CheckAllTasksRunner(project, tasks).run(indicator)
+        durationMs = System.currentTimeMillis() - startTime
+      }
+
+      override fun onSuccess() {
+        CheckDetailsView.getInstance(project).showOutput(CheckAllTasksRunner.formatReport(reports, durationMs))
+      }
+    })
+  }
+
+  private fun getTasksToCheck(project: Project, e: AnActionEvent): List<Task>? {
+    val course = StudyTaskManager.getInstance(project).course ?: return null
+    val directories = e.getData(LangDataKeys.IDE_VIEW)?.directories ?: return null
+    if (directories.size != 1) return null
+    val dir = directories[0].virtualFile
+    val courseDir = EduUtils.getCourseDir(project)
+    val container: ItemContainer? = when {
+      dir == courseDir -> course
+      dir.parent == courseDir -> course.getSection(dir.name)
+      else -> null
+    }
+    if (container != null) {
+      return container.tasks().takeIf { it.isNotEmpty() }
+    }
+    return EduUtils.getLesson(dir, course)?.taskList?.takeIf { it.isNotEmpty() }
+  }
+
+  private fun ItemContainer.tasks(): List<Task> {
+    val tasks = ArrayList<Task>()
+    visitLessons { lesson ->
+      tasks += lesson.taskList
+      true
+    }
+    return tasks
+  }
+}
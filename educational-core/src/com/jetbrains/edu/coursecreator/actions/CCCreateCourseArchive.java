@@ -34,6 +34,7 @@ import com.jetbrains.edu.learning.courseFormat.TaskFile;
 import com.jetbrains.edu.learning.courseFormat.ext.TaskExt;
 import com.jetbrains.edu.learning.courseFormat.tasks.Task;
 import com.jetbrains.edu.learning.serialization.SerializationUtils;
+import com.jetbrains.edu.learning.statistics.EduMetrics;
 import com.jetbrains.edu.learning.statistics.EduUsagesCollector;
 import kotlin.collections.ArraysKt;
 import org.jetbrains.annotations.NotNull;
@@ -116,6 +117,7 @@ public class CCCreateCourseArchive extends DumbAwareAction {
     ApplicationManager.getApplication().runWriteAction(new Runnable() {
       @Override
       public void run() {
+        EduMetrics.Timer timer = EduMetrics.startTimer("archive.create");
         archiveFolder.refresh(false, true);
         Course courseCopy = course.copy();
         loadActualTexts(courseCopy);
@@ -131,6 +133,9 @@ public class CCCreateCourseArchive extends DumbAwareAction {
           LOG.error("Failed to create course archive", e);
           isCreationSuccessful.set(false);
         }
+        finally {
+          timer.stop();
+        }
       }
 
       private void createAdditionalFiles(Course course) {
@@ -6,6 +6,7 @@ import com.jetbrains.edu.coursecreator.configuration.YamlFormatSynchronizer
 import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholder
 import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholderDependency
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex
 
 class CCAddDependency : CCAnswerPlaceholderAction(null, "Adds/Edits dependency on another answer placeholder") {
   override fun performAnswerPlaceholderAction(state: CCState) {
@@ -14,6 +15,7 @@ class CCAddDependency : CCAnswerPlaceholderAction(null, "Adds/Edits dependency o
     val (dependencyPath, isVisible) = CCDependencyDialog(state.project, answerPlaceholder).showAndGetResult() ?: return
 
     answerPlaceholder.placeholderDependency = AnswerPlaceholderDependency.create(answerPlaceholder, dependencyPath, isVisible)
+    PlaceholderDependencyIndex.getInstance(state.project).itemChanged(state.taskFile.task)
     YamlFormatSynchronizer.saveItem(state.taskFile.task)
     EditorNotifications.getInstance(state.project).updateNotifications(state.file.virtualFile)
   }
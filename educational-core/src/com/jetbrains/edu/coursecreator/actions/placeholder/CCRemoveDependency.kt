@@ -3,12 +3,14 @@ package com.jetbrains.edu.coursecreator.actions.placeholder
 import com.intellij.openapi.actionSystem.AnActionEvent
 import com.intellij.ui.EditorNotifications
 import com.jetbrains.edu.coursecreator.configuration.YamlFormatSynchronizer
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex
 
 
 class CCRemoveDependency : CCAnswerPlaceholderAction("Remove Dependency", "Removes dependency on another placeholder") {
   override fun performAnswerPlaceholderAction(state: CCState) {
     val answerPlaceholder = state.answerPlaceholder ?: return
     answerPlaceholder.placeholderDependency = null
+    PlaceholderDependencyIndex.getInstance(state.project).itemChanged(state.taskFile.task)
     YamlFormatSynchronizer.saveItem(state.taskFile.task)
     EditorNotifications.getInstance(state.project).updateNotifications(state.file.virtualFile)
   }
@@ -5,6 +5,7 @@ import com.intellij.openapi.command.undo.BasicUndoableAction
 import com.intellij.openapi.editor.Editor
 import com.jetbrains.edu.coursecreator.configuration.YamlFormatSynchronizer
 import com.jetbrains.edu.learning.courseFormat.TaskFile
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex
 
 abstract class TaskFileUndoableAction(protected val taskFile: TaskFile, protected val editor: Editor) : BasicUndoableAction(editor.document) {
   override fun redo() {
@@ -22,6 +23,7 @@ abstract class TaskFileUndoableAction(protected val taskFile: TaskFile, protecte
   abstract fun performRedo()
 
   private fun updateConfigFiles() {
+    editor.project?.let { PlaceholderDependencyIndex.getInstance(it).itemChanged(taskFile.task) }
     //invokeLater here is needed because one can't change documents while redo/undo
     ApplicationManager.getApplication().invokeLater { YamlFormatSynchronizer.saveItem(taskFile.task) }
   }
@@ -16,6 +16,7 @@ import com.jetbrains.edu.learning.StudyTaskManager
 import com.jetbrains.edu.learning.courseFormat.StepikChangeStatus
 import com.jetbrains.edu.learning.courseFormat.ext.configurator
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex
 
 abstract class CCChangeFilePropertyActionBase(private val name: String) : DumbAwareAction(name) {
 
@@ -92,6 +93,7 @@ private class ChangeFilesPropertyUndoableAction(
 
   private inline fun doAction(changeState: (State) -> Unit) {
     states.forEach(changeState)
+    affectedTasks.forEach(PlaceholderDependencyIndex.getInstance(project)::itemChanged)
     ProjectView.getInstance(project).refresh()
     affectedTasks.forEach(YamlFormatSynchronizer::saveItem)
   }
@@ -0,0 +1,170 @@
+package com.jetbrains.edu.coursecreator.configuration
+
+import com.fasterxml.jackson.core.JsonProcessingException
+import com.intellij.concurrency.JobLauncher
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.util.io.FileUtil
+import com.jetbrains.edu.coursecreator.configuration.YamlFormatSettings.COURSE_CONFIG
+import com.jetbrains.edu.coursecreator.configuration.YamlFormatSettings.LESSON_CONFIG
+import com.jetbrains.edu.coursecreator.configuration.YamlFormatSettings.SECTION_CONFIG
+import com.jetbrains.edu.coursecreator.configuration.YamlFormatSettings.TASK_CONFIG
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.Lesson
+import com.jetbrains.edu.learning.courseFormat.Section
+import com.jetbrains.edu.learning.courseFormat.StudyItem
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import java.io.IOException
+import java.nio.file.FileVisitResult
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.SimpleFileVisitor
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Rebuilds course structure from yaml configs in course dir, e.g. after configs are changed outside of IDE.
+ *
+ * Config files are found with a single walk over course dir and parsed in parallel.
+ * Loading doesn't stop on the first invalid config: all problems are collected into [Result.errors].
+ */
+object YamlCourseLoader {
+  private val CONFIG_NAMES = setOf(COURSE_CONFIG, SECTION_CONFIG, LESSON_CONFIG, TASK_CONFIG)
+
+  class LoadingError(val configFile: Path, val message: String)
+
+  class Result(private val courseDir: Path, val course: Course?, val errors: List<LoadingError>) {
+    val isSuccessful: Boolean get() = course != null && errors.isEmpty()
+
+    /**
+     * One line per problem with path of config relative to course dir
+     */
+    val errorsReport: String
+      get() = errors.joinToString("\n") { "${FileUtil.toSystemIndependentName(courseDir.relativize(it.configFile).toString())}: ${it.message}" }
+  }
+
+  @JvmStatic
+  fun loadCourse(courseDir: Path, indicator: ProgressIndicator): Result {
+    indicator.isIndeterminate = true
+    indicator.text = "Looking for course configs"
+    val configFiles = findConfigFiles(courseDir)
+
+    indicator.isIndeterminate = false
+    indicator.text = "Loading course configs"
+    val items = ConcurrentHashMap<Path, StudyItem>()
+    val errors = Collections.synchronizedList(ArrayList<LoadingError>())
+    val processed = AtomicInteger()
+    JobLauncher.getInstance().invokeConcurrentlyUnderProgress(ArrayList(configFiles.values), indicator, false) { configFile ->
+      try {
+        items[configFile.parent] = parseConfig(configFile)
+      }
+      catch (e: Exception) {
+        errors += LoadingError(configFile, getErrorMessage(e))
+      }
+      indicator.fraction = processed.incrementAndGet().toDouble() / configFiles.size
+      true
+    }
+    indicator.checkCanceled()
+
+    val course = CourseAssembler(courseDir, configFiles, items, errors).assemble()
+    return Result(courseDir, course, errors.sortedBy { it.configFile })
+  }
+
+  private fun findConfigFiles(courseDir: Path): Map<Path, Path> {
+    val configFiles = HashMap<Path, Path>()
+    Files.walkFileTree(courseDir, object : SimpleFileVisitor<Path>() {
+      override fun preVisitDirectory(dir: Path, attrs: BasicFileAttributes): FileVisitResult {
+        // skip `.idea`, `.gradle` and similar service dirs
+        return if (dir != courseDir && dir.fileName.toString().startsWith(".")) FileVisitResult.SKIP_SUBTREE else FileVisitResult.CONTINUE
+      }
+
+      override fun visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult {
+        if (file.fileName.toString() in CONFIG_NAMES) {
+          configFiles[file.parent] = file
+        }
+        return FileVisitResult.CONTINUE
+      }
+    })
+    return configFiles
+  }
+
+  private fun parseConfig(configFile: Path): StudyItem {
+    val text = String(Files.readAllBytes(configFile), Charsets.UTF_8)
+    val mapper = YamlFormatSynchronizer.MAPPER
+    return when (configFile.fileName.toString()) {
+      COURSE_CONFIG -> mapper.readValue(text, Course::class.java)
+      SECTION_CONFIG -> mapper.readValue(text, Section::class.java)
+      LESSON_CONFIG -> mapper.readValue(text, Lesson::class.java)
+      TASK_CONFIG -> YamlFormatSynchronizer.deserializeTask(text)
+      else -> error("Unexpected config file: $configFile")
+    }
+  }
+
+  private fun getErrorMessage(e: Exception): String {
+    // exceptions from item builders are wrapped by jackson
+    generateSequence<Throwable>(e) { it.cause }.filterIsInstance<InvalidYamlFormatException>().firstOrNull()?.let { return it.message }
+    return when (e) {
+      is JsonProcessingException -> e.originalMessage
+      is IOException -> "Failed to read config: ${e.message}"
+      else -> e.toString()
+    }
+  }
+
+  private class CourseAssembler(private val courseDir: Path,
+                                private val configFiles: Map<Path, Path>,
+                                private val items: Map<Path, StudyItem>,
+                                private val errors: MutableList<LoadingError>) {
+
+    fun assemble(): Course? {
+      val course = getItem(courseDir, Course::class.java) ?: return null
+      course.items = course.items.mapNotNull<StudyItem, StudyItem> { item ->
+        val dir = courseDir.resolve(item.name)
+        when (items[dir]) {
+          is Section -> loadSection(dir, item.name)
+          else -> loadLesson(dir, item.name)
+        }
+      }
+      course.init(null, null, false)
+      return course
+    }
+
+    private fun loadSection(dir: Path, name: String): Section? {
+      val section = getItem(dir, Section::class.java) ?: return null
+      section.name = name
+      section.items = section.items.mapNotNull<StudyItem, StudyItem> { loadLesson(dir.resolve(it.name), it.name) }
+      return section
+    }
+
+    private fun loadLesson(dir: Path, name: String): Lesson? {
+      val lesson = getItem(dir, Lesson::class.java) ?: return null
+      lesson.name = name
+      lesson.updateTaskList(lesson.taskList.mapNotNull { loadTask(dir.resolve(it.name), it.name) })
+      return lesson
+    }
+
+    private fun loadTask(dir: Path, name: String): Task? {
+      val task = getItem(dir, Task::class.java) ?: return null
+      task.name = name
+      return task
+    }
+
+    /**
+     * @return item parsed from config in [dir], `null` if config is missing, invalid or describes another kind of item
+     */
+    private fun <T : StudyItem> getItem(dir: Path, itemClass: Class<T>): T? {
+      val configFile = configFiles[dir]
+      if (configFile == null) {
+        errors += LoadingError(dir, "Config file not found")
+        return null
+      }
+      // parsing errors are already reported
+      val item = items[configFile.parent] ?: return null
+      if (!itemClass.isInstance(item)) {
+        errors += LoadingError(configFile, "Expected ${itemClass.simpleName.toLowerCase()} config")
+        return null
+      }
+      return itemClass.cast(item)
+    }
+  }
+}
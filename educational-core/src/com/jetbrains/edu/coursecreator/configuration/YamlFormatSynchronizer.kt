@@ -1,6 +1,7 @@
 package com.jetbrains.edu.coursecreator.configuration
 
 import com.fasterxml.jackson.annotation.JsonInclude
+import com.fasterxml.jackson.core.JsonToken
 import com.fasterxml.jackson.databind.DeserializationFeature
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.PropertyNamingStrategy
@@ -8,12 +9,16 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator
 import com.fasterxml.jackson.module.kotlin.registerKotlinModule
 import com.google.common.annotations.VisibleForTesting
+import com.intellij.concurrency.JobLauncher
 import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.runReadAction
 import com.intellij.openapi.application.runUndoTransparentWriteAction
 import com.intellij.openapi.command.undo.UndoManager
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.editor.Document
 import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VirtualFile
 import com.jetbrains.edu.coursecreator.configuration.YamlFormatSettings.COURSE_CONFIG
@@ -28,10 +33,16 @@ import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
 import com.jetbrains.edu.learning.courseFormat.tasks.OutputTask
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.courseFormat.tasks.TheoryTask
+import com.jetbrains.edu.learning.statistics.EduMetrics
+import java.io.IOException
+import java.util.*
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
 
 
 object YamlFormatSynchronizer {
   private val LOG = Logger.getInstance(YamlFormatSynchronizer.javaClass)
+  private const val TYPE = "type"
 
   @VisibleForTesting
   val MAPPER: ObjectMapper by lazy {
@@ -77,13 +88,7 @@ object YamlFormatSynchronizer {
       LOG.info("Failed to find project for course")
       return
     }
-    val fileName = when (item) {
-      is Course -> COURSE_CONFIG
-      is Section -> SECTION_CONFIG
-      is Lesson -> LESSON_CONFIG
-      is Task -> TASK_CONFIG
-      else -> error("Unknown StudyItem type: ${item.javaClass.name}")
-    }
+    val fileName = item.configFileName
     val dir = item.getDir(project)
     if (dir == null) {
       LOG.error("Failed to save ${item.javaClass.name} '${item.name}' to config file: directory not found")
@@ -101,6 +106,10 @@ object YamlFormatSynchronizer {
     }
   }
 
+  /**
+   * Saves configs of all course items.
+   * Only changed documents are updated, all in one write action
+   */
   @JvmStatic
   fun saveAll(project: Project) {
     val course = StudyTaskManager.getInstance(project).course
@@ -108,46 +117,169 @@ object YamlFormatSynchronizer {
       LOG.error("Attempt to create config files for project without course")
       return
     }
-    saveItem(course)
-    course.visitSections(SectionVisitor { section -> saveItem(section) })
-    course.visitLessons(LessonVisitor { lesson ->
-      for (task in lesson.getTaskList()) {
-        saveItem(task)
+    EduMetrics.time("yaml.saveAll") {
+      applyConfigs(serializeConfigs(project, course, null))
+    }
+  }
+
+  /**
+   * Same as [saveAll] but serializes configs under cancellable background progress,
+   * so opening large course doesn't block UI
+   */
+  @JvmStatic
+  fun saveAllInBackground(project: Project) {
+    if (ApplicationManager.getApplication().isUnitTestMode) {
+      saveAll(project)
+      return
+    }
+    val course = StudyTaskManager.getInstance(project).course
+    if (course == null) {
+      LOG.error("Attempt to create config files for project without course")
+      return
+    }
+    ProgressManager.getInstance().run(object : com.intellij.openapi.progress.Task.Backgroundable(project, "Saving Course Configs", true) {
+      private var configs: List<ConfigFileContent> = emptyList()
+
+      override fun run(indicator: ProgressIndicator) {
+        configs = EduMetrics.time("yaml.serializeAllInBackground") { serializeConfigs(project, course, indicator) }
       }
-      saveItem(lesson)
+
+      override fun onSuccess() {
+        if (project.isDisposed) return
+        applyConfigs(configs)
+      }
+    })
+  }
+
+  /**
+   * Serializes configs in parallel if [indicator] is passed, otherwise sequentially in the current thread
+   * (caller may hold write lock, so pooled threads can't take read action)
+   *
+   * @return configs which differ from content of existing config files
+   */
+  private fun serializeConfigs(project: Project, course: Course, indicator: ProgressIndicator?): List<ConfigFileContent> {
+    if (YamlFormatSettings.isDisabled() || course.isStudy) {
+      return emptyList()
+    }
+    val items = ArrayList<StudyItem>()
+    items.add(course)
+    course.visitSections(SectionVisitor { section -> items.add(section) })
+    course.visitLessons(LessonVisitor { lesson ->
+      items.add(lesson)
+      items.addAll(lesson.getTaskList())
       true
     })
+    if (indicator == null) {
+      return items.mapNotNull { serializeConfig(project, it) }
+    }
+
+    indicator.isIndeterminate = false
+    indicator.text = "Saving course configs"
+    val total = items.size
+    val processed = AtomicInteger()
+    val changedConfigs = ConcurrentLinkedQueue<ConfigFileContent>()
+    JobLauncher.getInstance().invokeConcurrentlyUnderProgress(items, indicator, false) { item ->
+      serializeConfig(project, item)?.let { changedConfigs.add(it) }
+      indicator.fraction = processed.incrementAndGet().toDouble() / total
+      true
+    }
+    return ArrayList(changedConfigs)
   }
 
+  private fun serializeConfig(project: Project, item: StudyItem): ConfigFileContent? {
+    val dir = runReadAction { item.getDir(project) }
+    if (dir == null) {
+      LOG.error("Failed to save ${item.javaClass.name} '${item.name}' to config file: directory not found")
+      return null
+    }
+    val fileName = item.configFileName
+    val text = MAPPER.writeValueAsString(item)
+    return runReadAction {
+      val file = dir.findChild(fileName)
+      if (file != null && isSameText(file, text)) null else ConfigFileContent(dir, fileName, text, file?.contentStamp)
+    }
+  }
+
+  private fun applyConfigs(configs: List<ConfigFileContent>) {
+    if (configs.isEmpty()) return
+    runUndoTransparentWriteAction {
+      for (config in configs) {
+        if (!config.dir.isValid) continue
+        val existingFile = config.dir.findChild(config.fileName)
+        // config has been changed after it was serialized, e.g. by user or by `saveItem`
+        if (existingFile?.contentStamp != config.stamp) continue
+        val file = existingFile ?: config.dir.createChildData(javaClass, config.fileName)
+        val document = file.getDocument() ?: continue
+        document.setText(config.text)
+      }
+    }
+  }
+
+  private fun isSameText(file: VirtualFile, text: String): Boolean {
+    FileDocumentManager.getInstance().getCachedDocument(file)?.let { return it.text == text }
+    return try {
+      Arrays.equals(file.contentsToByteArray(), text.toByteArray(file.charset))
+    }
+    catch (e: IOException) {
+      false
+    }
+  }
+
+  private val VirtualFile.contentStamp: Long
+    get() = FileDocumentManager.getInstance().getCachedDocument(this)?.modificationStamp ?: modificationStamp
+
+  private val StudyItem.configFileName: String
+    get() = when (this) {
+      is Course -> COURSE_CONFIG
+      is Section -> SECTION_CONFIG
+      is Lesson -> LESSON_CONFIG
+      is Task -> TASK_CONFIG
+      else -> error("Unknown StudyItem type: ${javaClass.name}")
+    }
+
+  private class ConfigFileContent(val dir: VirtualFile, val fileName: String, val text: String, val stamp: Long?)
+
   @JvmStatic
   fun isConfigFile(file: VirtualFile): Boolean {
     val name = file.name
     return COURSE_CONFIG == name || LESSON_CONFIG == name || TASK_CONFIG == name || SECTION_CONFIG == name
   }
 
+  /**
+   * Task class is chosen by `type` field. It's read with streaming parser and if it's the first field
+   * (as in configs written by [saveItem]) the rest of config is deserialized from the same parser without intermediate tree
+   */
   @VisibleForTesting
   fun deserializeTask(taskYaml: String): Task {
+    MAPPER.factory.createParser(taskYaml).use { parser ->
+      if (parser.nextToken() == JsonToken.START_OBJECT && parser.nextToken() == JsonToken.FIELD_NAME && parser.currentName == TYPE) {
+        parser.nextToken()
+        val clazz = getTaskClass(if (parser.currentToken == JsonToken.VALUE_NULL) null else parser.text)
+        parser.nextToken()
+        return MAPPER.readValue(parser, clazz)
+      }
+    }
+    // `type` isn't the first field, e.g. in manually edited config
     val treeNode = MAPPER.readTree(taskYaml)
-    val type = treeNode.get("type")?.asText()
+    return MAPPER.treeToValue(treeNode, getTaskClass(treeNode.get(TYPE)?.asText()))
+  }
+
+  private fun getTaskClass(type: String?): Class<out Task> {
     val typeNotSpecifiedMessage = "task type not specified"
-    if (type == null) {
-      throw InvalidYamlFormatException(typeNotSpecifiedMessage)
-    }
-    val clazz = when (type) {
+    return when (type) {
+      null, "null" -> throw InvalidYamlFormatException(typeNotSpecifiedMessage)
       "edu" -> EduTask::class.java
       "output" -> OutputTask::class.java
       "theory" -> TheoryTask::class.java
-      "null" -> throw InvalidYamlFormatException(typeNotSpecifiedMessage)
       else -> throw InvalidYamlFormatException("Unsupported task type '$type'")
     }
-    return MAPPER.treeToValue(treeNode, clazz)
   }
 
   private fun saveConfigDocument(dir: VirtualFile, configFileName: String, item: StudyItem) {
     runUndoTransparentWriteAction {
       val file = dir.findOrCreateChildData(javaClass, configFileName)
       val document = file.getDocument() ?: return@runUndoTransparentWriteAction
-      document.setText(MAPPER.writeValueAsString(item))
+      EduMetrics.time("yaml.saveItem") { document.setText(MAPPER.writeValueAsString(item)) }
     }
   }
 }
\ No newline at end of file
@@ -24,7 +24,10 @@ import com.jetbrains.edu.coursecreator.ui.CCMoveStudyItemDialog;
 import com.jetbrains.edu.learning.EduNames;
 import com.jetbrains.edu.learning.EduUtils;
 import com.jetbrains.edu.learning.StudyTaskManager;
+import com.jetbrains.edu.learning.configuration.EduConfigurator;
 import com.jetbrains.edu.learning.courseFormat.*;
+import com.jetbrains.edu.learning.courseFormat.ext.CourseExt;
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -148,9 +151,14 @@ public class CCLessonMoveHandlerDelegate extends MoveHandlerDelegate {
         }
       }
     });
+    PlaceholderDependencyIndex.getInstance(project).itemChanged(sourceLesson);
     ProjectView.getInstance(project).refresh();
     YamlFormatSynchronizer.saveItem(targetContainer);
     YamlFormatSynchronizer.saveItem(sourceContainer);
+    EduConfigurator<?> configurator = CourseExt.getConfigurator(course);
+    if (configurator != null) {
+      configurator.getCourseBuilder().courseStructureChanged(project, course);
+    }
   }
 
   protected int getDelta(@NotNull Project project, @NotNull StudyItem targetItem) {
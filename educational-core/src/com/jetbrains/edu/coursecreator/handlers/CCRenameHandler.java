@@ -21,6 +21,7 @@ import com.jetbrains.edu.learning.StudyTaskManager;
 import com.jetbrains.edu.learning.courseFormat.Course;
 import com.jetbrains.edu.learning.courseFormat.StudyItem;
 import com.jetbrains.edu.learning.courseFormat.ext.CourseExt;
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
@@ -76,6 +77,7 @@ public abstract class CCRenameHandler implements RenameHandler {
     String newName = Messages.showInputDialog(project, text + " '" + name + "' to", text, null, name, new CCUtils.PathInputValidator(directory.getParent(), name));
     if (newName != null) {
       item.setName(newName);
+      PlaceholderDependencyIndex.getInstance(project).itemChanged(item);
       ApplicationManager.getApplication().runWriteAction(() -> {
         try {
           directory.rename(CCRenameHandler.class, newName);
@@ -24,10 +24,13 @@ import com.jetbrains.edu.coursecreator.ui.CCMoveStudyItemDialog;
 import com.jetbrains.edu.learning.EduNames;
 import com.jetbrains.edu.learning.EduUtils;
 import com.jetbrains.edu.learning.StudyTaskManager;
+import com.jetbrains.edu.learning.configuration.EduConfigurator;
 import com.jetbrains.edu.learning.courseFormat.Course;
 import com.jetbrains.edu.learning.courseFormat.Lesson;
 import com.jetbrains.edu.learning.courseFormat.StudyItem;
+import com.jetbrains.edu.learning.courseFormat.ext.CourseExt;
 import com.jetbrains.edu.learning.courseFormat.tasks.Task;
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -134,7 +137,12 @@ public class CCTaskMoveHandlerDelegate extends MoveHandlerDelegate {
       YamlFormatSynchronizer.saveItem(sourceLesson);
       YamlFormatSynchronizer.saveItem(targetTask.getLesson());
     }
+    PlaceholderDependencyIndex.getInstance(project).itemChanged(taskToMove);
     ProjectView.getInstance(project).refresh();
+    EduConfigurator<?> configurator = CourseExt.getConfigurator(course);
+    if (configurator != null) {
+      configurator.getCourseBuilder().courseStructureChanged(project, course);
+    }
   }
 
   protected int getDelta(@NotNull Project project, @NotNull StudyItem targetTask) {
@@ -161,13 +169,13 @@ public class CCTaskMoveHandlerDelegate extends MoveHandlerDelegate {
 
     final int newItemIndex = targetTask != null ? targetTask.getIndex() + indexDelta : 1;
     taskToMove.setIndex(-1);
-    taskToMove.getLesson().getTaskList().remove(taskToMove);
+    taskToMove.getLesson().removeTask(taskToMove);
     final Lesson finalTargetLesson = targetLesson;
     CCUtils.updateHigherElements(targetDirectory.getChildren(), file -> finalTargetLesson.getTask(file.getName()), newItemIndex - 1, 1);
 
     taskToMove.setIndex(newItemIndex);
     taskToMove.setLesson(targetLesson);
-    targetLesson.getTaskList().add(taskToMove);
+    targetLesson.addTask(taskToMove);
     Collections.sort(targetLesson.getTaskList(), EduUtils.INDEX_COMPARATOR);
     ApplicationManager.getApplication().runWriteAction(new Runnable() {
       @Override
@@ -19,6 +19,7 @@ import com.jetbrains.edu.learning.courseFormat.ext.configurator
 import com.jetbrains.edu.learning.courseFormat.ext.sourceDir
 import com.jetbrains.edu.learning.fileInfo
 import com.jetbrains.edu.learning.handlers.EduVirtualFileListener
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex
 
 class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project) {
 
@@ -62,6 +63,7 @@ class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project)
       }
     }
 
+    PlaceholderDependencyIndex.getInstance(project).itemChanged(task)
     StepikCourseChangeHandler.changed(task)
     YamlFormatSynchronizer.saveItem(task)
   }
@@ -171,6 +173,7 @@ class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project)
       }
     }
 
+    PlaceholderDependencyIndex.getInstance(project).itemChanged(task)
     StepikCourseChangeHandler.changed(task)
     YamlFormatSynchronizer.saveItem(task)
   }
@@ -185,12 +188,13 @@ class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project)
     val fileInfo = event.file.fileInfo(project) ?: return
     val removedFile = event.file
 
-    when (fileInfo) {
-      is FileInfo.SectionDirectory -> deleteSection(fileInfo, removedFile)
-      is FileInfo.LessonDirectory -> deleteLesson(fileInfo, removedFile)
-      is FileInfo.TaskDirectory -> deleteTask(fileInfo, removedFile)
-      is FileInfo.FileInTask -> deleteFileInTask(fileInfo, removedFile)
+    val changedItem = when (fileInfo) {
+      is FileInfo.SectionDirectory -> fileInfo.section.also { deleteSection(fileInfo, removedFile) }
+      is FileInfo.LessonDirectory -> fileInfo.lesson.also { deleteLesson(fileInfo, removedFile) }
+      is FileInfo.TaskDirectory -> fileInfo.task.also { deleteTask(fileInfo, removedFile) }
+      is FileInfo.FileInTask -> fileInfo.task.also { deleteFileInTask(fileInfo, removedFile) }
     }
+    PlaceholderDependencyIndex.getInstance(project).itemChanged(changedItem)
   }
 
   private fun deleteLesson(info: FileInfo.LessonDirectory, removedLessonFile: VirtualFile) {
@@ -209,6 +213,7 @@ class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project)
       StepikCourseChangeHandler.contentChanged(course)
       YamlFormatSynchronizer.saveItem(course)
     }
+    course.configurator?.courseBuilder?.courseStructureChanged(project, course)
   }
 
   private fun deleteSection(info: FileInfo.SectionDirectory, removedFile: VirtualFile) {
@@ -219,6 +224,7 @@ class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project)
     course.removeSection(removedSection)
     YamlFormatSynchronizer.saveItem(course)
     StepikCourseChangeHandler.contentChanged(course)
+    course.configurator?.courseBuilder?.courseStructureChanged(project, course)
   }
 
   private fun deleteTask(info: FileInfo.TaskDirectory, removedTask: VirtualFile) {
@@ -227,7 +233,7 @@ class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project)
     val lessonDir = removedTask.parent ?: error("`$removedTask` parent shouldn't be null")
     val lesson = task.lesson
     CCUtils.updateHigherElements(lessonDir.children, Function { lesson.getTask(it.name) }, task.index, -1)
-    lesson.getTaskList().remove(task)
+    lesson.removeTask(task)
     YamlFormatSynchronizer.saveItem(lesson)
     StepikCourseChangeHandler.contentChanged(lesson)
 
@@ -107,6 +107,17 @@ public interface EduCourseBuilder<Settings> {
     }
   }
 
+  /**
+   * Called after sections, lessons or tasks are moved or deleted
+   * to update project files which depend on course structure without refreshing the whole project
+   */
+  default void courseStructureChanged(@NotNull final Project project, @NotNull final Course course) {}
+
+  /**
+   * Called when user navigates to {@code task}
+   */
+  default void taskOpened(@NotNull final Project project, @NotNull final Task task) {}
+
   @Nullable
   default Lesson createInitialLesson(@NotNull Project project, @NotNull Course course) {
     Lesson lesson = new CCCreateLesson().createAndInitItem(project, course, null, new NewStudyItemInfo(EduNames.LESSON + 1, 1));
@@ -31,6 +31,8 @@ import com.intellij.openapi.fileTypes.PlainTextFileType;
 import com.intellij.openapi.keymap.KeymapUtil;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ModuleRootManager;
@@ -48,11 +50,11 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.testFramework.LightVirtualFile;
 import com.intellij.util.PlatformUtils;
-import com.intellij.util.TimeoutUtil;
 import com.intellij.util.io.zip.JBZipEntry;
 import com.intellij.util.io.zip.JBZipFile;
 import com.intellij.util.ui.UIUtil;
 import com.jetbrains.edu.coursecreator.settings.CCSettings;
+import com.jetbrains.edu.learning.checker.CheckUtils;
 import com.jetbrains.edu.learning.configuration.EduConfigurator;
 import com.jetbrains.edu.learning.courseFormat.*;
 import com.jetbrains.edu.learning.courseFormat.ext.CourseExt;
@@ -86,6 +88,8 @@ import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.jetbrains.edu.learning.navigation.NavigationUtils.navigateToTask;
 
@@ -97,6 +101,7 @@ public class EduUtils {
   public static final Comparator<StudyItem> INDEX_COMPARATOR = Comparator.comparingInt(StudyItem::getIndex);
   private static final String SHORTCUT_ENTITY = "&shortcut:";
   private static final Logger LOG = Logger.getInstance(EduUtils.class.getName());
+  private static final long CANCELLATION_CHECK_INTERVAL_MS = 100;
 
   public static void closeSilently(@Nullable final Closeable stream) {
     if (stream != null) {
@@ -474,13 +479,9 @@ public class EduUtils {
   public static <T> T execCancelable(@NotNull final Callable<T> callable) {
     final Future<T> future = ApplicationManager.getApplication().executeOnPooledThread(callable);
 
-    while (!future.isCancelled() && !future.isDone()) {
-      ProgressManager.checkCanceled();
-      TimeoutUtil.sleep(500);
-    }
     T result = null;
     try {
-      result = future.get();
+      result = waitForFuture(future, null);
     }
     catch (InterruptedException | ExecutionException e) {
       LOG.warn(e.getMessage());
@@ -488,6 +489,41 @@ public class EduUtils {
     return result;
   }
 
+  /**
+   * Waits for {@code future} checking cancellation of {@code indicator} (or of the current thread progress if it's null)
+   * every {@value #CANCELLATION_CHECK_INTERVAL_MS} ms.
+   * On cancellation {@code future} is cancelled too and {@link ProcessCanceledException} is rethrown.
+   * {@link ProcessCanceledException} thrown by the computation itself is rethrown as is, not wrapped into {@link ExecutionException}.
+   */
+  public static <T> T waitForFuture(@NotNull Future<T> future, @Nullable ProgressIndicator indicator)
+    throws ExecutionException, InterruptedException {
+    try {
+      while (true) {
+        if (indicator != null) {
+          indicator.checkCanceled();
+        }
+        else {
+          ProgressManager.checkCanceled();
+        }
+        try {
+          return future.get(CANCELLATION_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException ignored) {
+        }
+        catch (ExecutionException e) {
+          if (e.getCause() instanceof ProcessCanceledException) {
+            throw (ProcessCanceledException)e.getCause();
+          }
+          throw e;
+        }
+      }
+    }
+    catch (ProcessCanceledException e) {
+      future.cancel(false);
+      throw e;
+    }
+  }
+
   @Nullable
   public static String convertToHtml(@Nullable final String content, @NotNull VirtualFile virtualFile) {
     if (content == null) return null;
@@ -867,7 +903,7 @@ public class EduUtils {
           int length = answerPlaceholder.getRealLength();
           int start = answerPlaceholder.getOffset();
           final String windowDescription = document.getText(new TextRange(start, start + length));
-          printWriter.println("#educational_plugin_window = " + windowDescription);
+          printWriter.println(CheckUtils.WINDOW_PREFIX + windowDescription);
         }
         ApplicationManager.getApplication().runWriteAction(() -> FileDocumentManager.getInstance().saveDocument(document));
       }
@@ -0,0 +1,12 @@
+package com.jetbrains.edu.learning
+
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+
+/**
+ * Notified about status changes of any task, so it can be called from any thread.
+ * Listeners have to check that [task] belongs to the course they are interested in.
+ */
+interface TaskStatusListener {
+  fun statusChanged(task: Task, oldStatus: CheckStatus, newStatus: CheckStatus)
+}
@@ -1,6 +1,5 @@
 package com.jetbrains.edu.learning.actions;
 
-import com.intellij.ide.projectView.ProjectView;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.actionSystem.Presentation;
@@ -31,6 +30,7 @@ import com.jetbrains.edu.learning.courseFormat.tasks.Task;
 import com.jetbrains.edu.learning.courseFormat.tasks.TheoryTask;
 import com.jetbrains.edu.learning.coursera.CourseraNames;
 import com.jetbrains.edu.learning.editor.EduEditor;
+import com.jetbrains.edu.learning.statistics.EduMetrics;
 import com.jetbrains.edu.learning.statistics.EduUsagesCollector;
 import com.jetbrains.edu.learning.ui.taskDescription.TaskDescriptionView;
 import com.jetbrains.edu.learning.ui.taskDescription.check.CheckPanel;
@@ -166,13 +166,43 @@ public class CheckAction extends DumbAwareAction {
       myCheckInProgress.set(true);
       TaskDescriptionView.getInstance(myProject).checkStarted();
 
-      CheckResult localCheckResult = myChecker == null ? CheckResult.NO_LOCAL_CHECK : myChecker.check(indicator);
-      if (localCheckResult.getStatus() == CheckStatus.Failed) {
-        myResult = localCheckResult;
+      RemoteTaskChecker remoteChecker = RemoteTaskCheckerManager.remoteCheckerForTask(myProject, myTask);
+      final CheckResultCache cache = CheckResultCache.getInstance(myProject);
+      final String solutionHash = isResultCacheable(remoteChecker) ? cache.computeSolutionHash(myTask, myChecker) : null;
+      final CheckResult cachedResult = solutionHash == null ? null : cache.get(myTask, solutionHash);
+      if (cachedResult != null) {
+        myResult = cachedResult;
         return;
       }
-      RemoteTaskChecker remoteChecker = RemoteTaskCheckerManager.remoteCheckerForTask(myProject, myTask);
-      myResult = remoteChecker == null ? localCheckResult : remoteChecker.check(myProject, myTask, indicator);
+
+      myResult = check(remoteChecker, indicator);
+      if (solutionHash != null) {
+        cache.put(myTask, solutionHash, myResult);
+      }
+    }
+
+    @NotNull
+    private CheckResult check(@Nullable RemoteTaskChecker remoteChecker, @NotNull ProgressIndicator indicator) {
+      CheckResult localCheckResult = myChecker == null ? CheckResult.NO_LOCAL_CHECK : checkLocally(myChecker, indicator);
+      if (localCheckResult.getStatus() == CheckStatus.Failed) {
+        return localCheckResult;
+      }
+      return remoteChecker == null ? localCheckResult : remoteChecker.check(myProject, myTask, indicator);
+    }
+
+    @NotNull
+    private CheckResult checkLocally(@NotNull TaskChecker checker, @NotNull ProgressIndicator indicator) {
+      EduMetrics.Timer timer = EduMetrics.startTimer("check." + myTask.getTaskType());
+      try {
+        return checker.check(indicator);
+      }
+      finally {
+        timer.stop();
+      }
+    }
+
+    private boolean isResultCacheable(@Nullable RemoteTaskChecker remoteChecker) {
+      return myChecker != null && myChecker.isResultCacheable() && (remoteChecker == null || remoteChecker.isResultCacheable());
     }
 
     @Override
@@ -195,7 +225,6 @@ public class CheckAction extends DumbAwareAction {
       TaskDescriptionView.getInstance(myProject).checkFinished(myTask, myResult);
       ApplicationManager.getApplication().invokeLater(() -> {
         EduUtils.updateCourseProgress(myProject);
-        ProjectView.getInstance(myProject).refresh();
 
         for (CheckListener listener : CheckListener.EP_NAME.getExtensions()) {
           listener.afterCheck(myProject, myTask, myResult);
@@ -0,0 +1,32 @@
+package com.jetbrains.edu.learning.actions
+
+import com.intellij.notification.Notification
+import com.intellij.notification.NotificationType
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.ide.CopyPasteManager
+import com.intellij.openapi.project.DumbAwareAction
+import com.jetbrains.edu.learning.statistics.EduMetrics
+import java.awt.datatransfer.StringSelection
+
+/**
+ * Writes snapshot of [EduMetrics] to log and copies it to clipboard
+ */
+class DumpMetricsAction : DumbAwareAction("Dump Educational Metrics", "Write timings and counters of educational plugin operations to log", null) {
+
+  override fun actionPerformed(e: AnActionEvent) {
+    val snapshot = EduMetrics.snapshot()
+    LOG.info("Educational metrics:\n$snapshot")
+    CopyPasteManager.getInstance().setContents(StringSelection(snapshot))
+    Notification("Educational.Metrics", "Educational metrics", "Metrics are written to log and copied to clipboard",
+                 NotificationType.INFORMATION).notify(e.project)
+  }
+
+  override fun update(e: AnActionEvent) {
+    e.presentation.isEnabled = EduMetrics.isEnabled
+  }
+
+  companion object {
+    private val LOG: Logger = Logger.getInstance(DumpMetricsAction::class.java)
+  }
+}
@@ -0,0 +1,162 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.concurrency.SensitiveProgressWrapper
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.util.ConcurrencyUtil
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.checker.gradle.GradleBatchTaskChecker
+import com.jetbrains.edu.learning.checker.gradle.GradleEduTaskChecker
+import com.jetbrains.edu.learning.checker.gradle.GradleOutputTaskChecker
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.ext.configurator
+import com.jetbrains.edu.learning.courseFormat.tasks.IdeTask
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.courseFormat.tasks.TheoryTask
+import com.jetbrains.edu.learning.statistics.EduMetrics
+import java.util.*
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.atomic.AtomicInteger
+
+class TaskCheckReport(val task: Task, val result: CheckResult, val durationMs: Long)
+
+/**
+ * Runs local checkers of all given tasks in background, so course creator can validate the whole course at once.
+ *
+ * Checks run on a pool sized to the number of cores.
+ * Gradle-based checks share a single worker since gradle serializes invocations for the same project anyway,
+ * and edu tasks of module-per-task gradle courses are checked with a single gradle invocation (see [GradleBatchTaskChecker]).
+ * Tasks which can't be checked without opening them in editor are reported as skipped.
+ */
+class CheckAllTasksRunner(private val project: Project, private val tasks: List<Task>) {
+
+  private val reports: MutableMap<Task, TaskCheckReport> = Collections.synchronizedMap(IdentityHashMap())
+  private val checkedTasksCount = AtomicInteger()
+
+  /**
+   * @return reports in the same order as [tasks]
+   */
+  fun run(indicator: ProgressIndicator): List<TaskCheckReport> {
+    indicator.isIndeterminate = false
+    val batchCheckers = ArrayList<GradleEduTaskChecker>()
+    val gradleCheckers = ArrayList<TaskChecker<*>>()
+    val pooledCheckers = ArrayList<TaskChecker<*>>()
+    for (task in tasks) {
+      val checker = if (task is TheoryTask || task is IdeTask) null else task.course.configurator?.taskCheckerProvider?.getTaskChecker(task, project)
+      when {
+        checker == null -> addReport(indicator, TaskCheckReport(task, NOTHING_TO_CHECK, 0))
+        !checker.isCheckableInBackground -> addReport(indicator, TaskCheckReport(task, NOT_CHECKABLE_IN_BACKGROUND, 0))
+        checker is GradleEduTaskChecker && checker.getBatchTestTaskName() != null -> batchCheckers += checker
+        checker is GradleEduTaskChecker || checker is GradleOutputTaskChecker -> gradleCheckers += checker
+        else -> pooledCheckers += checker
+      }
+    }
+
+    val executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                ConcurrencyUtil.newNamedThreadFactory("Check All Tasks"))
+    try {
+      val futures = ArrayList<Future<*>>()
+      if (batchCheckers.isNotEmpty() || gradleCheckers.isNotEmpty()) {
+        futures += executor.submit(underProgress(indicator) { workerIndicator ->
+          GradleBatchTaskChecker(project, batchCheckers).check().forEach { addReport(indicator, it) }
+          for (checker in gradleCheckers) {
+            addReport(indicator, check(checker, workerIndicator))
+          }
+        })
+      }
+      for (checker in pooledCheckers) {
+        futures += executor.submit(underProgress(indicator) { workerIndicator -> addReport(indicator, check(checker, workerIndicator)) })
+      }
+      for (future in futures) {
+        try {
+          EduUtils.waitForFuture(future, indicator)
+        }
+        catch (e: ExecutionException) {
+          LOG.error(e.cause)
+        }
+      }
+    }
+    finally {
+      executor.shutdownNow()
+    }
+    return tasks.mapNotNull { reports[it] }
+  }
+
+  private fun check(checker: TaskChecker<*>, indicator: ProgressIndicator): TaskCheckReport {
+    val startTime = System.currentTimeMillis()
+    val result = try {
+      EduMetrics.time("check.${checker.task.taskType}") { checker.check(indicator) }
+    }
+    catch (e: ProcessCanceledException) {
+      throw e
+    }
+    catch (e: Exception) {
+      LOG.warn("Failed to check task ${checker.task.name}", e)
+      CheckResult.FAILED_TO_CHECK
+    }
+    finally {
+      checker.clearState()
+    }
+    return TaskCheckReport(checker.task, result, System.currentTimeMillis() - startTime)
+  }
+
+  private fun addReport(indicator: ProgressIndicator, report: TaskCheckReport) {
+    reports[report.task] = report
+    val checkedTasks = checkedTasksCount.incrementAndGet()
+    indicator.fraction = checkedTasks.toDouble() / tasks.size
+    indicator.text = "Checked $checkedTasks of ${tasks.size} tasks"
+  }
+
+  /**
+   * Runs [action] with indicator which is cancelled together with [indicator],
+   * so checkers running on pool threads stop their processes on cancellation
+   */
+  private fun underProgress(indicator: ProgressIndicator, action: (ProgressIndicator) -> Unit): Runnable = Runnable {
+    val workerIndicator = SensitiveProgressWrapper(indicator)
+    ProgressManager.getInstance().executeProcessUnderProgress({ action(workerIndicator) }, workerIndicator)
+  }
+
+  companion object {
+    private val LOG: Logger = Logger.getInstance(CheckAllTasksRunner::class.java)
+
+    private val NOTHING_TO_CHECK = CheckResult(CheckStatus.Unchecked, "Skipped: task has nothing to check")
+    private val NOT_CHECKABLE_IN_BACKGROUND = CheckResult(CheckStatus.Unchecked, "Skipped: task can be checked only from editor")
+
+    /**
+     * Plain text report with summary, failed tasks and per-task timings
+     */
+    @JvmStatic
+    fun formatReport(reports: List<TaskCheckReport>, durationMs: Long): String {
+      val byStatus = reports.groupBy { it.result.status }
+      val solved = byStatus[CheckStatus.Solved].orEmpty()
+      val failed = byStatus[CheckStatus.Failed].orEmpty()
+      val unchecked = byStatus[CheckStatus.Unchecked].orEmpty()
+      return buildString {
+        appendln("Checked ${reports.size} tasks in ${StringUtil.formatDuration(durationMs)}: " +
+                 "${solved.size} solved, ${failed.size} failed, ${unchecked.size} not checked")
+        for ((title, group) in listOf("Failed" to failed, "Not checked" to unchecked)) {
+          if (group.isEmpty()) continue
+          appendln()
+          appendln("$title:")
+          for (report in group) {
+            appendln("  ${report.task.path}: ${report.result.message.lineSequence().first()}")
+          }
+        }
+        appendln()
+        appendln("Timings:")
+        for (report in reports.sortedByDescending { it.durationMs }) {
+          appendln("  ${report.task.path}: ${report.result.status}, ${StringUtil.formatDuration(report.durationMs)}")
+        }
+      }
+    }
+
+    private val Task.path: String
+      get() = listOfNotNull(lesson.section?.name, lesson.name, name).joinToString("/")
+  }
+}
@@ -0,0 +1,195 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.execution.process.ProcessAdapter
+import com.intellij.execution.process.ProcessEvent
+import com.intellij.execution.process.ProcessHandler
+import com.intellij.execution.process.ProcessOutputTypes
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.util.Key
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Wall-clock and output size budget of a check process.
+ * Checkers provide their own limits with [TaskChecker.checkLimits]
+ */
+class CheckLimits(val timeoutMs: Long, val maxOutputSize: Long) {
+  companion object {
+    @JvmField val DEFAULT = CheckLimits(TimeUnit.MINUTES.toMillis(1), 10L * 1024 * 1024)
+    @JvmField val OUTPUT_TASK = CheckLimits(TimeUnit.SECONDS.toMillis(30), 1024L * 1024)
+    // gradle may need to start daemon and download dependencies before the first check
+    @JvmField val GRADLE = CheckLimits(TimeUnit.MINUTES.toMillis(10), 10L * 1024 * 1024)
+  }
+}
+
+enum class StopReason {
+  /** Line processor has found the final result, so the rest of the output isn't needed */
+  RESULT_FOUND,
+  TIMEOUT,
+  OUTPUT_LIMIT
+}
+
+class CheckProcessOutput(
+  /** The last [CheckProcessRunner.RETAINED_OUTPUT_SIZE] characters of stdout */
+  val stdout: String,
+  /** The last [CheckProcessRunner.RETAINED_OUTPUT_SIZE] characters of stderr */
+  val stderr: String,
+  val stopReason: StopReason?,
+  private val limits: CheckLimits
+) {
+  val isStoppedByResult: Boolean get() = stopReason == StopReason.RESULT_FOUND
+
+  /**
+   * @return failed result if process was stopped because it exceeded one of the limits, `null` otherwise
+   */
+  val limitExceededResult: CheckResult?
+    get() = when (stopReason) {
+      StopReason.TIMEOUT ->
+        CheckResult(CheckStatus.Failed, "Time limit exceeded: solution was running for more than " +
+                                        "${TimeUnit.MILLISECONDS.toSeconds(limits.timeoutMs)} seconds", stdout)
+      StopReason.OUTPUT_LIMIT ->
+        CheckResult(CheckStatus.Failed, "Output limit exceeded: solution printed more than ${limits.maxOutputSize} characters", stdout)
+      else -> null
+    }
+}
+
+/**
+ * Runs check process and passes its stdout to [processStdoutLine] line by line as soon as it's printed.
+ *
+ * Only the tail of the output is kept in memory, so student code printing in an infinite loop can't exhaust IDE memory.
+ * Process is destroyed when [processStdoutLine] returns `false` (check result is already known),
+ * when it exceeds [limits] or when check is cancelled.
+ *
+ * New runner should be created for each process.
+ */
+class CheckProcessRunner @JvmOverloads constructor(
+  private val limits: CheckLimits,
+  private val processStdoutLine: (String) -> Boolean = { true }
+) {
+
+  private val stdout = BoundedOutputBuffer(RETAINED_OUTPUT_SIZE)
+  private val stderr = BoundedOutputBuffer(RETAINED_OUTPUT_SIZE)
+  private val stdoutLines = LineSplitter()
+  private val outputSize = AtomicLong()
+  @Volatile private var stopReason: StopReason? = null
+
+  fun run(handler: ProcessHandler): CheckProcessOutput {
+    attachTo(handler)
+    handler.startNotify()
+    return waitFor(handler)
+  }
+
+  /**
+   * Starts listening to output of already started [handler]. Use [waitFor] to get the result
+   */
+  fun attachTo(handler: ProcessHandler) {
+    handler.addProcessListener(object : ProcessAdapter() {
+      override fun onTextAvailable(event: ProcessEvent, outputType: Key<*>) {
+        if (stopReason != null) return
+        val text = event.text
+        if (outputSize.addAndGet(text.length.toLong()) > limits.maxOutputSize) {
+          stopReason = StopReason.OUTPUT_LIMIT
+          return
+        }
+        when (outputType) {
+          ProcessOutputTypes.STDOUT -> {
+            stdout.append(text)
+            if (!stdoutLines.append(text, processStdoutLine)) {
+              stopReason = StopReason.RESULT_FOUND
+            }
+          }
+          ProcessOutputTypes.STDERR -> stderr.append(text)
+        }
+      }
+    })
+  }
+
+  fun waitFor(handler: ProcessHandler): CheckProcessOutput {
+    val deadline = System.currentTimeMillis() + limits.timeoutMs
+    try {
+      while (!handler.waitFor(POLL_INTERVAL_MS)) {
+        ProgressManager.checkCanceled()
+        if (stopReason != null) break
+        if (System.currentTimeMillis() > deadline) {
+          stopReason = StopReason.TIMEOUT
+          break
+        }
+      }
+    }
+    catch (e: ProcessCanceledException) {
+      handler.destroyProcess()
+      throw e
+    }
+
+    if (stopReason != null) {
+      handler.destroyProcess()
+    }
+    else if (!stdoutLines.flush(processStdoutLine)) {
+      stopReason = StopReason.RESULT_FOUND
+    }
+    return CheckProcessOutput(stdout.toString(), stderr.toString(), stopReason, limits)
+  }
+
+  companion object {
+    const val RETAINED_OUTPUT_SIZE = 64 * 1024
+    internal const val TRUNCATED_OUTPUT_PREFIX = "...\n"
+    private const val POLL_INTERVAL_MS = 100L
+  }
+}
+
+/**
+ * Splits text appended in arbitrary chunks into lines without line breaks (`\n` or `\r\n`)
+ */
+internal class LineSplitter {
+  private val currentLine = StringBuilder()
+
+  fun append(text: String, processLine: (String) -> Boolean): Boolean {
+    var start = 0
+    while (true) {
+      val lineEnd = text.indexOf('\n', start)
+      if (lineEnd < 0) break
+      currentLine.append(text, start, lineEnd)
+      start = lineEnd + 1
+      if (!processCurrentLine(processLine)) return false
+    }
+    currentLine.append(text, start, text.length)
+    return true
+  }
+
+  /**
+   * Processes the last line if it isn't terminated with line break
+   */
+  fun flush(processLine: (String) -> Boolean): Boolean = currentLine.isEmpty() || processCurrentLine(processLine)
+
+  private fun processCurrentLine(processLine: (String) -> Boolean): Boolean {
+    val line = currentLine.toString().removeSuffix("\r")
+    currentLine.setLength(0)
+    return processLine(line)
+  }
+}
+
+/**
+ * Buffer which keeps only the last [capacity] characters of appended text
+ */
+internal class BoundedOutputBuffer(private val capacity: Int) {
+  private val buffer = StringBuilder()
+  private var isTruncated = false
+
+  @Synchronized
+  fun append(text: String) {
+    buffer.append(text)
+    // trim in batches to keep appending amortized O(1)
+    if (buffer.length > 2 * capacity) {
+      buffer.delete(0, buffer.length - capacity)
+      isTruncated = true
+    }
+  }
+
+  @Synchronized
+  override fun toString(): String {
+    if (!isTruncated && buffer.length <= capacity) return buffer.toString()
+    return CheckProcessRunner.TRUNCATED_OUTPUT_PREFIX + buffer.substring(buffer.length - capacity)
+  }
+}
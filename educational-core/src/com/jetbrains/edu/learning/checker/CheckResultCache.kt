@@ -0,0 +1,147 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.intellij.openapi.vfs.VirtualFile
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.ext.configurator
+import com.jetbrains.edu.learning.courseFormat.ext.getVirtualFile
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.gradle.GradleConstants
+import java.io.IOException
+import java.security.MessageDigest
+import java.util.*
+
+/**
+ * Keeps the last check result of each task together with hash of everything which affects it:
+ * texts of task files and tests, other files of task dir (nested tests, resources, expected output),
+ * course-level files shared by all tasks
+ * (see [COURSE_SHARED_FILES] and [EduNames.UTIL] directory) and checker configuration.
+ *
+ * Checking unchanged solution again returns cached result without flushing files and launching check process.
+ * Any change of solution or tests changes the hash, so outdated results are never returned.
+ */
+class CheckResultCache(private val project: Project) {
+
+  // tasks have content based `equals` which changes together with solution
+  private val entries: MutableMap<Task, Entry> = Collections.synchronizedMap(IdentityHashMap())
+
+  fun get(task: Task, solutionHash: String): CheckResult? {
+    val entry = entries[task] ?: return null
+    return if (entry.solutionHash == solutionHash) entry.result else null
+  }
+
+  fun put(task: Task, solutionHash: String, result: CheckResult) {
+    // results which aren't answers about solution (e.g. failed to launch checking) must be recomputed
+    if (result.status == CheckStatus.Unchecked) {
+      entries.remove(task)
+      return
+    }
+    entries[task] = Entry(solutionHash, result)
+  }
+
+  /**
+   * @return hash of everything which affects result of [checker] for [task],
+   * `null` if some of task files can't be read and result shouldn't be cached
+   */
+  fun computeSolutionHash(task: Task, checker: TaskChecker<*>): String? = runReadAction {
+    val digest = MessageDigest.getInstance(HASH_ALGORITHM)
+    fun update(value: String?) {
+      digest.update(value.orEmpty().toByteArray(Charsets.UTF_8))
+      digest.update(0)
+    }
+
+    update(checker.javaClass.name)
+    update("${checker.checkLimits.timeoutMs}:${checker.checkLimits.maxOutputSize}")
+    update("${task.course.languageID}:${task.course.languageVersion}")
+    update(ProjectRootManager.getInstance(project).projectSdk?.homePath)
+
+    for ((name, taskFile) in task.taskFiles.toSortedMap()) {
+      val file = taskFile.getVirtualFile(project) ?: return@runReadAction null
+      update(name)
+      update(loadText(file) ?: return@runReadAction null)
+    }
+
+    val taskDir = task.getTaskDir(project) ?: return@runReadAction null
+    for ((path, text) in task.testsText.toSortedMap()) {
+      update(path)
+      update(taskDir.findFileByRelativePath(path)?.let { loadText(it) } ?: text)
+    }
+    for (file in (collectOtherTaskFiles(task, taskDir) + collectCourseSharedFiles()).sortedBy { it.path }) {
+      update(file.path)
+      update(loadText(file))
+    }
+    StringUtil.toHexString(digest.digest())
+  }
+
+  /**
+   * Collects files of task dir which aren't task files or tests, e.g. nested test dirs, resources and expected output.
+   * Files excluded from course archive and placeholder texts flushed for checking don't affect check result
+   */
+  private fun collectOtherTaskFiles(task: Task, taskDir: VirtualFile): List<VirtualFile> {
+    val knownPaths = task.taskFiles.keys + task.testsText.keys
+    val configurator = task.course.configurator
+    val files = ArrayList<VirtualFile>()
+    VfsUtilCore.iterateChildrenRecursively(taskDir, { file -> configurator?.excludeFromArchive(project, file) != true }) { file ->
+      if (!file.isDirectory && !isFlushedWindows(file)) {
+        val path = VfsUtilCore.getRelativePath(file, taskDir)
+        if (path !in knownPaths) {
+          files += file
+        }
+      }
+      true
+    }
+    return files
+  }
+
+  private fun isFlushedWindows(file: VirtualFile): Boolean {
+    val name = file.name
+    return name.contains(EduNames.WINDOW_POSTFIX) || name.contains(EduNames.WINDOWS_POSTFIX) || name.contains(EduNames.ANSWERS_POSTFIX)
+  }
+
+  private fun collectCourseSharedFiles(): List<VirtualFile> {
+    val courseDir = EduUtils.getCourseDir(project)
+    val files = COURSE_SHARED_FILES.mapNotNull { courseDir.findChild(it) }.toMutableList()
+    val utilDir = courseDir.findChild(EduNames.UTIL)
+    if (utilDir != null) {
+      VfsUtilCore.iterateChildrenRecursively(utilDir, null) { file ->
+        if (!file.isDirectory) {
+          files += file
+        }
+        true
+      }
+    }
+    return files
+  }
+
+  private fun loadText(file: VirtualFile): String? {
+    FileDocumentManager.getInstance().getCachedDocument(file)?.let { return it.text }
+    return try {
+      VfsUtilCore.loadText(file)
+    } catch (e: IOException) {
+      null
+    }
+  }
+
+  private class Entry(val solutionHash: String, val result: CheckResult)
+
+  companion object {
+    private const val HASH_ALGORITHM = "SHA-256"
+
+    /**
+     * Files in course root which are used by checks of all tasks
+     */
+    private val COURSE_SHARED_FILES = listOf(GradleConstants.BUILD_GRADLE, GradleConstants.SETTINGS_GRADLE,
+                                             GradleConstants.GRADLE_PROPERTIES, EduNames.TEST_HELPER)
+
+    @JvmStatic
+    fun getInstance(project: Project): CheckResultCache = ServiceManager.getService(project, CheckResultCache::class.java)
+  }
+}
@@ -2,20 +2,26 @@ package com.jetbrains.edu.learning.checker;
 
 import com.intellij.execution.RunnerAndConfigurationSettings;
 import com.intellij.execution.actions.ConfigurationContext;
-import com.intellij.execution.process.ProcessOutput;
 import com.intellij.ide.DataManager;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileEditor;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.wm.IdeFocusManager;
 import com.jetbrains.edu.learning.EduState;
 import com.jetbrains.edu.learning.EduUtils;
+import com.jetbrains.edu.learning.EduNames;
 import com.jetbrains.edu.learning.StudyTaskManager;
+import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholder;
 import com.jetbrains.edu.learning.courseFormat.TaskFile;
 import com.jetbrains.edu.learning.courseFormat.tasks.Task;
 import com.jetbrains.edu.learning.editor.EduSingleFileEditor;
@@ -25,6 +31,14 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -35,6 +49,8 @@ public class CheckUtils {
   public static final String NOT_RUNNABLE_MESSAGE = "Solution isn't runnable";
   public static final String LOGIN_NEEDED_MESSAGE = "Please, login to Stepik to check the task";
   public static final String FAILED_TO_CHECK_MESSAGE = "Failed to launch checking";
+  public static final String WINDOW_PREFIX = STUDY_PREFIX + "_window = ";
+  private static final String WINDOWS_DIR_PREFIX = "edu_windows";
 
   private CheckUtils() {
   }
@@ -92,6 +108,86 @@ public class CheckUtils {
     }
   }
 
+  /**
+   * Writes texts of answer placeholders of each task file to {@code <file name>_windows} file in a new temp directory
+   * outside of the project. Windows files keep paths of task files relative to task dir.
+   * Files are written with plain NIO, so VFS isn't touched and doesn't need to be refreshed.
+   *
+   * @return created directory, caller is responsible for deleting it after check
+   */
+  @NotNull
+  public static Path flushWindowsToTempDir(@NotNull final Task task, @NotNull final VirtualFile taskDir) throws IOException {
+    final Path windowsDir = Files.createTempDirectory(WINDOWS_DIR_PREFIX);
+    flushWindows(task, taskDir, windowsDir);
+    return windowsDir;
+  }
+
+  /**
+   * Writes texts of answer placeholders of each task file to {@code <file name>_windows} file with plain NIO
+   * without VFS refresh.
+   *
+   * @param windowsDir directory for windows files where task dir structure is mirrored, if {@code null} they're written next to task files
+   * @return written files
+   */
+  @NotNull
+  public static List<Path> flushWindows(@NotNull final Task task,
+                                        @NotNull final VirtualFile taskDir,
+                                        @Nullable final Path windowsDir) throws IOException {
+    final List<Document> unsavedDocuments = new ArrayList<>();
+    final Map<Path, List<String>> windows = ApplicationManager.getApplication().runReadAction((Computable<Map<Path, List<String>>>) () -> {
+      final Map<Path, List<String>> result = new LinkedHashMap<>();
+      for (TaskFile taskFile : task.getTaskFiles().values()) {
+        final VirtualFile file = EduUtils.findTaskFileInDir(taskFile, taskDir);
+        final Document document = file == null ? null : FileDocumentManager.getInstance().getDocument(file);
+        if (document == null) {
+          continue;
+        }
+        if (FileDocumentManager.getInstance().isDocumentUnsaved(document)) {
+          unsavedDocuments.add(document);
+        }
+        final Path dir = windowsDir != null ? resolveTaskRelativeDir(windowsDir, taskDir, file) : Paths.get(file.getParent().getPath());
+        final List<String> texts = new ArrayList<>();
+        for (AnswerPlaceholder placeholder : taskFile.getAnswerPlaceholders()) {
+          final int start = placeholder.getOffset();
+          texts.add(document.getText(TextRange.from(start, placeholder.getRealLength())));
+        }
+        result.put(dir.resolve(file.getNameWithoutExtension() + EduNames.WINDOWS_POSTFIX), texts);
+      }
+      return result;
+    });
+    if (!unsavedDocuments.isEmpty()) {
+      ApplicationManager.getApplication().invokeAndWait(() -> ApplicationManager.getApplication().runWriteAction(() -> {
+        for (Document document : unsavedDocuments) {
+          FileDocumentManager.getInstance().saveDocument(document);
+        }
+      }));
+    }
+    for (Map.Entry<Path, List<String>> entry : windows.entrySet()) {
+      Files.createDirectories(entry.getKey().getParent());
+      // windows are read by test helper with default encoding of python process
+      try (BufferedWriter writer = Files.newBufferedWriter(entry.getKey(), Charset.defaultCharset())) {
+        for (String text : entry.getValue()) {
+          writer.write(WINDOW_PREFIX);
+          writer.write(text);
+          writer.newLine();
+        }
+      }
+    }
+    return new ArrayList<>(windows.keySet());
+  }
+
+  /**
+   * Task files in different directories can have the same name, so path of file directory relative to task dir is kept
+   */
+  @NotNull
+  private static Path resolveTaskRelativeDir(@NotNull Path windowsDir, @NotNull VirtualFile taskDir, @NotNull VirtualFile file) {
+    final String relativePath = VfsUtilCore.getRelativePath(file.getParent(), taskDir);
+    if (relativePath == null || relativePath.isEmpty()) {
+      return windowsDir;
+    }
+    return windowsDir.resolve(FileUtil.toSystemDependentName(relativePath));
+  }
+
   @Nullable
   public static RunnerAndConfigurationSettings createDefaultRunConfiguration(@NotNull Project project) {
     return ApplicationManager.getApplication().runReadAction((Computable<RunnerAndConfigurationSettings>) () -> {
@@ -103,9 +199,9 @@ public class CheckUtils {
     });
   }
 
-  public static boolean hasCompilationErrors(ProcessOutput processOutput) {
+  public static boolean hasCompilationErrors(@NotNull String stderr) {
     for (String error : COMPILATION_ERRORS) {
-      if (processOutput.getStderr().contains(error)) return true;
+      if (stderr.contains(error)) return true;
     }
     return false;
   }
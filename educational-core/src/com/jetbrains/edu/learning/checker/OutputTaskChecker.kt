@@ -4,20 +4,16 @@ import com.intellij.execution.ExecutionListener
 import com.intellij.execution.ExecutionManager
 import com.intellij.execution.RunnerRegistry
 import com.intellij.execution.executors.DefaultRunExecutor
-import com.intellij.execution.process.ProcessAdapter
-import com.intellij.execution.process.ProcessEvent
-import com.intellij.execution.process.ProcessOutputTypes
+import com.intellij.execution.process.ProcessHandler
 import com.intellij.execution.runners.ExecutionEnvironment
 import com.intellij.execution.runners.ExecutionEnvironmentBuilder
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
-import com.intellij.openapi.util.Key
 import com.intellij.openapi.vfs.VfsUtil
 import com.jetbrains.edu.learning.checker.CheckUtils.NOT_RUNNABLE_MESSAGE
 import com.jetbrains.edu.learning.checker.CheckUtils.createDefaultRunConfiguration
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.tasks.OutputTask
-import java.util.*
 import java.util.concurrent.CountDownLatch
 
 
@@ -26,16 +22,27 @@ open class OutputTaskChecker(task: OutputTask, project: Project) : TaskChecker<O
     const val OUTPUT_PATTERN_NAME = "output.txt"
   }
 
+  override val checkLimits: CheckLimits get() = CheckLimits.OUTPUT_TASK
+
+  // run configuration is created for the selected editor
+  override val isCheckableInBackground: Boolean get() = false
+
   override fun check(indicator: ProgressIndicator): CheckResult {
     val configuration = createDefaultRunConfiguration(project) ?: return CheckResult(CheckStatus.Unchecked, NOT_RUNNABLE_MESSAGE)
+    val outputPatternFile = task.getTaskDir(project)?.findChild(OUTPUT_PATTERN_NAME)
+            ?: return CheckResult.FAILED_TO_CHECK
+    val expectedOutput = VfsUtil.loadText(outputPatternFile)
     val executor = DefaultRunExecutor.getRunExecutorInstance()
     val runner = RunnerRegistry.getInstance().getRunner(executor.id, configuration.configuration)
+                 ?: return CheckResult(CheckStatus.Unchecked, NOT_RUNNABLE_MESSAGE)
     configuration.isActivateToolWindowBeforeRun = false
     val env = ExecutionEnvironmentBuilder.create(executor, configuration).build()
     var processNotStarted = false
+    var processHandler: ProcessHandler? = null
     val connection = project.messageBus.connect()
     val latch = CountDownLatch(1)
-    val output = ArrayList<String>()
+    val matcher = StreamingOutputMatcher(expectedOutput)
+    val processRunner = CheckProcessRunner(checkLimits, matcher::processLine)
     connection.subscribe(ExecutionManager.EXECUTION_TOPIC, object : ExecutionListener {
       override fun processNotStarted(executorId: String, e: ExecutionEnvironment) {
         if (executorId == executor.id && e == env) {
@@ -44,38 +51,29 @@ open class OutputTaskChecker(task: OutputTask, project: Project) : TaskChecker<O
         }
       }
     })
-    runner?.execute(env) {
-      it.processHandler?.addProcessListener(object : ProcessAdapter() {
-        override fun onTextAvailable(event: ProcessEvent, outputType: Key<*>) {
-          if (outputType == ProcessOutputTypes.STDOUT) {
-            output.add(event.text)
-          }
-        }
-
-        override fun processTerminated(event: ProcessEvent) {
-          latch.countDown()
-        }
-      })
+    runner.execute(env) {
+      val handler = it.processHandler
+      if (handler != null) {
+        processRunner.attachTo(handler)
+        processHandler = handler
+      }
+      latch.countDown()
     }
 
     latch.await()
     connection.disconnect()
-    if (processNotStarted) {
+    val handler = processHandler
+    if (processNotStarted || handler == null) {
       return CheckResult(CheckStatus.Unchecked, NOT_RUNNABLE_MESSAGE)
     }
 
-    val outputPatternFile = task.getTaskDir(project)?.findChild(OUTPUT_PATTERN_NAME)
-            ?: return CheckResult.FAILED_TO_CHECK
-    val expectedOutput = VfsUtil.loadText(outputPatternFile)
-    var outputString = output.joinToString("")
-    if (outputString.isEmpty()) {
-      outputString = "<no output>"
-    }
-    if (expectedOutput.dropLastLineBreak() == outputString.dropLastLineBreak()) {
+    // stops solution as soon as its output differs from expected one
+    val output = processRunner.waitFor(handler)
+    output.limitExceededResult?.let { return it }
+    if (matcher.isMatched) {
       return CheckResult(CheckStatus.Solved, TestsOutputParser.CONGRATULATIONS)
     }
+    val outputString = if (output.stdout.isEmpty()) "<no output>" else output.stdout
     return CheckResult(CheckStatus.Failed, "Expected output:\n$expectedOutput \nActual output:\n$outputString")
   }
-
-  private fun String.dropLastLineBreak() : String = if (this.endsWith('\n')) this.dropLast(1) else this
-}
\ No newline at end of file
+}
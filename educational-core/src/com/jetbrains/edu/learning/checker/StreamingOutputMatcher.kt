@@ -0,0 +1,30 @@
+package com.jetbrains.edu.learning.checker
+
+/**
+ * Compares output of a solution with expected one line by line while solution is running,
+ * so check can be stopped at the first mismatched line instead of waiting for the whole output.
+ *
+ * Like the final comparison, it ignores the last line break of expected output.
+ */
+class StreamingOutputMatcher(expectedOutput: String) {
+  private val expectedLines = expectedOutput.removeSuffix("\n").split("\n").map { it.removeSuffix("\r") }
+  private var matchedLines = 0
+
+  var isMismatched: Boolean = false
+    private set
+
+  val isMatched: Boolean get() = !isMismatched && matchedLines == expectedLines.size
+
+  /**
+   * @return `false` if output has already diverged from expected one
+   */
+  fun processLine(line: String): Boolean {
+    if (isMismatched) return false
+    if (matchedLines >= expectedLines.size || expectedLines[matchedLines] != line) {
+      isMismatched = true
+      return false
+    }
+    matchedLines++
+    return true
+  }
+}
@@ -17,6 +17,22 @@ open class TaskChecker<out T : Task>(@JvmField val task: T, @JvmField val projec
 
   open fun clearState() {}
 
+  /**
+   * Limits of processes launched to check [task]
+   */
+  open val checkLimits: CheckLimits get() = CheckLimits.DEFAULT
+
+  /**
+   * `false` if [check] relies on [task] being opened in the selected editor,
+   * so the task can't be checked in background together with other tasks
+   */
+  open val isCheckableInBackground: Boolean get() = true
+
+  /**
+   * `false` if [check] has side effects, so it should be run again even for unchanged solution (see [CheckResultCache])
+   */
+  open val isResultCacheable: Boolean get() = true
+
   companion object {
     const val EP_NAME = "Educational.taskChecker"
     @JvmField
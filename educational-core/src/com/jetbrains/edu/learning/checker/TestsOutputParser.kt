@@ -1,52 +1,138 @@
 package com.jetbrains.edu.learning.checker
 
+import com.google.gson.Gson
+import com.google.gson.JsonSyntaxException
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import java.util.regex.Pattern
 
 
 object TestsOutputParser {
   const val CONGRATULATIONS = "Congratulations!"
-  private const val TEST_OK = "test OK"
-  private const val TEST_FAILED = "FAILED + "
-  private const val CONGRATS_MESSAGE = "CONGRATS_MESSAGE "
-  private val TEST_FAILED_PATTERN: Pattern = Pattern.compile("((.+) )?expected: ?(.*) but was: ?(.*)",
-                                                             Pattern.MULTILINE or Pattern.DOTALL)
+
+  /**
+   * Prefix of structured test result line.
+   * The rest of the line is JSON object, so messages don't need any escaping and always take a single line:
+   * ```
+   * #educational_plugin_result {"test": "testName", "passed": false, "message": "expected: <1> but was: <2>"}
+   * #educational_plugin_result {"congratulations": "Custom congratulations"}
+   * ```
+   */
+  const val TEST_RESULT_PREFIX = "#educational_plugin_result "
 
   @JvmOverloads
   @JvmStatic
   fun getCheckResult(messages: List<String>, needEscapeResult: Boolean = true): CheckResult {
-    var congratulations = TestsOutputParser.CONGRATULATIONS
-    loop@for (message in messages) {
-      when {
-        TestsOutputParser.TEST_OK in message -> continue@loop
-        TestsOutputParser.CONGRATS_MESSAGE in message -> {
-          congratulations = message.substringAfter(TestsOutputParser.CONGRATS_MESSAGE)
-        }
-        TestsOutputParser.TEST_FAILED in message -> {
-          return CheckResult(CheckStatus.Failed,
-                             message.substringAfter(TestsOutputParser.TEST_FAILED).prettify(),
-                             needEscape = needEscapeResult)
-        }
-      }
+    val processor = TestsOutputProcessor(needEscapeResult)
+    for (message in messages) {
+      if (!processor.process(message)) break
     }
-
-    return CheckResult(CheckStatus.Solved, congratulations, needEscape = needEscapeResult)
+    return processor.checkResult
   }
+}
+
+class TestResult(val name: String?, val isPassed: Boolean, val message: String?)
+
+/**
+ * Processes test output message by message, so callers can stop reading output as soon as the first test fails.
+ *
+ * Structured results (see [TestsOutputParser.TEST_RESULT_PREFIX]) are preferred,
+ * but old `test OK`, `FAILED + ` and `CONGRATS_MESSAGE ` messages are still supported
+ * since test helpers of existing courses aren't regenerated.
+ */
+class TestsOutputProcessor @JvmOverloads constructor(private val needEscapeResult: Boolean = true) {
 
-  private fun String.prettify(): String {
-    val matcher = TEST_FAILED_PATTERN.matcher(this)
-    return if (matcher.find()) {
-      val errorMessage = matcher.group(2)
-      val expectedText = matcher.group(3)
-      val actualText = matcher.group(4)
-      if (errorMessage != null) {
-        "$errorMessage\nExpected:\n$expectedText\nActual:\n$actualText"
+  private val results = mutableListOf<TestResult>()
+  private var congratulations = TestsOutputParser.CONGRATULATIONS
+  private var failedTest: TestResult? = null
+
+  val testResults: List<TestResult> get() = results
+
+  val checkResult: CheckResult
+    get() {
+      val failedTest = failedTest
+      return if (failedTest != null) {
+        CheckResult(CheckStatus.Failed, failedTest.message.orEmpty(), needEscape = needEscapeResult)
       } else {
-        "Expected:\n$expectedText\nActual:\n$actualText"
+        CheckResult(CheckStatus.Solved, congratulations, needEscape = needEscapeResult)
       }
+    }
+
+  /**
+   * @return `false` if one of the tests has already failed, so the rest of output can't change check result
+   */
+  fun process(message: String): Boolean {
+    if (failedTest != null) return false
+    val resultIndex = message.indexOf(TestsOutputParser.TEST_RESULT_PREFIX)
+    if (resultIndex >= 0) {
+      processStructuredResult(message.substring(resultIndex + TestsOutputParser.TEST_RESULT_PREFIX.length))
     } else {
-      this
+      processLegacyMessage(message)
     }
+    return failedTest == null
   }
 
+  private fun processStructuredResult(json: String) {
+    val event = try {
+      GSON.fromJson(json, TestResultEvent::class.java)
+    } catch (e: JsonSyntaxException) {
+      null
+    } ?: return
+
+    event.congratulations?.let { congratulations = it }
+    if (event.test == null && event.passed == null) return
+    addResult(TestResult(event.test, event.passed != false, event.message?.prettify()))
+  }
+
+  private fun processLegacyMessage(message: String) {
+    when {
+      TEST_OK in message -> addResult(TestResult(legacyTestName(message, TEST_OK), true, null))
+      CONGRATS_MESSAGE in message -> congratulations = message.substringAfter(CONGRATS_MESSAGE)
+      TEST_FAILED in message -> {
+        addResult(TestResult(legacyTestName(message, TEST_FAILED), false, message.substringAfter(TEST_FAILED).prettify()))
+      }
+    }
+  }
+
+  private fun addResult(result: TestResult) {
+    results += result
+    if (!result.isPassed) {
+      failedTest = result
+    }
+  }
+
+  private fun legacyTestName(message: String, marker: String): String? =
+    message.substringBefore(marker).removePrefix(CheckUtils.STUDY_PREFIX).trim().takeIf { it.isNotEmpty() }
+
+  // fields are set by Gson
+  private class TestResultEvent {
+    var test: String? = null
+    var passed: Boolean? = null
+    var message: String? = null
+    var congratulations: String? = null
+  }
+
+  companion object {
+    private const val TEST_OK = "test OK"
+    private const val TEST_FAILED = "FAILED + "
+    private const val CONGRATS_MESSAGE = "CONGRATS_MESSAGE "
+    private val TEST_FAILED_PATTERN: Pattern = Pattern.compile("((.+) )?expected: ?(.*) but was: ?(.*)",
+                                                               Pattern.MULTILINE or Pattern.DOTALL)
+    private val GSON = Gson()
+
+    private fun String.prettify(): String {
+      val matcher = TEST_FAILED_PATTERN.matcher(this)
+      return if (matcher.find()) {
+        val errorMessage = matcher.group(2)
+        val expectedText = matcher.group(3)
+        val actualText = matcher.group(4)
+        if (errorMessage != null) {
+          "$errorMessage\nExpected:\n$expectedText\nActual:\n$actualText"
+        } else {
+          "Expected:\n$expectedText\nActual:\n$actualText"
+        }
+      } else {
+        this
+      }
+    }
+  }
 }
@@ -12,6 +12,9 @@ import com.jetbrains.edu.learning.courseFormat.tasks.TheoryTask
 
 open class TheoryTaskChecker(task: TheoryTask, project: Project) : TaskChecker<TheoryTask>(task, project) {
 
+  // running theory task shows program output
+  override val isResultCacheable: Boolean get() = false
+
   override fun check(indicator: ProgressIndicator): CheckResult {
     val configuration = createDefaultRunConfiguration(project)
     if (configuration == null) {
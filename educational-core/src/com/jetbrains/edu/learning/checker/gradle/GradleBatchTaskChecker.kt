@@ -0,0 +1,101 @@
+package com.jetbrains.edu.learning.checker.gradle
+
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.checker.*
+import com.jetbrains.edu.learning.checker.CheckUtils.COMPILATION_FAILED_MESSAGE
+import com.jetbrains.edu.learning.checker.CheckUtils.hasCompilationErrors
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+
+/**
+ * Checks edu tasks of module-per-task gradle course with a single gradle invocation,
+ * so gradle starts and configures the project once instead of once per task.
+ *
+ * Gradle runs with `--continue`, so failure of one task doesn't prevent checking of the others.
+ * Output is attributed to tasks by `> Task :name` headers which gradle prints before executing each task.
+ *
+ * @see GradleEduTaskChecker.getBatchTestTaskName
+ */
+class GradleBatchTaskChecker(private val project: Project, checkers: List<GradleEduTaskChecker>) {
+
+  private val tasks: Map<String, Task> = checkers.mapNotNull { checker -> checker.getBatchTestTaskName()?.let { it to checker.task } }.toMap()
+
+  fun check(): List<TaskCheckReport> {
+    if (tasks.isEmpty()) return emptyList()
+    val gradleTaskNames = tasks.keys.toList()
+    val commandLine = GradleCommandLine.create(project, gradleTaskNames.first(), *gradleTaskNames.drop(1).toTypedArray(), CONTINUE_ARG)
+      ?.withLimits(CheckLimits(CheckLimits.GRADLE.timeoutMs + tasks.size * CheckLimits.DEFAULT.timeoutMs,
+                               CheckLimits.GRADLE.maxOutputSize + tasks.size * CheckLimits.DEFAULT.maxOutputSize))
+    val startTime = System.currentTimeMillis()
+    val outputProcessor = BatchOutputProcessor(tasks)
+    val output = commandLine?.runProcess(outputProcessor::processLine)
+      ?: return tasks.values.map { TaskCheckReport(it, CheckResult.FAILED_TO_CHECK, System.currentTimeMillis() - startTime) }
+    return outputProcessor.getReports(output)
+  }
+
+  /**
+   * Attributes output of gradle invocation to tasks line by line
+   *
+   * @param tasks tasks by names of their gradle test tasks
+   */
+  internal class BatchOutputProcessor(
+    private val tasks: Map<String, Task>,
+    private val currentTimeMillis: () -> Long = System::currentTimeMillis
+  ) {
+    private val executedTasks = LinkedHashMap<String, ExecutedTask>()
+    private var currentTask: ExecutedTask? = null
+    private val messagesCollector = GradleMessagesCollector({ message ->
+      currentTask?.testsOutputProcessor?.process(message)
+      true
+    })
+
+    fun processLine(line: String): Boolean {
+      val header = TASK_HEADER.matchEntire(line) ?: return messagesCollector.processLine(line)
+      messagesCollector.flush()
+      val now = currentTimeMillis()
+      currentTask?.finishTime = now
+      currentTask = header.groupValues[1].takeIf { it in tasks }?.let { name -> executedTasks.getOrPut(name) { ExecutedTask(now) } }
+      return true
+    }
+
+    fun getReports(output: CheckProcessOutput): List<TaskCheckReport> {
+      messagesCollector.flush()
+      val finishTime = currentTimeMillis()
+      currentTask?.finishTime = finishTime
+
+      val limitExceededResult = output.limitExceededResult
+      return tasks.map { (name, task) ->
+        val executedTask = executedTasks[name]
+        when {
+          executedTask != null && (limitExceededResult == null || executedTask !== currentTask) ->
+            TaskCheckReport(task, executedTask.testsOutputProcessor.checkResult, executedTask.duration(finishTime))
+          limitExceededResult != null -> TaskCheckReport(task, limitExceededResult, executedTask?.duration(finishTime) ?: 0)
+          else -> TaskCheckReport(task, notExecutedResult(name, output.stderr), 0)
+        }
+      }
+    }
+
+    private fun notExecutedResult(gradleTaskName: String, stderr: String): CheckResult {
+      // gradle reports failed compilation as `Execution failed for task ':lesson1-task1:compileJava'`
+      val projectName = gradleTaskName.removeSuffix(":$TEST_TASK_NAME")
+      return if (hasCompilationErrors(stderr) && "'$projectName:" in stderr) {
+        CheckResult(CheckStatus.Failed, COMPILATION_FAILED_MESSAGE, stderr)
+      }
+      else {
+        CheckResult.FAILED_TO_CHECK
+      }
+    }
+  }
+
+  private class ExecutedTask(val startTime: Long) {
+    val testsOutputProcessor = TestsOutputProcessor()
+    var finishTime: Long? = null
+
+    fun duration(gradleFinishTime: Long): Long = (finishTime ?: gradleFinishTime) - startTime
+  }
+
+  companion object {
+    private const val CONTINUE_ARG = "--continue"
+    private val TASK_HEADER = Regex("> Task (:\\S+).*")
+  }
+}
@@ -2,6 +2,7 @@ package com.jetbrains.edu.learning.checker.gradle
 
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.checker.CheckLimits
 import com.jetbrains.edu.learning.checker.CheckResult
 import com.jetbrains.edu.learning.checker.CheckResult.Companion.FAILED_TO_CHECK
 import com.jetbrains.edu.learning.checker.TaskChecker
@@ -9,6 +10,8 @@ import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
 
 open class GradleEduTaskChecker(task: EduTask, project: Project) : TaskChecker<EduTask>(task, project) {
+  override val checkLimits: CheckLimits get() = CheckLimits.GRADLE
+
   override fun check(indicator: ProgressIndicator): CheckResult {
     val (taskName, params) = getGradleTask()
     if (task.testsText.isEmpty()) {
@@ -16,10 +19,22 @@ open class GradleEduTaskChecker(task: EduTask, project: Project) : TaskChecker<E
     }
 
     return GradleCommandLine.create(project, taskName, *params.toTypedArray())
+             ?.withLimits(checkLimits)
              ?.launchAndCheck()
              ?: FAILED_TO_CHECK
   }
 
+  /**
+   * Name of gradle task which checks [task] if it can be run together with test tasks of other tasks
+   * in a single gradle invocation (see [GradleBatchTaskChecker]), `null` otherwise
+   */
+  open fun getBatchTestTaskName(): String? {
+    if (task.testsText.isEmpty()) return null
+    val (taskName, params) = getGradleTask()
+    val testTaskName = "${getGradleProjectName(task)}:$TEST_TASK_NAME"
+    return if (taskName == testTaskName && params.isEmpty()) taskName else null
+  }
+
   protected open fun getGradleTask() = GradleTask("${getGradleProjectName(task)}:$TEST_TASK_NAME")
 
   protected data class GradleTask(val taskName: String, val params: List<String> = emptyList())
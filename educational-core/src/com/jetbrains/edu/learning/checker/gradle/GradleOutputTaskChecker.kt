@@ -16,13 +16,11 @@ class GradleOutputTaskChecker(
   private val mainClassForFile: (Project, VirtualFile) -> String?
 ) : OutputTaskChecker(task, project) {
 
-  override fun check(indicator: ProgressIndicator): CheckResult {
-    val result = runGradleRunTask(project, task, mainClassForFile)
-    val output = when (result) {
-      is Err -> return result.error
-      is Ok -> result.value
-    }
+  override val checkLimits: CheckLimits get() = CheckLimits.GRADLE
+
+  override val isCheckableInBackground: Boolean get() = true
 
+  override fun check(indicator: ProgressIndicator): CheckResult {
     var outputFile: VirtualFile? = null
     for (testDir in task.findTestDirs(project)) {
       outputFile = testDir.findChild(OUTPUT_PATTERN_NAME)
@@ -34,6 +32,14 @@ class GradleOutputTaskChecker(
     }
 
     val expectedOutput = VfsUtil.loadText(outputFile).postProcessOutput()
+    // stops solution as soon as its output differs from expected one
+    val matcher = StreamingOutputMatcher(expectedOutput)
+    val result = runGradleRunTask(project, task, mainClassForFile, checkLimits, matcher::processLine)
+    val output = when (result) {
+      is Err -> return result.error
+      is Ok -> result.value
+    }
+
     if (expectedOutput != output) {
       return CheckResult(CheckStatus.Failed, "Expected output:\n<$expectedOutput>\nActual output:\n<$output>")
     }
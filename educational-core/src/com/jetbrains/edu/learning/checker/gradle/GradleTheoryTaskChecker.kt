@@ -3,6 +3,7 @@ package com.jetbrains.edu.learning.checker.gradle
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VirtualFile
+import com.jetbrains.edu.learning.checker.CheckLimits
 import com.jetbrains.edu.learning.checker.CheckResult
 import com.jetbrains.edu.learning.checker.Err
 import com.jetbrains.edu.learning.checker.Ok
@@ -17,8 +18,10 @@ class GradleTheoryTaskChecker(
   private val mainClassForFile: (Project, VirtualFile) -> String?
 ) : TheoryTaskChecker(task, project) {
 
+  override val checkLimits: CheckLimits get() = CheckLimits.GRADLE
+
   override fun check(indicator: ProgressIndicator): CheckResult {
-    val result = runGradleRunTask(project, task, mainClassForFile)
+    val result = runGradleRunTask(project, task, mainClassForFile, checkLimits)
     val output = when (result) {
       is Err -> return result.error
       is Ok -> result.value
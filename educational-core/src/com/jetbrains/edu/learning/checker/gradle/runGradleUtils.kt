@@ -2,18 +2,17 @@ package com.jetbrains.edu.learning.checker.gradle
 
 import com.intellij.execution.ExecutionException
 import com.intellij.execution.configurations.GeneralCommandLine
-import com.intellij.execution.process.CapturingProcessHandler
-import com.intellij.execution.process.ProcessOutput
+import com.intellij.execution.process.OSProcessHandler
 import com.intellij.openapi.application.runReadAction
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.fileEditor.FileDocumentManager
 import com.intellij.openapi.module.ModuleUtil
-import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.roots.ProjectRootManager
 import com.intellij.openapi.util.SystemInfo
 import com.intellij.openapi.util.io.FileUtil
 import com.intellij.openapi.vfs.VirtualFile
+import com.jetbrains.edu.learning.EduNames
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.checker.*
 import com.jetbrains.edu.learning.checker.CheckUtils.*
@@ -21,6 +20,7 @@ import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.ext.dirName
 import com.jetbrains.edu.learning.courseFormat.ext.getVirtualFile
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.gradle.GradleConstants.ALL_MODULES_PROPERTY
 import com.jetbrains.edu.learning.gradle.GradleConstants.GRADLE_WRAPPER_UNIX
 import com.jetbrains.edu.learning.gradle.GradleConstants.GRADLE_WRAPPER_WIN
 import com.jetbrains.edu.learning.gradle.generation.EduGradleUtils
@@ -31,6 +31,11 @@ const val ASSEMBLE_TASK_NAME = "assemble"
 const val TEST_TASK_NAME = "test"
 
 const val TESTS_ARG = "--tests"
+/**
+ * Configures only projects required by executed tasks.
+ * It's used only if gradle projects are listed in modules manifest, see [EduGradleUtils.updateModulesManifest]
+ */
+const val CONFIGURE_ON_DEMAND_ARG = "--configure-on-demand"
 
 fun getGradleProjectName(task: Task) =
   if (task.lesson.section != null)
@@ -43,24 +48,41 @@ class GradleCommandLine private constructor(
   val taskName: String
 ) {
 
+  private var limits: CheckLimits = CheckLimits.GRADLE
+
+  fun withLimits(limits: CheckLimits): GradleCommandLine = apply { this.limits = limits }
+
   fun launchAndCheck(): CheckResult {
-    val output = launch() ?: return CheckResult.FAILED_TO_CHECK
+    val testsOutputProcessor = TestsOutputProcessor()
+    // gradle is stopped as soon as the first test fails
+    val output = launch(processMessage = testsOutputProcessor::process) ?: return CheckResult.FAILED_TO_CHECK
     if (!output.isSuccess) return CheckResult(CheckStatus.Failed, output.firstMessage, output.messages.joinToString("\n"))
 
-    return TestsOutputParser.getCheckResult(output.messages)
+    return testsOutputProcessor.checkResult
   }
 
-  fun launch(): GradleOutput? {
-    val output = try {
-      val handler = CapturingProcessHandler(cmd)
-      if (ProgressManager.getInstance().hasProgressIndicator()) {
-        handler.runProcessWithProgressIndicator(ProgressManager.getInstance().progressIndicator)
-      } else {
-        handler.runProcess()
+  /**
+   * Launches gradle and passes plugin messages from its output to [processMessage] as soon as they're printed.
+   * Lines of plugin messages are passed to [processMessageLine] even before the whole message is printed.
+   * If any of them returns `false`, gradle is stopped and the rest of its output is ignored
+   */
+  fun launch(
+    processMessage: (String) -> Boolean = { true },
+    processMessageLine: (String) -> Boolean = { true }
+  ): GradleOutput? {
+    var isTaskExecuted = false
+    val messagesCollector = GradleMessagesCollector(processMessage, processMessageLine)
+    val output = runProcess { line ->
+      if (taskName in line) {
+        isTaskExecuted = true
       }
-    } catch (e: ExecutionException) {
-      LOG.info(CheckUtils.FAILED_TO_CHECK_MESSAGE, e)
-      return null
+      messagesCollector.processLine(line)
+    } ?: return null
+    messagesCollector.flush()
+
+    output.limitExceededResult?.let { return GradleOutput(false, listOfNotNull(it.message, it.details)) }
+    if (output.isStoppedByResult) {
+      return GradleOutput(true, messagesCollector.messages)
     }
 
     val stderr = output.stderr
@@ -69,44 +91,29 @@ class GradleCommandLine private constructor(
     }
 
     //gradle prints compilation failures to error stream
-    if (hasCompilationErrors(output)) {
-      return GradleOutput(false, listOf(COMPILATION_FAILED_MESSAGE, output.stderr))
+    if (hasCompilationErrors(stderr)) {
+      return GradleOutput(false, listOf(COMPILATION_FAILED_MESSAGE, stderr))
     }
 
-    if (!output.stdout.contains(taskName)) {
+    if (!isTaskExecuted) {
       LOG.warn("#educational: executing $taskName fails: \n" + output.stdout)
       return GradleOutput(false, listOf("$FAILED_TO_CHECK_MESSAGE. See idea.log for more details."))
     }
 
-    return GradleOutput(true, collectMessages(output))
+    return GradleOutput(true, messagesCollector.messages)
   }
 
-  private fun collectMessages(output: ProcessOutput): List<String> {
-    var currentMessage: StringBuilder? = null
-    val allMessages = mutableListOf<String>()
-
-    fun addCurrentMessageIfNeeded() {
-      if (currentMessage != null) {
-        allMessages += currentMessage.toString()
-      }
-    }
-
-    for (line in output.stdoutLines) {
-      if (line.startsWith(STUDY_PREFIX)) {
-        val messageLine = line.removePrefix(STUDY_PREFIX)
-        if (currentMessage != null) {
-          currentMessage.appendln(messageLine)
-        } else {
-          currentMessage = StringBuilder(messageLine).append("\n")
-        }
-      } else {
-        addCurrentMessageIfNeeded()
-        currentMessage = null
-      }
+  /**
+   * Runs gradle and passes its stdout to [processLine] line by line while it's running.
+   * Returns `null` if gradle can't be started
+   */
+  fun runProcess(processLine: (String) -> Boolean): CheckProcessOutput? {
+    return try {
+      CheckProcessRunner(limits, processLine).run(OSProcessHandler(cmd))
+    } catch (e: ExecutionException) {
+      LOG.info(CheckUtils.FAILED_TO_CHECK_MESSAGE, e)
+      null
     }
-
-    addCurrentMessageIfNeeded()
-    return allMessages
   }
 
   companion object {
@@ -123,12 +130,57 @@ class GradleCommandLine private constructor(
         .withExePath(if (SystemInfo.isWindows) FileUtil.join(projectPath, GRADLE_WRAPPER_WIN) else "./$GRADLE_WRAPPER_UNIX")
         .withParameters(command)
         .withParameters(*additionalParams)
+      if (EduGradleUtils.hasModulesManifest(basePath)) {
+        cmd.addParameters(CONFIGURE_ON_DEMAND_ARG, "-P$ALL_MODULES_PROPERTY=true")
+      }
 
       return GradleCommandLine(cmd, command)
     }
   }
 }
 
+/**
+ * Groups consecutive lines with [STUDY_PREFIX] into messages while gradle output is being read
+ */
+class GradleMessagesCollector(
+  private val processMessage: (String) -> Boolean,
+  private val processMessageLine: (String) -> Boolean = { true }
+) {
+  private var currentMessage: StringBuilder? = null
+  val messages = mutableListOf<String>()
+
+  fun processLine(line: String): Boolean {
+    return when {
+      line.startsWith(TestsOutputParser.TEST_RESULT_PREFIX) -> {
+        // structured results always take a single line
+        flush() && addMessage(line)
+      }
+      line.startsWith(STUDY_PREFIX) -> {
+        val messageLine = line.removePrefix(STUDY_PREFIX)
+        val message = currentMessage
+        if (message != null) {
+          message.appendln(messageLine)
+        } else {
+          currentMessage = StringBuilder(messageLine).append("\n")
+        }
+        processMessageLine(messageLine)
+      }
+      else -> flush()
+    }
+  }
+
+  fun flush(): Boolean {
+    val message = currentMessage ?: return true
+    currentMessage = null
+    return addMessage(message.toString())
+  }
+
+  private fun addMessage(message: String): Boolean {
+    messages += message
+    return processMessage(message.postProcessOutput())
+  }
+}
+
 class GradleOutput(val isSuccess: Boolean, _messages: List<String>) {
   val messages = _messages.map { it.postProcessOutput() }
 
@@ -140,18 +192,22 @@ fun String.postProcessOutput(): String = replace(System.getProperty("line.separa
 /**
  * Run gradle 'run' task.
  * Returns gradle output if task was successfully executed, otherwise returns CheckResult.
+ * Output lines are passed to [processOutputLine] while task is running, it can stop the task by returning `false`.
  */
 fun runGradleRunTask(
   project: Project,
   task: Task,
-  mainClassForFile: (Project, VirtualFile) -> String?
+  mainClassForFile: (Project, VirtualFile) -> String?,
+  limits: CheckLimits = CheckLimits.GRADLE,
+  processOutputLine: (String) -> Boolean = { true }
 ): ExecutionResult<String, CheckResult> {
   val mainClassName = findMainClass(project, task, mainClassForFile)
                       ?: return Err(CheckResult(CheckStatus.Unchecked, "Unable to execute task ${task.name}"))
   val taskName = if (task.hasSeparateModule(project)) "${getGradleProjectName(task)}:run" else "run"
 
   val gradleOutput = GradleCommandLine.create(project, taskName, "${MAIN_CLASS_PROPERTY_PREFIX}$mainClassName")
-    ?.launch()
+    ?.withLimits(limits)
+    ?.launch(processMessageLine = processOutputLine)
     ?: return Err(CheckResult.FAILED_TO_CHECK)
 
   if (!gradleOutput.isSuccess) {
@@ -189,6 +245,10 @@ private fun getSelectedFile(project: Project): VirtualFile? {
  */
 fun Task.hasSeparateModule(project: Project): Boolean {
   val taskDir = getTaskDir(project) ?: error("Dir for task $name not found")
+  // all task dirs from modules manifest are gradle projects even if they aren't imported into IDE (see `LazyModulesManager`)
+  if (project.basePath?.let { EduGradleUtils.hasModulesManifest(it) } == true) {
+    return taskDir.findChild(EduNames.SRC) != null
+  }
   val taskModule = ModuleUtil.findModuleForFile(taskDir, project) ?: error("Module for task $name not found")
   val courseModule = ModuleUtil.findModuleForFile(EduUtils.getCourseDir(project), project)
   return taskModule != courseModule
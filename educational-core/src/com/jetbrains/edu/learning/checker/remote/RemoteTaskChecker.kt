@@ -10,4 +10,9 @@ interface RemoteTaskChecker {
   fun canCheck(project: Project, task: Task): Boolean
 
   fun check(project: Project, task: Task, indicator: ProgressIndicator): CheckResult
+
+  /**
+   * Whether result of this checker can be reused for unchanged solution (see [com.jetbrains.edu.learning.checker.CheckResultCache])
+   */
+  val isResultCacheable: Boolean get() = true
 }
@@ -5,6 +5,7 @@ import com.jetbrains.edu.learning.checkio.api.exceptions.ApiException;
 import com.jetbrains.edu.learning.checkio.api.exceptions.HttpException;
 import com.jetbrains.edu.learning.checkio.api.exceptions.NetworkException;
 import com.jetbrains.edu.learning.checkio.api.exceptions.ParseException;
+import com.jetbrains.edu.learning.statistics.EduMetrics;
 import org.jetbrains.annotations.NotNull;
 import retrofit2.Call;
 import retrofit2.Response;
@@ -24,9 +25,12 @@ public class CheckiOCall<T> {
   public T execute() throws ApiException {
     LOG.info("Executing request: " + myOriginalCall.request().toString());
 
+    final EduMetrics.Timer timer = EduMetrics.startTimer("checkio.http." + myOriginalCall.request().method());
     try {
       final Response<T> response = myOriginalCall.execute();
+      timer.stop();
       if (!response.isSuccessful()) {
+        EduMetrics.increment("checkio.http.status." + response.code());
         throw new HttpException(response);
       }
 
@@ -38,6 +42,7 @@ public class CheckiOCall<T> {
       return body;
     }
     catch (IOException e) {
+      EduMetrics.increment("checkio.http.networkErrors");
       throw new NetworkException(e);
     }
   }
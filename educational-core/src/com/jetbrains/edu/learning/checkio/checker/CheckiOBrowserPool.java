@@ -0,0 +1,91 @@
+package com.jetbrains.edu.learning.checkio.checker;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps browsers for CheckiO mission checks, so each check doesn't create new {@code WebView} and load test form again.
+ * <p>
+ * The pool contains at most two browsers: one is shown in check details tool window with result of the last check
+ * and another one has test form already loaded and is ready for the next check.
+ * After check, browsers swap their roles.
+ * <p>
+ * Browsers are released when project is closed.
+ */
+public class CheckiOBrowserPool implements Disposable {
+  private final Project myProject;
+  private boolean myDisposed;
+
+  @Nullable private CheckiOCheckBrowser myReadyBrowser;
+  @Nullable private CheckiOCheckBrowser myResultBrowser;
+
+  public CheckiOBrowserPool(@NotNull Project project) {
+    myProject = project;
+  }
+
+  public static CheckiOBrowserPool getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, CheckiOBrowserPool.class);
+  }
+
+  @NotNull
+  public synchronized CheckiOCheckBrowser acquire() {
+    CheckiOCheckBrowser browser = myReadyBrowser;
+    myReadyBrowser = null;
+    if (browser != null && browser.isTestFormFailed()) {
+      // test form page isn't loaded, e.g. because of network problems, so the browser is recreated
+      browser.dispose();
+      browser = null;
+    }
+    if (browser == null) {
+      browser = new CheckiOCheckBrowser(myProject);
+      browser.loadTestForm();
+    }
+    return browser;
+  }
+
+  /**
+   * Returns {@code browser} to the pool.
+   * If it's shown in check details tool window, it's kept untouched until the next shown result
+   * and previous result browser is prepared for the next check instead.
+   */
+  public synchronized void release(@NotNull CheckiOCheckBrowser browser, boolean isShown) {
+    if (myDisposed) {
+      browser.dispose();
+      return;
+    }
+    CheckiOCheckBrowser browserToReuse = browser;
+    if (isShown) {
+      browserToReuse = myResultBrowser;
+      myResultBrowser = browser;
+    }
+    if (myReadyBrowser != null) {
+      // the pool is full, so browser which isn't needed anymore is released
+      if (browserToReuse != null) {
+        browserToReuse.dispose();
+      }
+      return;
+    }
+    if (browserToReuse == null) {
+      // the first shown result, so warm up the second browser for the next check
+      browserToReuse = new CheckiOCheckBrowser(myProject);
+    }
+    browserToReuse.loadTestForm();
+    myReadyBrowser = browserToReuse;
+  }
+
+  @Override
+  public synchronized void dispose() {
+    myDisposed = true;
+    if (myReadyBrowser != null) {
+      myReadyBrowser.dispose();
+      myReadyBrowser = null;
+    }
+    if (myResultBrowser != null) {
+      myResultBrowser.dispose();
+      myResultBrowser = null;
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.jetbrains.edu.learning.checkio.checker;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.jetbrains.edu.learning.checker.CheckResult;
+import com.jetbrains.edu.learning.checkio.utils.CheckiONames;
+import com.jetbrains.edu.learning.courseFormat.CheckStatus;
+import com.jetbrains.edu.learning.ui.taskDescription.BrowserWindow;
+import javafx.application.Platform;
+import javafx.concurrent.Worker;
+import javafx.embed.swing.JFXPanel;
+import netscape.javascript.JSObject;
+import org.jetbrains.annotations.NotNull;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.html.HTMLFormElement;
+import org.w3c.dom.html.HTMLInputElement;
+import org.w3c.dom.html.HTMLTextAreaElement;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Browser which submits mission code to CheckiO test form and reports check result.
+ * Load listeners are registered once, so the same browser can be used for any number of checks.
+ *
+ * @see CheckiOBrowserPool
+ */
+public class CheckiOCheckBrowser {
+  private static final Logger LOG = Logger.getInstance(CheckiOCheckBrowser.class);
+  private static final String TEST_FORM_FILE_NAME = "checkioTestForm.html";
+  private static final String CHECK_OUTPUT_PATH = "check-html-output";
+
+  private final BrowserWindow myBrowserWindow;
+  private final CheckiOTestResultHandler myResultHandler = new CheckiOTestResultHandler();
+
+  @NotNull private volatile CompletableFuture<Void> myTestFormLoaded = new CompletableFuture<>();
+  @NotNull private volatile CompletableFuture<CheckResult> myCheckResult = CompletableFuture.completedFuture(null);
+  private boolean myResultHandlerInstalled;
+
+  public CheckiOCheckBrowser(@NotNull Project project) {
+    myBrowserWindow = new BrowserWindow(project, false);
+    Platform.runLater(() -> {
+      myBrowserWindow.getEngine().getLoadWorker().stateProperty().addListener((observable, oldState, newState) -> {
+        if (newState == Worker.State.FAILED) {
+          if (!myTestFormLoaded.isDone()) {
+            // the page isn't test form, so it can't be used for checks until test form is loaded again
+            myTestFormLoaded.completeExceptionally(new IOException("Failed to load CheckiO test form"));
+          }
+          myCheckResult.complete(CheckResult.CONNECTION_FAILED);
+          return;
+        }
+        if (newState == Worker.State.SUCCEEDED) {
+          onPageLoaded();
+        }
+      });
+    });
+  }
+
+  /**
+   * Loads test form in advance, so the next check only has to submit it
+   */
+  public void loadTestForm() {
+    myTestFormLoaded = new CompletableFuture<>();
+    final String formUrl = getClass().getResource(CheckiONames.CHECKIO_TEST_FORM_URL).toExternalForm();
+    Platform.runLater(() -> myBrowserWindow.getEngine().load(formUrl));
+  }
+
+  /**
+   * {@code true} if the last {@link #loadTestForm} failed, so the browser can't be used for checks
+   */
+  public boolean isTestFormFailed() {
+    return myTestFormLoaded.isCompletedExceptionally();
+  }
+
+  /**
+   * Submits code to CheckiO as soon as test form is loaded.
+   * Returned future is completed from JavaFX thread when CheckiO reports the result
+   * or with {@link CheckResult#CONNECTION_FAILED} if test form or result page can't be loaded
+   */
+  @NotNull
+  public CompletableFuture<CheckResult> check(@NotNull String accessToken,
+                                              @NotNull String taskId,
+                                              @NotNull String interpreterName,
+                                              @NotNull String code,
+                                              @NotNull String testFormTargetUrl) {
+    final CompletableFuture<CheckResult> result = new CompletableFuture<>();
+    myCheckResult = result;
+    myTestFormLoaded.whenComplete((ignored, error) -> {
+      if (error != null) {
+        result.complete(CheckResult.CONNECTION_FAILED);
+        return;
+      }
+      Platform.runLater(() -> {
+        if (result.isDone()) return;
+        final Document document = myBrowserWindow.getEngine().getDocument();
+        final Element testForm = document == null ? null : document.getElementById("test-form");
+        if (!(testForm instanceof HTMLFormElement)) {
+          LOG.warn("Test form isn't found on page " + myBrowserWindow.getEngine().getLocation());
+          result.complete(CheckResult.CONNECTION_FAILED);
+          return;
+        }
+        myResultHandlerInstalled = false;
+        ((HTMLInputElement)document.getElementById("access-token")).setValue(accessToken);
+        ((HTMLInputElement)document.getElementById("task-id")).setValue(taskId);
+        ((HTMLInputElement)document.getElementById("interpreter")).setValue(interpreterName);
+        ((HTMLTextAreaElement)document.getElementById("code")).setValue(code);
+
+        ((HTMLFormElement)testForm).setAction(testFormTargetUrl);
+        ((HTMLFormElement)testForm).submit();
+      });
+    });
+    return result;
+  }
+
+  /**
+   * Stops loading and unloads current page, so resources of {@code WebView} are released
+   */
+  public void dispose() {
+    myTestFormLoaded.cancel(false);
+    myCheckResult.cancel(false);
+    Platform.runLater(() -> {
+      myBrowserWindow.getEngine().load(null);
+      myBrowserWindow.getPanel().setScene(null);
+    });
+  }
+
+  @NotNull
+  public JFXPanel getPanel() {
+    return myBrowserWindow.getPanel();
+  }
+
+  private void onPageLoaded() {
+    final String location = myBrowserWindow.getEngine().getLocation();
+    if (location.contains(TEST_FORM_FILE_NAME)) {
+      myTestFormLoaded.complete(null);
+      return;
+    }
+
+    if (location.contains(CheckiONames.CHECKIO_URL) && !myResultHandlerInstalled) {
+      myResultHandlerInstalled = true;
+
+      final JSObject windowObject = (JSObject)myBrowserWindow.getEngine().executeScript("window");
+      windowObject.setMember("javaHandler", myResultHandler);
+
+      myBrowserWindow.getEngine().executeScript(
+        "function handleEvent(e) {\n" +
+        "\twindow.javaHandler.handleTestEvent(e.detail.success)\n" +
+        "}\n" +
+        "window.addEventListener(\"checkio:checkDone\", handleEvent, false)"
+      );
+    }
+
+    if (location.contains(CHECK_OUTPUT_PATH)) {
+      applyCheckiOBackgroundColor(myBrowserWindow.getEngine().getDocument());
+    }
+  }
+
+  private static void applyCheckiOBackgroundColor(@NotNull final Document document) {
+    document.getDocumentElement().setAttribute("style", "background-color : #DEE7F6;");
+  }
+
+  public class CheckiOTestResultHandler {
+    @SuppressWarnings("unused") // used in JS code
+    public void handleTestEvent(int result) {
+      myCheckResult.complete(result == 1 ?
+                             new CheckResult(CheckStatus.Solved, "All tests passed") :
+                             new CheckResult(CheckStatus.Failed, "Tests failed"));
+    }
+  }
+}
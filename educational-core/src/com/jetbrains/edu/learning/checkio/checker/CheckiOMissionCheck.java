@@ -3,49 +3,44 @@ package com.jetbrains.edu.learning.checkio.checker;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Computable;
-import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.jetbrains.edu.learning.EduUtils;
 import com.jetbrains.edu.learning.checker.CheckResult;
 import com.jetbrains.edu.learning.checkio.api.exceptions.NetworkException;
 import com.jetbrains.edu.learning.checkio.connectors.CheckiOOAuthConnector;
 import com.jetbrains.edu.learning.checkio.courseFormat.CheckiOMission;
 import com.jetbrains.edu.learning.checkio.notifications.errors.handlers.CheckiOErrorHandler;
-import com.jetbrains.edu.learning.checkio.utils.CheckiONames;
 import com.jetbrains.edu.learning.courseFormat.CheckStatus;
 import com.jetbrains.edu.learning.courseFormat.TaskFile;
 import com.jetbrains.edu.learning.courseFormat.tasks.Task;
-import com.jetbrains.edu.learning.ui.taskDescription.BrowserWindow;
-import javafx.application.Platform;
-import javafx.concurrent.Worker;
 import javafx.embed.swing.JFXPanel;
-import netscape.javascript.JSObject;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.w3c.dom.html.HTMLFormElement;
-import org.w3c.dom.html.HTMLInputElement;
-import org.w3c.dom.html.HTMLTextAreaElement;
 
 import java.io.IOException;
-import java.util.concurrent.Callable;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-public class CheckiOMissionCheck implements Callable<CheckResult> {
+public class CheckiOMissionCheck {
+  private static final long CHECK_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+  private static final CheckResult CHECK_TIMED_OUT = new CheckResult(CheckStatus.Unchecked, "Checking took too much time");
+
   private final Project myProject;
   private final Task myTask;
 
-  private final BrowserWindow myBrowserWindow;
-  private final CheckiOTestResultHandler myResultHandler;
-
-  @Nullable private CheckResult myCheckResult;
-  private final CountDownLatch myLatch = new CountDownLatch(1);
   private final CheckiOOAuthConnector myOAuthConnector;
   private final String myInterpreterName;
   private final String myTestFormTargetUrl;
 
+  @Nullable private CheckiOCheckBrowser myBrowser;
+
   protected CheckiOMissionCheck(
     @NotNull Task task,
     @NotNull Project project,
@@ -58,20 +53,23 @@ public class CheckiOMissionCheck implements Callable<CheckResult> {
     myOAuthConnector = oAuthConnector;
     myInterpreterName = interpreterName;
     myTestFormTargetUrl = testFormTargetUrl;
-
-    myResultHandler = new CheckiOTestResultHandler();
-    myBrowserWindow = new BrowserWindow(myProject, false);
   }
 
+  /**
+   * Submits mission code with browser from {@link CheckiOBrowserPool} and waits for the result.
+   * Browser has to be returned to the pool with {@link #releaseBrowser(boolean)} after the result is processed
+   */
   @NotNull
-  @Override
-  public CheckResult call() {
+  public CheckResult check(@NotNull ProgressIndicator indicator) {
     try {
       final String accessToken = myOAuthConnector.getAccessToken();
       final String taskId = String.valueOf(myTask.getId());
       final String code = getCodeFromTask();
 
-      return doCheck(accessToken, taskId, code);
+      myBrowser = CheckiOBrowserPool.getInstance(myProject).acquire();
+      return waitForResult(myBrowser.check(accessToken, taskId, myInterpreterName, code, myTestFormTargetUrl), indicator);
+    } catch (ProcessCanceledException e) {
+      throw e;
     } catch (InterruptedException e) {
       return new CheckResult(CheckStatus.Unchecked, "Checking was cancelled");
     } catch (Exception e) {
@@ -107,110 +105,37 @@ public class CheckiOMissionCheck implements Callable<CheckResult> {
   }
 
   @NotNull
-  private CheckResult doCheck(@NotNull String accessToken, @NotNull String taskId, @NotNull String code)
-    throws InterruptedException, NetworkException {
-
-    Platform.runLater(() -> {
-      setTestFormLoadedListener(accessToken, taskId, code);
-      setCheckDoneListener();
-      loadTestForm();
-    });
-
-    boolean timeoutExceeded = !myLatch.await(30L, TimeUnit.SECONDS);
-    if (timeoutExceeded) {
-      return new CheckResult(CheckStatus.Unchecked, "Checking took too much time");
+  private static CheckResult waitForResult(@NotNull CompletableFuture<CheckResult> result, @NotNull ProgressIndicator indicator)
+    throws InterruptedException, ExecutionException, NetworkException {
+
+    // completes the check if CheckiO doesn't report the result in time
+    final ScheduledFuture<?> timeout = AppExecutorUtil.getAppScheduledExecutorService().schedule(
+      () -> result.complete(CHECK_TIMED_OUT), CHECK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    final CheckResult checkResult;
+    try {
+      checkResult = EduUtils.waitForFuture(result, indicator);
+    }
+    finally {
+      timeout.cancel(false);
+      // prevents submission of test form if it isn't loaded yet
+      result.cancel(false);
     }
 
-    if (myCheckResult == CheckResult.CONNECTION_FAILED) {
+    if (checkResult == CheckResult.CONNECTION_FAILED) {
       throw new NetworkException();
     }
-
-    //noinspection ConstantConditions cannot be null because of handler implementation
-    return myCheckResult;
-  }
-
-  private void loadTestForm() {
-    final String formUrl = getClass().getResource(CheckiONames.CHECKIO_TEST_FORM_URL).toExternalForm();
-    myBrowserWindow.getEngine().load(formUrl);
+    return checkResult;
   }
 
-  private void setCheckDoneListener() {
-    final Ref<Boolean> visited = new Ref<>(Boolean.FALSE);
-
-    myBrowserWindow.getEngine().getLoadWorker().stateProperty().addListener((observable, oldState, newState) -> {
-      if (newState == Worker.State.FAILED) {
-        setConnectionError();
-        return;
-      }
-
-      if (myBrowserWindow.getEngine().getLocation().contains(CheckiONames.CHECKIO_URL) && newState == Worker.State.SUCCEEDED && !visited.get()) {
-        visited.set(Boolean.TRUE);
-
-        final JSObject windowObject = (JSObject)myBrowserWindow.getEngine().executeScript("window");
-        windowObject.setMember("javaHandler", myResultHandler);
-
-        myBrowserWindow.getEngine().executeScript(
-          "function handleEvent(e) {\n" +
-          "\twindow.javaHandler.handleTestEvent(e.detail.success)\n" +
-          "}\n" +
-          "window.addEventListener(\"checkio:checkDone\", handleEvent, false)"
-        );
-      }
-    });
-  }
-
-  private void setTestFormLoadedListener(@NotNull String accessToken,
-                                         @NotNull String taskId,
-                                         @NotNull String code) {
-    myBrowserWindow.getEngine().getLoadWorker().stateProperty().addListener(((observable, oldState, newState) -> {
-      if (newState == Worker.State.FAILED) {
-        setConnectionError();
-        return;
-      }
-
-      if (newState != Worker.State.SUCCEEDED) {
-        return;
-      }
-
-      String location = myBrowserWindow.getEngine().getLocation();
-      final org.w3c.dom.Document document = myBrowserWindow.getEngine().getDocument();
-      if (location.contains("checkioTestForm.html")) {
-        ((HTMLInputElement)document.getElementById("access-token")).setValue(accessToken);
-        ((HTMLInputElement)document.getElementById("task-id")).setValue(taskId);
-        ((HTMLInputElement)document.getElementById("interpreter")).setValue(myInterpreterName);
-        ((HTMLTextAreaElement)document.getElementById("code")).setValue(code);
-
-        final HTMLFormElement testForm = (HTMLFormElement) document.getElementById("test-form");
-        testForm.setAction(myTestFormTargetUrl);
-        testForm.submit();
-      }
-
-      if (location.contains("check-html-output")) {
-        applyCheckiOBackgroundColor(document);
-      }
-    }));
-  }
-
-  private static void applyCheckiOBackgroundColor(@NotNull final org.w3c.dom.Document document) {
-    document.getDocumentElement().setAttribute("style", "background-color : #DEE7F6;");
-  }
-
-  private void setConnectionError() {
-    myCheckResult = CheckResult.CONNECTION_FAILED;
-    myLatch.countDown();
+  public void releaseBrowser(boolean isShown) {
+    if (myBrowser != null) {
+      CheckiOBrowserPool.getInstance(myProject).release(myBrowser, isShown);
+      myBrowser = null;
+    }
   }
 
+  @Nullable
   public JFXPanel getBrowserPanel() {
-    return myBrowserWindow.getPanel();
-  }
-
-  public class CheckiOTestResultHandler {
-    @SuppressWarnings("unused") // used in JS code
-    public void handleTestEvent(int result) {
-      myCheckResult = result == 1 ?
-                      new CheckResult(CheckStatus.Solved, "All tests passed") :
-                      new CheckResult(CheckStatus.Failed, "Tests failed");
-      myLatch.countDown();
-    }
+    return myBrowser != null ? myBrowser.getPanel() : null;
   }
 }
@@ -1,8 +1,7 @@
 package com.jetbrains.edu.learning.checkio.checker;
 
-import com.intellij.openapi.application.ex.ApplicationUtil;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
-import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.jetbrains.edu.learning.checker.CheckResult;
 import com.jetbrains.edu.learning.checker.TaskChecker;
@@ -10,6 +9,7 @@ import com.jetbrains.edu.learning.checker.details.CheckDetailsView;
 import com.jetbrains.edu.learning.checkio.connectors.CheckiOOAuthConnector;
 import com.jetbrains.edu.learning.courseFormat.CheckStatus;
 import com.jetbrains.edu.learning.courseFormat.tasks.EduTask;
+import javafx.embed.swing.JFXPanel;
 import org.jetbrains.annotations.NotNull;
 
 public class CheckiOTaskChecker extends TaskChecker<EduTask> {
@@ -33,22 +33,36 @@ public class CheckiOTaskChecker extends TaskChecker<EduTask> {
     );
   }
 
+  @Override
+  public boolean isResultCacheable() {
+    // mission is checked on CheckiO and result is shown in browser
+    return false;
+  }
+
   @NotNull
   @Override
   public CheckResult check(@NotNull ProgressIndicator indicator) {
+    boolean isShown = false;
     try {
-      final CheckResult checkResult =
-        ApplicationUtil.runWithCheckCanceled(myMissionCheck, ProgressManager.getInstance().getProgressIndicator());
+      final CheckResult checkResult = myMissionCheck.check(indicator);
 
-      if (checkResult.getStatus() != CheckStatus.Unchecked) {
-        CheckDetailsView.getInstance(project).showJavaFXResult("CheckiO Response", myMissionCheck.getBrowserPanel());
+      final JFXPanel browserPanel = myMissionCheck.getBrowserPanel();
+      if (checkResult.getStatus() != CheckStatus.Unchecked && browserPanel != null) {
+        CheckDetailsView.getInstance(project).showJavaFXResult("CheckiO Response", browserPanel);
+        isShown = true;
       }
 
       return checkResult;
     }
+    catch (ProcessCanceledException e) {
+      throw e;
+    }
     catch (Exception e) {
       LOG.warn(e.getMessage());
       return CheckResult.FAILED_TO_CHECK;
     }
+    finally {
+      myMissionCheck.releaseBrowser(isShown);
+    }
   }
 }
@@ -61,12 +61,14 @@ public class CheckiOMission extends EduTask {
 
   @Override
   public void setStatus(CheckStatus status) {
+    final CheckStatus oldStatus = myStatus;
     if (myStatus == CheckStatus.Unchecked) {
       myStatus = status;
     }
     else if (myStatus == CheckStatus.Failed && status == CheckStatus.Solved) {
       myStatus = CheckStatus.Solved;
     }
+    statusChanged(oldStatus);
   }
 
   @Override
@@ -25,42 +25,53 @@ class FrameworkLesson() : Lesson() {
   var currentTaskIndex: Int = 0
 
   /**
-   * Contains diffs between neighbor tasks.
-   * [diffs]`[i]` is diff list between [taskList]`[i]` and [taskList]`[i - 1]`.
-   * [diffs]`[0]` is supposed to be empty.
+   * Contains already calculated diffs between tasks.
+   * Key is a pair of task indices `(i, j)` where `i < j`, value is diff list between [taskList]`[j]` and [taskList]`[i]`.
+   * Diffs are calculated lazily because student usually moves only one step at a time
+   * and there is no need to compare files of all tasks on course loading.
    */
   @Transient
-  private var diffs: List<List<TaskDiff>> = emptyList()
+  private val diffCache: DiffCache = DiffCache()
 
   fun currentTask(): Task = taskList[currentTaskIndex]
 
   override fun init(course: Course?, section: StudyItem?, isRestarted: Boolean) {
     super.init(course, section, isRestarted)
-    // We don't need calculate diffs in CC mode because we don't use them
-    if (course?.isStudy == true) {
-      diffs = List(taskList.size) { index ->
-        if (index == 0) return@List emptyList<TaskDiff>()
-        val task = taskList[index]
-        val prevTask = taskList[index - 1]
-        calculateDiffs(prevTask, task)
-      }
-    }
+    diffCache.clear()
   }
 
   fun prepareNextTask(project: Project, taskDir: VirtualFile) {
-    check(EduUtils.isStudentProject(project)) {
-      "`prepareNextTask` should be called only if course in study mode"
-    }
-    currentTaskIndex++
-    diffs[currentTaskIndex].forEach { diff -> diff.apply(project, taskDir) }
+    prepareTask(project, taskDir, currentTaskIndex + 1)
   }
 
   fun preparePrevTask(project: Project, taskDir: VirtualFile) {
+    prepareTask(project, taskDir, currentTaskIndex - 1)
+  }
+
+  /**
+   * Moves lesson to the task with [targetIndex] applying only net change for each file.
+   *
+   * Sequential application of neighbor diffs from current task to target one produces the same result
+   * as application of single diff between these tasks: every file gets text of the target task
+   * and student answers of target task placeholders. So long jumps don't rewrite intermediate states of files.
+   */
+  fun prepareTask(project: Project, taskDir: VirtualFile, targetIndex: Int) {
     check(EduUtils.isStudentProject(project)) {
-      "`preparePrevTask` should be called only if course in study mode"
+      "`prepareTask` should be called only if course in study mode"
+    }
+    require(targetIndex in taskList.indices) {
+      "Task index $targetIndex is out of lesson `$name` bounds"
     }
-    diffs[currentTaskIndex].forEach { diff -> diff.revert(project, taskDir) }
-    currentTaskIndex--
+    val currentIndex = currentTaskIndex
+    when {
+      targetIndex > currentIndex -> diffs(currentIndex, targetIndex).forEach { diff -> diff.apply(project, taskDir) }
+      targetIndex < currentIndex -> diffs(targetIndex, currentIndex).forEach { diff -> diff.revert(project, taskDir) }
+    }
+    currentTaskIndex = targetIndex
+  }
+
+  private fun diffs(fromIndex: Int, toIndex: Int): List<TaskDiff> {
+    return diffCache.getOrPut(fromIndex to toIndex) { calculateDiffs(taskList[fromIndex], taskList[toIndex]) }
   }
 
   private fun calculateDiffs(prevTask: Task, nextTask: Task): List<TaskDiff> {
@@ -110,3 +121,11 @@ private inline fun <T> calculateDiffs(
     }
   }
 }
+
+private class DiffCache : LinkedHashMap<Pair<Int, Int>, List<TaskDiff>>(MAX_CACHED_DIFFS, 0.75f, true) {
+  override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Pair<Int, Int>, List<TaskDiff>>?): Boolean = size > MAX_CACHED_DIFFS
+
+  companion object {
+    private const val MAX_CACHED_DIFFS = 8
+  }
+}
@@ -92,6 +92,31 @@ public abstract class ItemContainer extends StudyItem {
     }
   }
 
+  /**
+   * @return number of solved tasks which are counted in course progress.
+   * It's a sum of lesson counters, so tasks aren't visited
+   */
+  public int getSolvedTasksCount() {
+    int[] solved = {0};
+    visitLessons(lesson -> {
+      solved[0] += lesson.getSolvedTasksForProgressCount();
+      return true;
+    });
+    return solved[0];
+  }
+
+  /**
+   * @return number of tasks which are counted in course progress
+   */
+  public int getTasksForProgressCount() {
+    int[] total = {0};
+    visitLessons(lesson -> {
+      total[0] += lesson.getTasksForProgressCount();
+      return true;
+    });
+    return total[0];
+  }
+
   public void setItems(List<StudyItem> items) {
     this.items = items;
   }
@@ -54,6 +54,14 @@ public class Lesson extends StudyItem {
   @Transient
   private Section mySection = null;
 
+  // Progress counters. They are recalculated after `taskListChanged` (or if task list is replaced by deserialization)
+  // and updated by `taskStatusChanged` when status of single task is changed
+  @Transient private boolean myProgressCounted;
+  @Transient private List<Task> myCountedTaskList = null;
+  @Transient private int mySolvedTasksCount;
+  @Transient private int mySolvedTasksForProgressCount;
+  @Transient private int myTasksForProgressCount;
+
   public Lesson() {
   }
 
@@ -66,6 +74,7 @@ public class Lesson extends StudyItem {
       task.setIndex(i + 1);
       task.init(course, this, isRestarted);
     }
+    taskListChanged();
   }
 
   @Override
@@ -105,6 +114,12 @@ public class Lesson extends StudyItem {
 
   public void addTask(@NotNull final Task task) {
     taskList.add(task);
+    taskListChanged();
+  }
+
+  public void removeTask(@NotNull final Task task) {
+    taskList.remove(task);
+    taskListChanged();
   }
 
   @Nullable
@@ -123,15 +138,70 @@ public class Lesson extends StudyItem {
 
   public void updateTaskList(List<Task> taskList) {
     this.taskList = taskList;
+    taskListChanged();
+  }
+
+  /**
+   * Has to be called after {@link #taskList} is modified directly, so progress counters are recalculated
+   */
+  public synchronized void taskListChanged() {
+    myProgressCounted = false;
+  }
+
+  public synchronized CheckStatus getStatus() {
+    ensureProgressCounted();
+    return mySolvedTasksCount == taskList.size() ? CheckStatus.Solved : CheckStatus.Unchecked;
+  }
+
+  /**
+   * @return number of solved tasks from {@link #getTaskListForProgress()}
+   */
+  public synchronized int getSolvedTasksForProgressCount() {
+    ensureProgressCounted();
+    return mySolvedTasksForProgressCount;
   }
 
-  public CheckStatus getStatus() {
+  /**
+   * @return size of {@link #getTaskListForProgress()}
+   */
+  public synchronized int getTasksForProgressCount() {
+    ensureProgressCounted();
+    return myTasksForProgressCount;
+  }
+
+  public synchronized void taskStatusChanged(@NotNull Task task, @NotNull CheckStatus oldStatus, @NotNull CheckStatus newStatus) {
+    // counters will be recalculated from scratch on next access, so there is nothing to update
+    if (!isProgressCounted()) return;
+    int delta = (newStatus == CheckStatus.Solved ? 1 : 0) - (oldStatus == CheckStatus.Solved ? 1 : 0);
+    mySolvedTasksCount += delta;
+    if (!(task instanceof TheoryTask)) {
+      mySolvedTasksForProgressCount += delta;
+    }
+  }
+
+  private void ensureProgressCounted() {
+    if (isProgressCounted()) return;
+    mySolvedTasksCount = 0;
+    mySolvedTasksForProgressCount = 0;
+    myTasksForProgressCount = 0;
     for (Task task : taskList) {
-      if (task.getStatus() != CheckStatus.Solved) {
-        return CheckStatus.Unchecked;
+      boolean isSolved = task.getStatus() == CheckStatus.Solved;
+      if (isSolved) {
+        mySolvedTasksCount++;
+      }
+      if (!(task instanceof TheoryTask)) {
+        myTasksForProgressCount++;
+        if (isSolved) {
+          mySolvedTasksForProgressCount++;
+        }
       }
     }
-    return CheckStatus.Solved;
+    myCountedTaskList = taskList;
+    myProgressCounted = true;
+  }
+
+  private boolean isProgressCounted() {
+    return myProgressCounted && myCountedTaskList == taskList;
   }
 
   public int getId() {
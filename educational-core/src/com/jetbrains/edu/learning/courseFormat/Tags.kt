@@ -15,7 +15,7 @@ import javax.swing.JComponent
 
 private val DEFAULT_COLOR: Color = Color(70, 130, 180, 70)
 
-open class Tag @JvmOverloads constructor(val text: String, val color: Color = DEFAULT_COLOR, private val searchOption: String = "tag") {
+open class Tag @JvmOverloads constructor(val text: String, val color: Color = DEFAULT_COLOR, val searchOption: String = "tag") {
   fun getSearchText() : String = "$searchOption:$text".toLowerCase()
 
   fun accept(filter: String): Boolean {
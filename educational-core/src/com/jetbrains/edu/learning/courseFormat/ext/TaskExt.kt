@@ -13,6 +13,7 @@ import com.jetbrains.edu.learning.EduNames
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.courseFormat.*
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex
 import java.util.ArrayList
 import kotlin.collections.HashSet
 import kotlin.collections.component1
@@ -43,6 +44,10 @@ val Task.placeholderDependencies: List<AnswerPlaceholderDependency>
   get() = taskFiles.values.flatMap { it.answerPlaceholders.mapNotNull { it.placeholderDependency } }
 
 fun Task.getUnsolvedTaskDependencies(): List<Task> {
+  val project = project
+  if (project != null) {
+    return PlaceholderDependencyIndex.getInstance(project).getUnsolvedTaskDependencies(this)
+  }
   return placeholderDependencies
     .mapNotNull { it.resolve(course)?.taskFile?.task }
     .filter { it.status != CheckStatus.Solved }
@@ -50,6 +55,10 @@ fun Task.getUnsolvedTaskDependencies(): List<Task> {
 }
 
 fun Task.getDependentTasks(): Set<Task> {
+  val project = project
+  if (project != null) {
+    return PlaceholderDependencyIndex.getInstance(project).getDependentTasks(this)
+  }
   val course = course
   return course.items.flatMap { item ->
     when (item) {
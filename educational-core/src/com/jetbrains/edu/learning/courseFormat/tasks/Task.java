@@ -2,13 +2,17 @@ package com.jetbrains.edu.learning.courseFormat.tasks;
 
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.messages.Topic;
 import com.intellij.util.xmlb.XmlSerializer;
 import com.intellij.util.xmlb.annotations.Transient;
 import com.jetbrains.edu.coursecreator.stepik.StepikChangeRetriever;
 import com.jetbrains.edu.learning.EduUtils;
+import com.jetbrains.edu.learning.TaskStatusListener;
 import com.jetbrains.edu.learning.checker.TaskCheckerProvider;
 import com.jetbrains.edu.learning.courseFormat.*;
 import com.jetbrains.edu.learning.courseFormat.ext.TaskExt;
@@ -36,6 +40,8 @@ import java.util.*;
  * - Update {@link StepikTaskBuilder#pluginTaskTypes} for the tasks we do not have separately on stepik and {@link StepikTaskBuilder#stepikTaskTypes} otherwise
  */
 public abstract class Task extends StudyItem {
+  public static final Topic<TaskStatusListener> STATUS_CHANGED = Topic.create("Edu.taskStatusChanged", TaskStatusListener.class);
+
   @Expose private String name;
 
   protected CheckStatus myStatus = CheckStatus.Unchecked;
@@ -261,7 +267,23 @@ public abstract class Task extends StudyItem {
         placeholder.setStatus(status);
       }
     }
+    CheckStatus oldStatus = myStatus;
     myStatus = status;
+    statusChanged(oldStatus);
+  }
+
+  /**
+   * Has to be called by subclasses which change {@link #myStatus} directly
+   */
+  protected void statusChanged(@NotNull CheckStatus oldStatus) {
+    if (oldStatus == myStatus) return;
+    if (myLesson != null) {
+      myLesson.taskStatusChanged(this, oldStatus, myStatus);
+    }
+    Application application = ApplicationManager.getApplication();
+    if (application != null) {
+      application.getMessageBus().syncPublisher(STATUS_CHANGED).statusChanged(this, oldStatus, myStatus);
+    }
   }
 
   public Task copy() {
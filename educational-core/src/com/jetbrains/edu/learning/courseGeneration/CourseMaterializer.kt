@@ -0,0 +1,191 @@
+package com.jetbrains.edu.learning.courseGeneration
+
+import com.intellij.concurrency.JobLauncher
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.vfs.VfsUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.containers.ContainerUtil
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.courseFormat.*
+import com.jetbrains.edu.learning.courseFormat.ext.dirName
+import com.jetbrains.edu.learning.courseFormat.ext.isFrameworkTask
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import org.apache.commons.codec.binary.Base64
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Writes the whole course tree to disk with plain NIO and makes it visible to VFS with single recursive refresh.
+ *
+ * Unlike [GeneratorUtils.createLesson] and [GeneratorUtils.createTask], it doesn't create every directory and file
+ * in separate write action, so VFS events are fired only once per file during final refresh.
+ * Edu virtual file listeners ignore these events (see [isMaterializing]) because the course model already contains all created files.
+ */
+object CourseMaterializer {
+
+  private val materializingRoots: MutableSet<String> = ContainerUtil.newConcurrentSet()
+
+  /**
+   * Returns true if [file] is located in directory which is being filled by [materialize] at the moment
+   */
+  @JvmStatic
+  fun isMaterializing(file: VirtualFile): Boolean {
+    if (materializingRoots.isEmpty()) return false
+    val path = file.path
+    return materializingRoots.any { FileUtil.isAncestor(it, path, false) }
+  }
+
+  /**
+   * Can be used only for directories from local file system.
+   * Other file systems (like `temp://` one in tests) should use [GeneratorUtils.createCourse] directly.
+   */
+  @JvmStatic
+  fun isApplicable(baseDir: VirtualFile): Boolean = baseDir.isInLocalFileSystem
+
+  @Throws(IOException::class)
+  @JvmStatic
+  fun materialize(course: Course, baseDir: VirtualFile, indicator: ProgressIndicator) {
+    indicator.isIndeterminate = false
+    indicator.fraction = 0.0
+    indicator.text = "Preparing course structure"
+
+    val root = Paths.get(FileUtil.toSystemDependentName(baseDir.path))
+    // names are calculated sequentially because they can modify items and have to be unique among siblings
+    val reservedDirs = HashSet<Path>()
+    val layouts = course.items.mapNotNull { item ->
+      when (item) {
+        is Lesson -> layoutLesson(item, root, ItemLayout(reservedDirs))
+        is Section -> layoutSection(item, root, ItemLayout(reservedDirs))
+        else -> null
+      }
+    }
+
+    indicator.text = "Generating course files"
+    val total = layouts.size
+    val processed = AtomicInteger()
+    val error = AtomicReference<IOException>()
+    JobLauncher.getInstance().invokeConcurrentlyUnderProgress(layouts, indicator, false) { layout ->
+      try {
+        layout.write()
+        indicator.fraction = processed.incrementAndGet().toDouble() / total
+        true
+      }
+      catch (e: IOException) {
+        error.compareAndSet(null, e)
+        false
+      }
+    }
+    error.get()?.let { throw IOException(it) }
+
+    indicator.text = "Refreshing course files"
+    indicator.isIndeterminate = true
+    val rootPath = baseDir.path
+    materializingRoots.add(rootPath)
+    try {
+      VfsUtil.markDirtyAndRefresh(false, true, true, baseDir)
+    }
+    finally {
+      materializingRoots.remove(rootPath)
+    }
+    course.removeAdditionalLesson()
+  }
+
+  private fun layoutSection(section: Section, parentDir: Path, layout: ItemLayout): ItemLayout {
+    val sectionDir = layout.uniqueDir(parentDir, section)
+    for (lesson in section.lessons) {
+      layoutLesson(lesson, sectionDir, layout)
+    }
+    return layout
+  }
+
+  private fun layoutLesson(lesson: Lesson, parentDir: Path, layout: ItemLayout): ItemLayout {
+    if (lesson.isAdditional) {
+      layout.addFiles(parentDir, GeneratorUtils.additionalFilesToCreate(lesson))
+      return layout
+    }
+    val lessonDir = layout.uniqueDir(parentDir, lesson)
+    val isStudy = lesson.course.isStudy
+    for ((i, task) in lesson.getTaskList().withIndex()) {
+      // the same rules as in `GeneratorUtils.createLesson`
+      if (!isStudy || lesson !is FrameworkLesson || i == 0) {
+        layoutTask(task, lessonDir, layout)
+      }
+    }
+    return layout
+  }
+
+  private fun layoutTask(task: Task, lessonDir: Path, layout: ItemLayout) {
+    val taskDir = layout.uniqueDir(lessonDir, task)
+    for ((_, taskFile) in task.taskFiles) {
+      layout.addFile(taskDir, taskFile.name, taskFile.getText(), overwrite = true)
+    }
+    layout.addFiles(taskDir, task.testsText)
+    layout.addFiles(taskDir, task.additionalFiles.mapValues { (_, file) -> file.getText() })
+    if (CCUtils.COURSE_MODE == task.course.courseMode) {
+      layout.addFile(taskDir, GeneratorUtils.getDescriptionFileName(task), task.descriptionText ?: "", overwrite = true)
+    }
+  }
+
+  /**
+   * Files and directories of one top level course item.
+   * Different layouts don't intersect, so they can be written concurrently.
+   */
+  private class ItemLayout(private val reservedDirs: MutableSet<Path>) {
+    private val dirs: MutableList<Path> = mutableListOf()
+    private val files: MutableMap<Path, String> = LinkedHashMap()
+
+    fun uniqueDir(parentDir: Path, item: StudyItem): Path {
+      val (baseDirName, needUpdateItem) = if (item is Task && item.isFrameworkTask && item.course.isStudy) {
+        item.dirName to false
+      } else {
+        item.name to true
+      }
+      val validName = GeneratorUtils.convertToValidName(baseDirName)
+      var index = 0
+      var candidateName = validName
+      while (parentDir.resolve(candidateName).let { it in reservedDirs || Files.exists(it) }) {
+        index++
+        candidateName = "$validName ($index)"
+      }
+      if (candidateName != baseDirName && needUpdateItem) {
+        item.customPresentableName = item.name
+        item.name = candidateName
+      }
+      val dir = parentDir.resolve(candidateName)
+      dirs += dir
+      reservedDirs += dir
+      return dir
+    }
+
+    fun addFiles(dir: Path, texts: Map<String, String>) {
+      for ((path, text) in texts) {
+        addFile(dir, path, text, overwrite = false)
+      }
+    }
+
+    fun addFile(dir: Path, path: String, text: String, overwrite: Boolean) {
+      val file = dir.resolve(FileUtil.toSystemDependentName(path))
+      if (overwrite || file !in files && !Files.exists(file)) {
+        files[file] = text
+      }
+    }
+
+    @Throws(IOException::class)
+    fun write() {
+      for (dir in dirs) {
+        Files.createDirectories(dir)
+      }
+      for ((file, text) in files) {
+        Files.createDirectories(file.parent)
+        val bytes = if (EduUtils.isImage(file.fileName.toString())) Base64.decodeBase64(text) else text.toByteArray(Charsets.UTF_8)
+        Files.write(file, bytes)
+      }
+    }
+  }
+}
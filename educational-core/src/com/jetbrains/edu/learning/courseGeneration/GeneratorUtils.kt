@@ -42,6 +42,10 @@ object GeneratorUtils {
   fun createCourse(course: Course,
                    baseDir: VirtualFile,
                    indicator: ProgressIndicator) {
+    if (CourseMaterializer.isApplicable(baseDir)) {
+      CourseMaterializer.materialize(course, baseDir, indicator)
+      return
+    }
     indicator.isIndeterminate = false
     indicator.fraction = 0.0
 
@@ -124,7 +128,11 @@ object GeneratorUtils {
   @Throws(IOException::class)
   @JvmStatic
   fun createDescriptionFile(taskDir: VirtualFile, task: Task): VirtualFile? {
-    val descriptionFileName = when (task.descriptionFormat) {
+    return createChildFile(taskDir, getDescriptionFileName(task), task.descriptionText)
+  }
+
+  fun getDescriptionFileName(task: Task): String {
+    return when (task.descriptionFormat) {
       HTML -> EduNames.TASK_HTML
       MD -> EduNames.TASK_MD
       else -> {
@@ -132,7 +140,6 @@ object GeneratorUtils {
         EduNames.TASK_HTML
       }
     }
-    return createChildFile(taskDir, descriptionFileName, task.descriptionText)
   }
 
   @Throws(IOException::class)
@@ -290,9 +297,11 @@ object GeneratorUtils {
     return candidateName
   }
 
-  private fun String.convertToValidName(): String {
+  private fun String.convertToValidName(): String = convertToValidName(this)
+
+  fun convertToValidName(name: String): String {
     val invalidSymbols = if (SystemInfo.isWindows) WINDOWS_INVALID_SYMBOLS else UNIX_INVALID_SYMBOLS
-    return replace(invalidSymbols, " ").trim()
+    return name.replace(invalidSymbols, " ").trim()
   }
 
   private fun createUniqueDir(parentDir: VirtualFile, item: StudyItem): VirtualFile {
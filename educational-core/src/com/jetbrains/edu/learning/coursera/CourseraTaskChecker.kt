@@ -35,6 +35,8 @@ class CourseraTaskChecker : RemoteTaskChecker {
   override fun canCheck(project: Project, task: Task) =
     EduUtils.isStudentProject(project) && CourseraNames.COURSE_TYPE == task.course.courseType
 
+  // every check submits solution to Coursera
+  override val isResultCacheable: Boolean get() = false
 
   override fun check(project: Project, task: Task, indicator: ProgressIndicator): CheckResult {
     val courseraSettings = CourseraSettings.getInstance()
@@ -11,5 +11,19 @@ object GradleConstants {
   const val GRADLE_WRAPPER_WIN = "gradlew.bat"
   const val LOCAL_PROPERTIES = "local.properties"
   const val GRADLE_PROPERTIES = "gradle.properties"
+  /**
+   * List of task dirs which `settings.gradle` includes as gradle projects,
+   * see [com.jetbrains.edu.learning.gradle.generation.EduGradleUtils.updateModulesManifest].
+   * It's generated from course structure, so it's kept with other IDE project files
+   */
+  const val COURSE_MODULES_MANIFEST = ".idea/course-modules.txt"
+  /**
+   * Subset of [COURSE_MODULES_MANIFEST] which is imported into IDE in lazy modules mode, see [LazyModulesManager]
+   */
+  const val IMPORTED_MODULES_MANIFEST = ".idea/course-modules-imported.txt"
+  /**
+   * Gradle project property which makes `settings.gradle` include all task projects even in lazy modules mode
+   */
+  const val ALL_MODULES_PROPERTY = "eduAllModules"
 
 }
\ No newline at end of file
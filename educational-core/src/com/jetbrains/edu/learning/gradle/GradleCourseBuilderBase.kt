@@ -3,6 +3,7 @@ package com.jetbrains.edu.learning.gradle
 import com.intellij.ide.projectView.ProjectView
 import com.intellij.openapi.application.ModalityState
 import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.externalSystem.importing.ImportSpecBuilder
 import com.intellij.openapi.externalSystem.model.DataNode
 import com.intellij.openapi.externalSystem.model.ExternalSystemDataKeys
@@ -13,13 +14,17 @@ import com.intellij.openapi.externalSystem.service.project.ProjectDataManager
 import com.intellij.openapi.externalSystem.util.ExternalSystemUtil
 import com.intellij.openapi.project.Project
 import com.jetbrains.edu.learning.EduCourseBuilder
+import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.LanguageSettings
+import com.jetbrains.edu.learning.StudyTaskManager
 import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.gradle.generation.EduGradleUtils
 import com.jetbrains.edu.learning.gradle.generation.GradleCourseProjectGenerator
 import com.jetbrains.edu.learning.isUnitTestMode
 import com.jetbrains.edu.learning.projectView.CourseViewPane
 import org.jetbrains.plugins.gradle.util.GradleConstants
+import java.io.IOException
 
 abstract class GradleCourseBuilderBase : EduCourseBuilder<JdkProjectSettings> {
 
@@ -33,6 +38,16 @@ abstract class GradleCourseBuilderBase : EduCourseBuilder<JdkProjectSettings> {
     get() = mapOf(GradleConstants.DEFAULT_SCRIPT_NAME to buildGradleTemplateName,
                   GradleConstants.SETTINGS_FILE_NAME to settingGradleTemplateName)
 
+  /**
+   * If `true`, task projects are listed in modules manifest generated from course structure
+   * and gradle is launched with configuration on demand for checking.
+   * Large courses are imported lazily in this case, see [LazyModulesManager].
+   * Otherwise `settings.gradle` looks for task projects in the whole course dir
+   *
+   * @see EduGradleUtils.updateModulesManifest
+   */
+  open val useModulesManifest: Boolean get() = true
+
   open fun templateVariables(project: Project): Map<String, Any> {
     return mapOf(GRADLE_VERSION to EduGradleUtils.gradleVersion(),
                  "PROJECT_NAME" to EduGradleUtils.sanitizeName(project.name))
@@ -45,6 +60,8 @@ abstract class GradleCourseBuilderBase : EduCourseBuilder<JdkProjectSettings> {
       return
     }
 
+    updateModulesManifest(project)
+
     val builder = ImportSpecBuilder(project, GradleConstants.SYSTEM_ID)
       .use(ProgressExecutionMode.IN_BACKGROUND_ASYNC)
       .dontReportRefreshErrors()
@@ -77,12 +94,36 @@ abstract class GradleCourseBuilderBase : EduCourseBuilder<JdkProjectSettings> {
     }
   }
 
+  private fun updateModulesManifest(project: Project) {
+    val course = StudyTaskManager.getInstance(project).course ?: return
+    courseStructureChanged(project, course)
+  }
+
+  override fun courseStructureChanged(project: Project, course: Course) {
+    if (!useModulesManifest) return
+    try {
+      EduGradleUtils.updateModulesManifest(EduUtils.getCourseDir(project), course)
+    }
+    catch (e: IOException) {
+      LOG.warn("Failed to update gradle modules manifest", e)
+    }
+    LazyModulesManager.getInstance(project).courseStructureChanged(course)
+  }
+
+  override fun taskOpened(project: Project, task: Task) {
+    if (useModulesManifest && LazyModulesManager.getInstance(project).taskOpened(task)) {
+      refreshProject(project)
+    }
+  }
+
   override fun getLanguageSettings(): LanguageSettings<JdkProjectSettings> = JdkLanguageSettings()
 
   override fun getCourseProjectGenerator(course: Course): GradleCourseProjectGenerator =
     GradleCourseProjectGenerator(this, course)
 
   companion object {
+    private val LOG: Logger = Logger.getInstance(GradleCourseBuilderBase::class.java)
+
     const val GRADLE_VERSION: String = "GRADLE_VERSION"
   }
 }
@@ -0,0 +1,180 @@
+package com.jetbrains.edu.learning.gradle
+
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.jetbrains.edu.learning.CourseSetListener
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.LessonVisitor
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.gradle.GradleConstants.IMPORTED_MODULES_MANIFEST
+import com.jetbrains.edu.learning.gradle.GradleConstants.SETTINGS_GRADLE
+import com.jetbrains.edu.learning.gradle.generation.EduGradleUtils
+import com.jetbrains.edu.learning.gradle.generation.relativeDirPath
+import com.jetbrains.edu.learning.navigation.NavigationUtils
+import java.io.IOException
+
+/**
+ * Lazy modules mode for large gradle courses in study mode.
+ *
+ * Only projects of recently opened tasks, their neighbours and `util` are imported into IDE as modules,
+ * so big courses are opened and indexed faster and take less memory.
+ * Imported task dirs are listed in [IMPORTED_MODULES_MANIFEST] which `settings.gradle` uses instead of the full modules manifest
+ * unless [GradleConstants.ALL_MODULES_PROPERTY] is passed, so checks still see all task projects.
+ *
+ * When student opens a task which isn't imported, it's attached together with next tasks
+ * and the least recently used tasks are detached on the following gradle import.
+ *
+ * `settings.gradle` of projects created by older plugin versions doesn't read [IMPORTED_MODULES_MANIFEST],
+ * so lazy mode is disabled for them, otherwise every opened task would trigger a full gradle import.
+ */
+class LazyModulesManager(private val project: Project) {
+
+  /** Imported task dirs, the most recently used is the last one */
+  private var importedTaskDirs: LinkedHashSet<String>? = null
+
+  init {
+    project.messageBus.connect(project).subscribe(StudyTaskManager.COURSE_SET, object : CourseSetListener {
+      override fun courseSet(course: Course) = resetImportedTaskDirs()
+    })
+  }
+
+  fun isEnabled(course: Course): Boolean =
+    course.isStudy && course.taskCount > LAZY_MODULES_THRESHOLD && isImportedModulesManifestSupported()
+
+  /**
+   * Marks task and its neighbours as recently used
+   *
+   * @return `true` if imported modules have changed and gradle project should be refreshed
+   */
+  @Synchronized
+  fun taskOpened(task: Task): Boolean {
+    if (!isEnabled(task.course)) return false
+    val taskDirs = getImportedTaskDirs(task.course)
+    val requiredTasks = listOfNotNull(NavigationUtils.previousTask(task), task, NavigationUtils.nextTask(task))
+    val isImported = requiredTasks.all { it.relativeDirPath in taskDirs }
+    markUsed(taskDirs, requiredTasks)
+    if (isImported) return false
+
+    // attach a few tasks ahead to avoid import on every navigation to the next task
+    val nextTasks = generateSequence(NavigationUtils.nextTask(task)) { NavigationUtils.nextTask(it) }.take(PREFETCHED_TASKS).toList()
+    markUsed(taskDirs, nextTasks.reversed())
+    markUsed(taskDirs, requiredTasks)
+    while (taskDirs.size > MAX_IMPORTED_TASKS) {
+      taskDirs.remove(taskDirs.first())
+    }
+    return writeManifest(taskDirs)
+  }
+
+  /**
+   * Drops deleted tasks from imported modules.
+   * If there are no imported modules yet, the first unsolved task is imported
+   */
+  @Synchronized
+  fun courseStructureChanged(course: Course) {
+    if (!isEnabled(course)) return
+    val allTaskDirs = HashSet<String>()
+    course.visitLessons(LessonVisitor { lesson ->
+      lesson.taskList.mapTo(allTaskDirs) { it.relativeDirPath }
+      true
+    })
+    val taskDirs = getImportedTaskDirs(course)
+    taskDirs.retainAll(allTaskDirs)
+    if (taskDirs.isEmpty()) {
+      val firstTask = findFirstUnsolvedTask(course) ?: return
+      if (taskOpened(firstTask)) return
+    }
+    writeManifest(taskDirs)
+  }
+
+  @Synchronized
+  private fun resetImportedTaskDirs() {
+    importedTaskDirs = null
+  }
+
+  private fun isImportedModulesManifestSupported(): Boolean {
+    val settingsGradle = EduUtils.getCourseDir(project).findChild(SETTINGS_GRADLE) ?: return false
+    return runReadAction {
+      try {
+        VfsUtilCore.loadText(settingsGradle).contains(IMPORTED_MODULES_MANIFEST)
+      }
+      catch (e: IOException) {
+        LOG.warn(e)
+        false
+      }
+    }
+  }
+
+  private fun getImportedTaskDirs(course: Course): LinkedHashSet<String> {
+    importedTaskDirs?.let { return it }
+    val taskDirs = try {
+      EduGradleUtils.readModulesManifest(EduUtils.getCourseDir(project), IMPORTED_MODULES_MANIFEST)
+    }
+    catch (e: IOException) {
+      LOG.warn("Failed to read imported modules of ${course.name}", e)
+      null
+    }
+    return LinkedHashSet(taskDirs.orEmpty()).also { importedTaskDirs = it }
+  }
+
+  private fun writeManifest(taskDirs: Collection<String>): Boolean {
+    return try {
+      EduGradleUtils.writeModulesManifest(EduUtils.getCourseDir(project), IMPORTED_MODULES_MANIFEST, taskDirs)
+    }
+    catch (e: IOException) {
+      LOG.warn("Failed to write imported modules", e)
+      false
+    }
+  }
+
+  private fun markUsed(taskDirs: LinkedHashSet<String>, tasks: List<Task>) {
+    for (task in tasks) {
+      val taskDir = task.relativeDirPath
+      taskDirs.remove(taskDir)
+      taskDirs.add(taskDir)
+    }
+  }
+
+  private fun findFirstUnsolvedTask(course: Course): Task? {
+    var firstTask: Task? = null
+    var firstUnsolvedTask: Task? = null
+    course.visitLessons(LessonVisitor { lesson ->
+      for (task in lesson.taskList) {
+        if (firstTask == null) firstTask = task
+        if (task.status != CheckStatus.Solved) {
+          firstUnsolvedTask = task
+          return@LessonVisitor false
+        }
+      }
+      true
+    })
+    return firstUnsolvedTask ?: firstTask
+  }
+
+  private val Course.taskCount: Int
+    get() {
+      var count = 0
+      visitLessons(LessonVisitor { lesson ->
+        count += lesson.taskList.size
+        true
+      })
+      return count
+    }
+
+  companion object {
+    private val LOG: Logger = Logger.getInstance(LazyModulesManager::class.java)
+
+    /** Courses with more tasks are imported lazily */
+    internal const val LAZY_MODULES_THRESHOLD = 50
+    internal const val MAX_IMPORTED_TASKS = 20
+    private const val PREFETCHED_TASKS = 3
+
+    @JvmStatic
+    fun getInstance(project: Project): LazyModulesManager = ServiceManager.getService(project, LazyModulesManager::class.java)
+  }
+}
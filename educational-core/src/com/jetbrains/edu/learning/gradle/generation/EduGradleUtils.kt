@@ -18,7 +18,14 @@ import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VfsUtil
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.util.containers.ContainerUtilRt
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.LessonVisitor
+import com.jetbrains.edu.learning.courseFormat.ext.dirName
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.courseGeneration.GeneratorUtils.createChildFile
+import com.jetbrains.edu.learning.gradle.GradleConstants.COURSE_MODULES_MANIFEST
+import com.jetbrains.edu.learning.stepik.StepikNames
 import org.gradle.util.GradleVersion
 import org.jetbrains.plugins.gradle.settings.DistributionType
 import org.jetbrains.plugins.gradle.settings.GradleProjectSettings
@@ -39,13 +46,21 @@ object EduGradleUtils {
     FileTemplateManager.getDefaultInstance().getInternalTemplate(templateName)?.getText(templateVariables)
 
 
+  /**
+   * Creates gradle config files from [templates].
+   * If [course] is passed, modules manifest is generated from its structure, see [updateModulesManifest]
+   */
   @JvmStatic
   @Throws(IOException::class)
   fun createProjectGradleFiles(
     projectDir: VirtualFile,
     templates: Map<String, String>,
-    templateVariables: Map<String, Any>
+    templateVariables: Map<String, Any>,
+    course: Course?
   ) {
+    if (course != null) {
+      updateModulesManifest(projectDir, course)
+    }
     for ((name, templateName) in templates) {
       val child = projectDir.findChild(name)
       if (child == null) {
@@ -65,6 +80,52 @@ object EduGradleUtils {
     invokeAndWaitIfNeed { runWriteAction { VfsUtil.saveText(child, content) } }
   }
 
+  /**
+   * Writes paths of all task dirs of [course] relative to [projectDir] to [COURSE_MODULES_MANIFEST] file.
+   * If it exists, `settings.gradle` includes listed dirs as gradle projects
+   * instead of scanning the whole course dir at every gradle invocation.
+   *
+   * The file isn't rewritten if course structure hasn't changed
+   */
+  @JvmStatic
+  @Throws(IOException::class)
+  fun updateModulesManifest(projectDir: VirtualFile, course: Course) {
+    val taskDirs = LinkedHashSet<String>()
+    course.visitLessons(LessonVisitor { lesson ->
+      lesson.taskList.mapTo(taskDirs) { it.relativeDirPath }
+      true
+    })
+    writeModulesManifest(projectDir, COURSE_MODULES_MANIFEST, taskDirs)
+  }
+
+  /**
+   * Writes [taskDirs] to manifest file at [manifestPath] relative to [projectDir], one per line
+   *
+   * @return `true` if manifest content has changed
+   */
+  @JvmStatic
+  @Throws(IOException::class)
+  fun writeModulesManifest(projectDir: VirtualFile, manifestPath: String, taskDirs: Collection<String>): Boolean {
+    val content = taskDirs.joinToString("") { "$it\n" }
+    val manifest = projectDir.findFileByRelativePath(manifestPath)
+    if (manifest != null && VfsUtil.loadText(manifest) == content) return false
+    createChildFile(projectDir, manifestPath, content)
+    return true
+  }
+
+  /**
+   * @return task dirs listed in manifest file at [manifestPath] relative to [projectDir] or `null` if there is no such file
+   */
+  @JvmStatic
+  @Throws(IOException::class)
+  fun readModulesManifest(projectDir: VirtualFile, manifestPath: String): List<String>? {
+    val manifest = projectDir.findFileByRelativePath(manifestPath) ?: return null
+    return VfsUtil.loadText(manifest).lines().filter { it.isNotEmpty() }
+  }
+
+  @JvmStatic
+  fun hasModulesManifest(projectDir: String): Boolean = File(projectDir, COURSE_MODULES_MANIFEST).exists()
+
   @JvmOverloads
   @JvmStatic
   fun setGradleSettings(project: Project, location: String, distributionType: DistributionType = DistributionType.WRAPPED) {
@@ -132,3 +193,12 @@ object EduGradleUtils {
    */
   fun sanitizeName(name: String): String = name.replace(INVALID_SYMBOLS, "_")
 }
+
+/**
+ * Path of task dir relative to course dir as it's written to modules manifests
+ */
+val Task.relativeDirPath: String
+  get() {
+    val sectionName = lesson.section?.name?.takeIf { it != EduNames.ADDITIONAL_MATERIALS && it != StepikNames.PYCHARM_ADDITIONAL }
+    return listOfNotNull(sectionName, lesson.name, dirName).joinToString("/")
+  }
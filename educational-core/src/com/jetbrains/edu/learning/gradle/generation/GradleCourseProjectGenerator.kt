@@ -62,7 +62,8 @@ open class GradleCourseProjectGenerator(
 
   override fun createAdditionalFiles(project: Project, baseDir: VirtualFile) {
     val gradleCourseBuilder = myCourseBuilder as GradleCourseBuilderBase
-    EduGradleUtils.createProjectGradleFiles(baseDir, gradleCourseBuilder.templates, gradleCourseBuilder.templateVariables(project))
+    EduGradleUtils.createProjectGradleFiles(baseDir, gradleCourseBuilder.templates, gradleCourseBuilder.templateVariables(project),
+                                           myCourse.takeIf { gradleCourseBuilder.useModulesManifest })
   }
 
   private fun setJdk(project: Project, settings: JdkProjectSettings) {
@@ -6,12 +6,16 @@ import com.intellij.openapi.vfs.VirtualFileListener
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.FileInfo
 import com.jetbrains.edu.learning.FileKind
+import com.jetbrains.edu.learning.courseGeneration.CourseMaterializer
 import com.jetbrains.edu.learning.fileInfo
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex
 
 abstract class EduVirtualFileListener(protected val project: Project) : VirtualFileListener {
 
   override fun fileCreated(event: VirtualFileEvent) {
     if (event.file.isDirectory) return
+    // course model already contains files created by bulk generation
+    if (CourseMaterializer.isMaterializing(event.file)) return
     val fileInfo = event.file.fileInfo(project) as? FileInfo.FileInTask ?: return
     fileInTaskCreated(fileInfo)
   }
@@ -53,5 +57,6 @@ abstract class EduVirtualFileListener(protected val project: Project) : VirtualF
         }
       }
     }
+    PlaceholderDependencyIndex.getInstance(project).itemChanged(task)
   }
 }
@@ -5,6 +5,7 @@ import com.intellij.openapi.vfs.VirtualFileEvent
 import com.jetbrains.edu.learning.FileInfo
 import com.jetbrains.edu.learning.FileKind.*
 import com.jetbrains.edu.learning.fileInfo
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyIndex
 
 class UserCreatedFileListener(project: Project) : EduVirtualFileListener(project) {
 
@@ -15,5 +16,6 @@ class UserCreatedFileListener(project: Project) : EduVirtualFileListener(project
       ADDITIONAL_FILE -> task.additionalFiles.remove(pathInTask)
       TEST_FILE -> task.testsText.remove(pathInTask)
     }
+    PlaceholderDependencyIndex.getInstance(project).itemChanged(task)
   }
 }
@@ -13,6 +13,7 @@ import com.intellij.util.ui.tree.TreeUtil
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.StudyTaskManager
 import com.jetbrains.edu.learning.courseFormat.*
+import com.jetbrains.edu.learning.courseFormat.ext.configurator
 import com.jetbrains.edu.learning.courseFormat.ext.findSourceDir
 import com.jetbrains.edu.learning.courseFormat.ext.saveStudentAnswersIfNeeded
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
@@ -174,6 +175,7 @@ object NavigationUtils {
     }
 
     val taskDir = task.getTaskDir(project) ?: return
+    lesson.course.configurator?.courseBuilder?.taskOpened(project, task)
 
     if (taskFiles.isEmpty()) {
       val selectingDir = task.findSourceDir(taskDir) ?: taskDir
@@ -212,17 +214,7 @@ object NavigationUtils {
 
   private fun prepareFilesForTargetTask(project: Project, frameworkLesson: FrameworkLesson, currentTask: Task, targetTask: Task) {
     val dir = currentTask.getTaskDir(project) ?: return
-
-    @Suppress("NAME_SHADOWING")
-    var currentTask = currentTask
-    while (currentTask.index != targetTask.index) {
-      if (currentTask.index < targetTask.index) {
-        frameworkLesson.prepareNextTask(project, dir)
-      } else {
-        frameworkLesson.preparePrevTask(project, dir)
-      }
-      currentTask = frameworkLesson.currentTask()
-    }
+    frameworkLesson.prepareTask(project, dir, targetTask.index - 1)
   }
 
   private fun updateProjectView(project: Project, fileToActivate: VirtualFile) {
@@ -45,6 +45,7 @@ import com.jetbrains.edu.learning.courseFormat.Lesson;
 import com.jetbrains.edu.learning.courseFormat.RemoteCourse;
 import com.jetbrains.edu.learning.courseFormat.StepikChangeStatus;
 import com.jetbrains.edu.learning.courseGeneration.GeneratorUtils;
+import com.jetbrains.edu.learning.statistics.EduMetrics;
 import com.jetbrains.edu.learning.statistics.EduUsagesCollector;
 import com.jetbrains.edu.learning.stepik.*;
 import org.jdom.Element;
@@ -168,33 +169,39 @@ public abstract class CourseProjectGenerator<S> {
    */
   @VisibleForTesting
   public void createCourseStructure(@NotNull Project project, @NotNull VirtualFile baseDir, @NotNull S settings) {
-    GeneratorUtils.initializeCourse(project, myCourse);
+    EduMetrics.Timer timer = EduMetrics.startTimer("project.createCourseStructure");
+    try {
+      GeneratorUtils.initializeCourse(project, myCourse);
 
-    if (CCUtils.isCourseCreator(project) && myCourse.getItems().isEmpty()) {
-      final Lesson lesson = myCourseBuilder.createInitialLesson(project, myCourse);
-      if (lesson != null) {
-        myCourse.addLesson(lesson);
+      if (CCUtils.isCourseCreator(project) && myCourse.getItems().isEmpty()) {
+        final Lesson lesson = myCourseBuilder.createInitialLesson(project, myCourse);
+        if (lesson != null) {
+          myCourse.addLesson(lesson);
+        }
       }
-    }
 
-    try {
-      ProgressManager.getInstance().runProcessWithProgressSynchronously(() -> {
-        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
-        GeneratorUtils.createCourse(myCourse, baseDir, indicator);
-        if (CCUtils.isCourseCreator(project)) {
-          CCUtils.initializeCCPlaceholders(project,myCourse);
-        }
-        if (myCourse instanceof RemoteCourse && myCourse.isFromZip() && CCUtils.isCourseCreator(project)) {
-          setStepikChangeStatuses(project);
-        }
-        createAdditionalFiles(project, baseDir);
-        EduUsagesCollector.projectTypeCreated(myCourse.getCourseMode());
-
-        return null; // just to use correct overloading of `runProcessWithProgressSynchronously` method
-      }, "Generating Course Structure", false, project);
-      loadSolutions(project, myCourse);
-    } catch (IOException e) {
-      LOG.error("Failed to generate course", e);
+      try {
+        ProgressManager.getInstance().runProcessWithProgressSynchronously(() -> {
+          ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+          GeneratorUtils.createCourse(myCourse, baseDir, indicator);
+          if (CCUtils.isCourseCreator(project)) {
+            CCUtils.initializeCCPlaceholders(project,myCourse);
+          }
+          if (myCourse instanceof RemoteCourse && myCourse.isFromZip() && CCUtils.isCourseCreator(project)) {
+            setStepikChangeStatuses(project);
+          }
+          createAdditionalFiles(project, baseDir);
+          EduUsagesCollector.projectTypeCreated(myCourse.getCourseMode());
+
+          return null; // just to use correct overloading of `runProcessWithProgressSynchronously` method
+        }, "Generating Course Structure", false, project);
+        loadSolutions(project, myCourse);
+      } catch (IOException e) {
+        LOG.error("Failed to generate course", e);
+      }
+    }
+    finally {
+      timer.stop();
     }
   }
 
@@ -1,5 +1,6 @@
 package com.jetbrains.edu.learning.newproject.ui;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.intellij.icons.AllIcons;
 import com.intellij.ide.DataManager;
@@ -67,6 +68,9 @@ public class CoursesPanel extends JPanel {
   private JBList<Course> myCoursesList;
   private CoursePanel myCoursePanel;
   private List<Course> myCourses;
+  @Nullable private CoursesSearchIndex mySearchIndex;
+  @Nullable private CoursesSearchIndex.SearchResult myLastSearchResult;
+  private int mySearchIndexModificationCount;
   private List<CourseValidationListener> myListeners = new ArrayList<>();
   private MessageBusConnection myBusConnection;
   private @Nullable ActionGroup myCustomToolbarActions;
@@ -88,6 +92,7 @@ public class CoursesPanel extends JPanel {
     myCoursesList = new JBList<>();
     myCoursesList.setEmptyText(NO_COURSES);
     updateModel(myCourses, null, false);
+    updateSearchIndex();
     myErrorLabel.setVisible(false);
 
     ColoredListCellRenderer<Course> renderer = getCourseRenderer();
@@ -199,6 +204,7 @@ public class CoursesPanel extends JPanel {
     List<Course> courses = CourseLoader.getCourseInfosUnderProgress(() -> CoursesProvider.loadAllCourses());
     myCourses = courses != null ? courses : Lists.newArrayList();
     updateModel(myCourses, selectedCourse.getName(), selectedCourse.isFromZip());
+    updateSearchIndex();
     myErrorLabel.setVisible(false);
     notifyListeners(true);
   }
@@ -297,10 +303,17 @@ public class CoursesPanel extends JPanel {
       public void filter() {
         Course selectedCourse = myCoursesList.getSelectedValue();
         String filter = getFilter();
-        List<Course> filtered = new ArrayList<>();
-        for (Course course : myCourses) {
-          if (accept(filter, course)) {
-            filtered.add(course);
+        List<Course> filtered;
+        if (mySearchIndex != null) {
+          myLastSearchResult = mySearchIndex.search(filter, myLastSearchResult);
+          filtered = myLastSearchResult.getCourses();
+        }
+        else {
+          filtered = new ArrayList<>();
+          for (Course course : myCourses) {
+            if (accept(filter, course)) {
+              filtered.add(course);
+            }
           }
         }
         String courseName = selectedCourse != null ? selectedCourse.getName() : null;
@@ -312,7 +325,26 @@ public class CoursesPanel extends JPanel {
     UIUtil.setBackgroundRecursively(mySearchField, UIUtil.getTextFieldBackground());
   }
 
-  private static boolean accept(@NonNls String filter, Course course) {
+  /**
+   * Rebuilds search index in background, courses are filtered without index until it's ready
+   */
+  private void updateSearchIndex() {
+    mySearchIndex = null;
+    myLastSearchResult = null;
+    int modificationCount = ++mySearchIndexModificationCount;
+    List<Course> courses = new ArrayList<>(myCourses);
+    ApplicationManager.getApplication().executeOnPooledThread(() -> {
+      CoursesSearchIndex searchIndex = new CoursesSearchIndex(courses);
+      ApplicationManager.getApplication().invokeLater(() -> {
+        if (modificationCount == mySearchIndexModificationCount) {
+          mySearchIndex = searchIndex;
+        }
+      }, ModalityState.any());
+    });
+  }
+
+  @VisibleForTesting
+  static boolean accept(@NonNls String filter, Course course) {
     if (filter.isEmpty()) {
       return true;
     }
@@ -448,6 +480,7 @@ public class CoursesPanel extends JPanel {
                                  EduUsagesCollector.courseArchiveImported();
                                  myCourses.add(course);
                                  updateModel(myCourses, course.getName(), true);
+                                 updateSearchIndex();
                                }
                              });
     }
@@ -459,6 +492,7 @@ public class CoursesPanel extends JPanel {
       }
       myCourses.add(course);
       updateModel(myCourses, course.getName(), false);
+      updateSearchIndex();
     }
   }
 }
@@ -0,0 +1,171 @@
+package com.jetbrains.edu.learning.newproject.ui
+
+import com.jetbrains.edu.learning.courseFormat.Course
+import java.util.*
+
+/**
+ * Immutable search index over courses of Browse Courses dialog.
+ *
+ * Search semantics are the same as of [CoursesPanel]'s plain filtering: query is split by spaces
+ * and course is accepted if any part of the query is a substring of its name, one of author names or tag texts,
+ * or consists of tag search option and a substring of tag text with this option (e.g. `language:engl`).
+ *
+ * Query parts don't contain spaces, so substring of a text is a prefix of a suffix of one of its space-separated tokens.
+ * That's why texts are indexed as sorted arrays of token suffixes and each query part is looked up with binary search.
+ * All text processing (lowercasing, creating tags, joining author names) is done once while index is built,
+ * so it's expected to be built in background.
+ */
+class CoursesSearchIndex(courses: List<Course>) {
+  private val courses: List<Course> = ArrayList(courses)
+  private val searchableCourses: List<SearchableCourse> = this.courses.map { SearchableCourse(it) }
+
+  /** Names, author names and tag texts */
+  private val textIndex: SuffixIndex
+  /** Tag texts by tag search option */
+  private val optionIndices: Map<String, SuffixIndex>
+
+  init {
+    val texts = ArrayList<IndexedText>()
+    val optionTexts = HashMap<String, MutableList<IndexedText>>()
+    for ((courseIndex, course) in searchableCourses.withIndex()) {
+      texts += IndexedText(course.name, courseIndex)
+      course.authors.mapTo(texts) { IndexedText(it, courseIndex) }
+      for (tag in course.tags) {
+        texts += IndexedText(tag.text, courseIndex)
+        optionTexts.getOrPut(tag.searchOption) { ArrayList() } += IndexedText(tag.text, courseIndex)
+      }
+    }
+    textIndex = SuffixIndex(texts)
+    optionIndices = optionTexts.mapValues { (_, optionTexts) -> SuffixIndex(optionTexts) }
+  }
+
+  /**
+   * If [query] only narrows query of [previous] result (e.g. user typed one more character),
+   * only courses from [previous] result are checked
+   */
+  fun search(query: String, previous: SearchResult? = null): SearchResult {
+    val queryParts = CoursesPanel.getFilterParts(query)
+    val matched = BitSet(courses.size)
+    if (previous != null && previous.index === this && isNarrowing(queryParts, previous.queryParts)) {
+      var i = previous.matched.nextSetBit(0)
+      while (i >= 0) {
+        if (searchableCourses[i].accept(queryParts)) {
+          matched.set(i)
+        }
+        i = previous.matched.nextSetBit(i + 1)
+      }
+    }
+    else {
+      for (part in queryParts) {
+        lookup(part, matched)
+      }
+    }
+    return SearchResult(this, queryParts, matched)
+  }
+
+  private fun lookup(queryPart: String, result: BitSet) {
+    if (queryPart.isEmpty()) {
+      result.set(0, courses.size)
+      return
+    }
+    textIndex.lookup(queryPart, result)
+    for ((option, index) in optionIndices) {
+      val prefix = "$option:"
+      if (queryPart.startsWith(prefix)) {
+        index.lookup(queryPart.substring(prefix.length), result)
+      }
+    }
+  }
+
+  private fun isNarrowing(queryParts: Set<String>, previousQueryParts: Set<String>): Boolean =
+    queryParts.all { part -> previousQueryParts.any { previousPart -> isNarrowing(part, previousPart) } }
+
+  /**
+   * Every course accepted by [queryPart] is accepted by [previousQueryPart]
+   */
+  private fun isNarrowing(queryPart: String, previousQueryPart: String): Boolean {
+    if (previousQueryPart !in queryPart) return false
+    return optionIndices.keys.all { option ->
+      val prefix = "$option:"
+      !queryPart.startsWith(prefix) ||
+      previousQueryPart.startsWith(prefix) && previousQueryPart.substring(prefix.length) in queryPart.substring(prefix.length)
+    }
+  }
+
+  class SearchResult internal constructor(
+    internal val index: CoursesSearchIndex,
+    internal val queryParts: Set<String>,
+    internal val matched: BitSet
+  ) {
+    val courses: List<Course>
+      get() {
+        val result = ArrayList<Course>(matched.cardinality())
+        var i = matched.nextSetBit(0)
+        while (i >= 0) {
+          result += index.courses[i]
+          i = matched.nextSetBit(i + 1)
+        }
+        return result
+      }
+  }
+
+  private class IndexedText(val text: String, val courseIndex: Int)
+
+  private class SuffixIndex(texts: List<IndexedText>) {
+    private val suffixes: Array<String>
+    private val courseIndices: IntArray
+
+    init {
+      val entries = ArrayList<IndexedText>()
+      for ((courseIndex, courseTexts) in texts.groupBy { it.courseIndex }) {
+        val courseSuffixes = HashSet<String>()
+        for (indexedText in courseTexts) {
+          for (token in indexedText.text.split(' ')) {
+            for (start in token.indices) {
+              courseSuffixes += token.substring(start)
+            }
+          }
+        }
+        courseSuffixes.mapTo(entries) { IndexedText(it, courseIndex) }
+      }
+      entries.sortBy { it.text }
+      suffixes = Array(entries.size) { entries[it].text }
+      courseIndices = IntArray(entries.size) { entries[it].courseIndex }
+    }
+
+    fun lookup(prefix: String, result: BitSet) {
+      var i = lowerBound(prefix)
+      while (i < suffixes.size && suffixes[i].startsWith(prefix)) {
+        result.set(courseIndices[i])
+        i++
+      }
+    }
+
+    private fun lowerBound(key: String): Int {
+      var low = 0
+      var high = suffixes.size
+      while (low < high) {
+        val middle = (low + high) ushr 1
+        if (suffixes[middle] < key) low = middle + 1 else high = middle
+      }
+      return low
+    }
+  }
+
+  private class SearchableTag(val text: String, val searchOption: String) {
+    private val searchPrefix = "$searchOption:"
+
+    fun accept(queryPart: String): Boolean =
+      queryPart in text || queryPart.startsWith(searchPrefix) && queryPart.substring(searchPrefix.length) in text
+  }
+
+  private class SearchableCourse(course: Course) {
+    val name: String = course.name.toLowerCase(Locale.getDefault())
+    val authors: List<String> = course.authorFullNames.map { it.toLowerCase(Locale.getDefault()) }
+    val tags: List<SearchableTag> = course.tags.map { SearchableTag(it.text.toLowerCase(Locale.getDefault()), it.searchOption) }
+
+    fun accept(queryParts: Set<String>): Boolean = queryParts.any { part ->
+      part in name || authors.any { part in it } || tags.any { it.accept(part) }
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package com.jetbrains.edu.learning.placeholderDependencies
+
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.openapi.vfs.newvfs.BulkFileListener
+import com.intellij.openapi.vfs.newvfs.events.*
+import com.jetbrains.edu.learning.CourseSetListener
+import com.jetbrains.edu.learning.FileInfo
+import com.jetbrains.edu.learning.FileKind
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.courseFormat.*
+import com.jetbrains.edu.learning.courseFormat.ext.placeholderDependencies
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.fileInfo
+import org.jetbrains.annotations.TestOnly
+import java.util.*
+import java.util.concurrent.ConcurrentLinkedQueue
+
+/**
+ * Resolved placeholder dependencies of the course and reverse index from tasks to their dependent tasks.
+ *
+ * The index is built on the first lookup and rebuilt from scratch only after [invalidate], i.e. when course is set.
+ * Changes of single items are reported with [itemChanged] by course handlers and by file events on study item directories
+ * and task files. Entries of changed tasks, of their dependent tasks and of tasks with unresolved dependencies
+ * are updated in place on the next lookup, so other file events and task status changes don't cost anything.
+ *
+ * Tasks have content based `equals`, so all maps and sets here are identity based.
+ */
+class PlaceholderDependencyIndex(private val project: Project) {
+
+  private var course: Course? = null
+  @Volatile
+  private var isUpToDate: Boolean = false
+  private val changedTasks = ConcurrentLinkedQueue<Task>()
+  private var resolvedPlaceholders: MutableMap<AnswerPlaceholderDependency, AnswerPlaceholder> = IdentityHashMap()
+  private var dependentTasks: MutableMap<Task, MutableSet<Task>> = IdentityHashMap()
+  // dependencies of indexed tasks as they were resolved, they are needed to remove entries of changed tasks
+  private var taskDependencies: MutableMap<Task, List<AnswerPlaceholderDependency>> = IdentityHashMap()
+  private var tasksWithUnresolvedDependencies: MutableSet<Task> = identitySet()
+
+  @get:TestOnly
+  internal var rebuildCount: Int = 0
+    private set
+
+  init {
+    val connection = project.messageBus.connect(project)
+    connection.subscribe(StudyTaskManager.COURSE_SET, object : CourseSetListener {
+      override fun courseSet(course: Course) = invalidate()
+    })
+    connection.subscribe(VirtualFileManager.VFS_CHANGES, object : BulkFileListener {
+      // deleted files and old locations of moved and renamed files can be mapped to study items only before the change
+      override fun before(events: List<VFileEvent>) {
+        for (event in events) {
+          if (event is VFileDeleteEvent || event is VFileMoveEvent || event.isRename) {
+            event.file?.let { fileChanged(it) }
+          }
+        }
+      }
+
+      override fun after(events: List<VFileEvent>) {
+        for (event in events) {
+          if (event is VFileCreateEvent || event is VFileCopyEvent || event is VFileMoveEvent || event.isRename) {
+            event.file?.let { fileChanged(it) }
+          }
+        }
+      }
+    })
+  }
+
+  /**
+   * Drops the whole index, should be called when course is replaced
+   */
+  fun invalidate() {
+    isUpToDate = false
+  }
+
+  /**
+   * Should be called after change of [item] which can affect resolution of dependencies:
+   * change of its name or position, its placeholders, task files or dependencies.
+   * Entries of all tasks of [item] are updated on the next lookup.
+   */
+  fun itemChanged(item: StudyItem) {
+    when (item) {
+      is Task -> changedTasks += item
+      is ItemContainer -> item.visitLessons { lesson -> changedTasks += lesson.taskList; true }
+      is Lesson -> changedTasks += item.taskList
+    }
+  }
+
+  @Synchronized
+  fun resolve(dependency: AnswerPlaceholderDependency): AnswerPlaceholder? {
+    val course = dependency.answerPlaceholder?.taskFile?.task?.course ?: return null
+    ensureUpToDate(course)
+    return resolvedPlaceholders[dependency]
+  }
+
+  @Synchronized
+  fun getDependentTasks(task: Task): Set<Task> {
+    ensureUpToDate(task.course)
+    return identitySet(dependentTasks[task].orEmpty())
+  }
+
+  @Synchronized
+  fun getUnsolvedTaskDependencies(task: Task): List<Task> {
+    ensureUpToDate(task.course)
+    val result = ArrayList<Task>()
+    for (dependency in task.placeholderDependencies) {
+      val dependencyTask = resolvedPlaceholders[dependency]?.taskFile?.task ?: continue
+      if (dependencyTask.status != CheckStatus.Solved && result.none { it === dependencyTask }) {
+        result += dependencyTask
+      }
+    }
+    return result
+  }
+
+  private fun fileChanged(file: VirtualFile) {
+    val info = file.fileInfo(project) ?: return
+    when (info) {
+      is FileInfo.SectionDirectory -> itemChanged(info.section)
+      is FileInfo.LessonDirectory -> itemChanged(info.lesson)
+      is FileInfo.TaskDirectory -> itemChanged(info.task)
+      // placeholders are located only in task files
+      is FileInfo.FileInTask -> if (info.kind == FileKind.TASK_FILE) itemChanged(info.task)
+    }
+  }
+
+  private fun ensureUpToDate(course: Course) {
+    if (course === this.course && isUpToDate) {
+      updateChangedTasks(course)
+      return
+    }
+    // set before rebuild, so changes made concurrently with it invalidate the result
+    isUpToDate = true
+    changedTasks.clear()
+    rebuildCount++
+
+    resolvedPlaceholders = IdentityHashMap()
+    dependentTasks = IdentityHashMap()
+    taskDependencies = IdentityHashMap()
+    tasksWithUnresolvedDependencies = identitySet()
+    this.course = course
+    course.visitLessons { lesson ->
+      lesson.taskList.forEach { addEntries(course, it) }
+      true
+    }
+  }
+
+  private fun updateChangedTasks(course: Course) {
+    if (changedTasks.isEmpty()) return
+    val tasks = identitySet<Task>()
+    while (true) {
+      val task = changedTasks.poll() ?: break
+      tasks += task
+      // dependencies of these tasks could refer to old names or positions of changed task
+      tasks += dependentTasks[task].orEmpty()
+    }
+    // and these ones could refer to new names or positions
+    tasks += tasksWithUnresolvedDependencies
+
+    tasks.forEach { removeEntries(it) }
+    for (task in tasks) {
+      if (course.contains(task)) {
+        addEntries(course, task)
+      }
+      else {
+        dependentTasks.remove(task)
+      }
+    }
+  }
+
+  private fun addEntries(course: Course, task: Task) {
+    val dependencies = task.placeholderDependencies
+    if (dependencies.isEmpty()) return
+    taskDependencies[task] = dependencies
+    for (dependency in dependencies) {
+      val placeholder = dependency.resolve(course)
+      if (placeholder == null) {
+        tasksWithUnresolvedDependencies += task
+        continue
+      }
+      resolvedPlaceholders[dependency] = placeholder
+      dependentTasks.getOrPut(placeholder.taskFile.task) { identitySet() } += task
+    }
+  }
+
+  private fun removeEntries(task: Task) {
+    tasksWithUnresolvedDependencies -= task
+    val dependencies = taskDependencies.remove(task) ?: return
+    for (dependency in dependencies) {
+      val dependencyTask = resolvedPlaceholders.remove(dependency)?.taskFile?.task ?: continue
+      dependentTasks[dependencyTask]?.remove(task)
+    }
+  }
+
+  companion object {
+    @JvmStatic
+    fun getInstance(project: Project): PlaceholderDependencyIndex =
+      ServiceManager.getService(project, PlaceholderDependencyIndex::class.java)
+
+    private val VFileEvent.isRename: Boolean
+      get() = this is VFilePropertyChangeEvent && propertyName == VirtualFile.PROP_NAME
+
+    private fun Course.contains(task: Task): Boolean {
+      val lesson = task.lesson ?: return false
+      return getLesson(lesson.section?.name, lesson.name) === lesson && lesson.getTask(task.name) === task
+    }
+
+    private fun <T> identitySet(elements: Collection<T> = emptyList()): MutableSet<T> =
+      Collections.newSetFromMap(IdentityHashMap<T, Boolean>()).apply { addAll(elements) }
+  }
+}
@@ -78,8 +78,7 @@ object PlaceholderDependencyManager {
   }
 
   private fun getReplacementText(project: Project, dependency: AnswerPlaceholderDependency): String {
-    val course = dependency.answerPlaceholder.taskFile.task.course
-    val dependencyPlaceholder = dependency.resolve(course)!!
+    val dependencyPlaceholder = PlaceholderDependencyIndex.getInstance(project).resolve(dependency)!!
     val dependencyTask = dependencyPlaceholder.taskFile.task
     val dependencyLesson = dependencyTask.lesson
     return if (dependencyLesson is FrameworkLesson && dependencyLesson.currentTaskIndex != dependencyTask.index - 1) {
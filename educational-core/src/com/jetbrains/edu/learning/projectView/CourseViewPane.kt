@@ -30,6 +30,7 @@ import com.intellij.ide.util.treeView.AbstractTreeBuilder
 import com.intellij.ide.util.treeView.AbstractTreeNode
 import com.intellij.ide.util.treeView.AbstractTreeUpdater
 import com.intellij.openapi.actionSystem.*
+import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.progress.util.ColorProgressBar
 import com.intellij.openapi.project.DumbAware
@@ -38,6 +39,7 @@ import com.intellij.ui.Gray
 import com.intellij.ui.JBColor
 import com.intellij.ui.ScrollPaneFactory
 import com.intellij.util.ArrayUtil
+import com.intellij.util.containers.ContainerUtil
 import com.intellij.util.ui.UIUtil
 import com.jetbrains.edu.coursecreator.CCStudyItemDeleteProvider
 import com.jetbrains.edu.coursecreator.CCUtils
@@ -47,18 +49,24 @@ import com.jetbrains.edu.coursecreator.projectView.CCTaskNode
 import com.jetbrains.edu.learning.CourseSetListener
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.TaskStatusListener
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.Lesson
 import com.jetbrains.edu.learning.courseFormat.StudyItem
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import icons.EducationalCoreIcons
 import org.jetbrains.annotations.NonNls
 import org.jetbrains.annotations.TestOnly
 import java.awt.BorderLayout
 import java.awt.Color
+import java.util.concurrent.atomic.AtomicBoolean
 import javax.swing.Icon
 import javax.swing.JComponent
 import javax.swing.JPanel
 import javax.swing.JProgressBar
 import javax.swing.border.EmptyBorder
+import javax.swing.tree.DefaultMutableTreeNode
 import javax.swing.tree.DefaultTreeModel
 
 class CourseViewPane(project: Project) : AbstractProjectViewPSIPane(project) {
@@ -66,6 +74,9 @@ class CourseViewPane(project: Project) : AbstractProjectViewPSIPane(project) {
   private val myStudyItemDeleteProvider = CCStudyItemDeleteProvider()
 
   private lateinit var progressBar: JProgressBar
+  // status of many tasks can be changed at once (e.g. while loading solutions), so nodes and progress bar are updated once for all of them
+  private val tasksToUpdate = ContainerUtil.newConcurrentSet<Task>()
+  private val updateScheduled = AtomicBoolean()
 
   override fun createTree(treeModel: DefaultTreeModel): ProjectViewTree {
     return object : ProjectViewTree(myProject, treeModel) {
@@ -76,6 +87,22 @@ class CourseViewPane(project: Project) : AbstractProjectViewPSIPane(project) {
   override fun createComponent(): JComponent {
     val component = super.createComponent()
     installComparator(EduNodeComparator)
+    ApplicationManager.getApplication().messageBus.connect(this).subscribe(Task.STATUS_CHANGED, object : TaskStatusListener {
+      override fun statusChanged(task: Task, oldStatus: CheckStatus, newStatus: CheckStatus) {
+        if (task.lesson?.course != StudyTaskManager.getInstance(myProject).course) return
+        tasksToUpdate.add(task)
+        if (!updateScheduled.compareAndSet(false, true)) return
+        ApplicationManager.getApplication().invokeLater({
+          updateScheduled.set(false)
+          val tasks = HashSet(tasksToUpdate)
+          tasksToUpdate.removeAll(tasks)
+          updateTaskNodes(tasks)
+          if (::progressBar.isInitialized) {
+            updateCourseProgress()
+          }
+        }, myProject.disposed)
+      }
+    })
 
     if (!EduUtils.isStudentProject(myProject)) return component
     val panel = JPanel(BorderLayout())
@@ -97,6 +124,38 @@ class CourseViewPane(project: Project) : AbstractProjectViewPSIPane(project) {
     return ScrollPaneFactory.createScrollPane(panel)
   }
 
+  /**
+   * Updates presentation of nodes of [tasks] and their ancestors instead of refreshing the whole tree.
+   * Only already built nodes are visited, children of collapsed nodes are built lazily with actual presentation anyway
+   */
+  private fun updateTaskNodes(tasks: Set<Task>) {
+    val model = tree?.model as? DefaultTreeModel ?: return
+    val root = model.root as? DefaultMutableTreeNode ?: return
+    val lessons = tasks.mapNotNullTo(HashSet()) { it.lesson }
+    updateAffectedNodes(model, root, tasks, lessons)
+  }
+
+  private fun updateAffectedNodes(model: DefaultTreeModel, parent: DefaultMutableTreeNode, tasks: Set<Task>, lessons: Set<Lesson>) {
+    for (i in 0 until parent.childCount) {
+      val child = parent.getChildAt(i) as? DefaultMutableTreeNode ?: continue
+      val node = child.userObject as? AbstractTreeNode<*> ?: continue
+      val isAffected = when (node) {
+        is CourseNode -> true
+        is SectionNode -> node.section.lessons.any { it in lessons }
+        is LessonNode -> node.lesson in lessons
+        is TaskNode -> node.task in tasks
+        else -> false
+      }
+      if (!isAffected) continue
+      if (node.update()) {
+        model.nodeChanged(child)
+      }
+      if (node !is TaskNode) {
+        updateAffectedNodes(model, child, tasks, lessons)
+      }
+    }
+  }
+
   private fun createProgressPanel(): JPanel {
     val panel = JPanel(BorderLayout())
 
@@ -48,7 +48,8 @@ object CourseViewUtils {
     if (sourceDirName.isNullOrEmpty()) {
       return baseDir
     }
-    val isCourseCreatorGradleProject = EduGradleUtils.isConfiguredWithGradle(project) && CCUtils.isCourseCreator(project)
+    // `isConfiguredWithGradle` checks file on disk, so it's called only for course creator projects
+    val isCourseCreatorGradleProject = CCUtils.isCourseCreator(project) && EduGradleUtils.isConfiguredWithGradle(project)
     if (isCourseCreatorGradleProject) {
       return baseDir
     }
@@ -0,0 +1,159 @@
+package com.jetbrains.edu.learning.statistics
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.diagnostic.Logger
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * In-memory metrics of plugin operations: timers, counters and histograms identified by names like `stepik.http.GET`.
+ *
+ * Metrics are collected in internal mode or with `-Dedu.metrics.enabled=true`. Otherwise every method returns
+ * right after checking [isEnabled], and [startTimer] returns shared no-op timer, so instrumentation can stay in hot paths.
+ * Collected values can be seen with `Educational.DumpMetrics` internal action.
+ * With debug log enabled for this class every timed operation is also written to log.
+ */
+object EduMetrics {
+  private val LOG: Logger = Logger.getInstance(EduMetrics::class.java)
+
+  const val ENABLED_PROPERTY = "edu.metrics.enabled"
+
+  @JvmStatic
+  @Volatile
+  var isEnabled: Boolean = System.getProperty(ENABLED_PROPERTY)?.toBoolean() ?: (ApplicationManager.getApplication()?.isInternal == true)
+
+  /** Durations in microseconds */
+  private val timers = ConcurrentHashMap<String, Histogram>()
+  private val counters = ConcurrentHashMap<String, LongAdder>()
+  private val histograms = ConcurrentHashMap<String, Histogram>()
+
+  @JvmStatic
+  fun startTimer(name: String): Timer = if (isEnabled) Timer(name, System.nanoTime()) else Timer.DISABLED
+
+  inline fun <T> time(name: String, action: () -> T): T {
+    val timer = startTimer(name)
+    try {
+      return action()
+    }
+    finally {
+      timer.stop()
+    }
+  }
+
+  @JvmStatic
+  fun increment(name: String) = add(name, 1)
+
+  @JvmStatic
+  fun add(name: String, delta: Long) {
+    if (!isEnabled) return
+    counters.computeIfAbsent(name) { LongAdder() }.add(delta)
+  }
+
+  @JvmStatic
+  fun record(name: String, value: Long) {
+    if (!isEnabled) return
+    histograms.computeIfAbsent(name) { Histogram() }.record(value)
+  }
+
+  @JvmStatic
+  fun reset() {
+    timers.clear()
+    counters.clear()
+    histograms.clear()
+  }
+
+  /**
+   * Human readable table of all collected values
+   */
+  @JvmStatic
+  fun snapshot(): String {
+    val result = StringBuilder()
+    if (timers.isNotEmpty()) {
+      result.appendHistograms("Timers, ms", timers) { String.format("%.1f", it / 1000.0) }
+    }
+    if (counters.isNotEmpty()) {
+      result.append("Counters\n")
+      for ((name, counter) in counters.toSortedMap()) {
+        result.append(String.format("  %-50s %10d\n", name, counter.sum()))
+      }
+    }
+    if (histograms.isNotEmpty()) {
+      result.appendHistograms("Histograms", histograms) { it.toString() }
+    }
+    return if (result.isEmpty()) "No metrics collected" else result.toString()
+  }
+
+  private fun StringBuilder.appendHistograms(title: String, histograms: Map<String, Histogram>, format: (Long) -> String) {
+    append(String.format("%s\n  %-50s %8s %10s %10s %10s %10s %10s\n", title, "", "count", "mean", "p50", "p90", "p99", "max"))
+    for ((name, histogram) in histograms.toSortedMap()) {
+      val count = histogram.count
+      if (count == 0L) continue
+      append(String.format("  %-50s %8d %10s %10s %10s %10s %10s\n", name, count, format(histogram.sum / count),
+                           format(histogram.percentile(0.5)), format(histogram.percentile(0.9)),
+                           format(histogram.percentile(0.99)), format(histogram.max)))
+    }
+  }
+
+  private fun recordDuration(name: String, durationNs: Long) {
+    if (!isEnabled) return
+    val durationUs = TimeUnit.NANOSECONDS.toMicros(durationNs)
+    timers.computeIfAbsent(name) { Histogram() }.record(durationUs)
+    if (LOG.isDebugEnabled) {
+      LOG.debug("$name took ${durationUs / 1000.0} ms")
+    }
+  }
+
+  class Timer internal constructor(private val name: String?, private val startNs: Long) {
+    fun stop() {
+      if (name != null) {
+        recordDuration(name, System.nanoTime() - startNs)
+      }
+    }
+
+    companion object {
+      internal val DISABLED = Timer(null, 0)
+    }
+  }
+
+  /**
+   * Histogram of non-negative values with power of two buckets, so percentiles are precise up to a factor of two
+   */
+  private class Histogram {
+    // value `v` goes to bucket `64 - numberOfLeadingZeros(v)`, i.e. bucket `i > 0` holds values from `2^(i-1)` to `2^i - 1`
+    private val buckets = AtomicLongArray(65)
+    private val counter = LongAdder()
+    private val total = LongAdder()
+    private val maxValue = AtomicLong()
+
+    val count: Long get() = counter.sum()
+    val sum: Long get() = total.sum()
+    val max: Long get() = maxValue.get()
+
+    fun record(value: Long) {
+      val nonNegative = maxOf(value, 0L)
+      buckets.incrementAndGet(64 - java.lang.Long.numberOfLeadingZeros(nonNegative))
+      counter.increment()
+      total.add(nonNegative)
+      maxValue.accumulateAndGet(nonNegative) { current, new -> maxOf(current, new) }
+    }
+
+    /**
+     * @return upper bound of bucket which contains [fraction] percentile, but not more than max recorded value
+     */
+    fun percentile(fraction: Double): Long {
+      val threshold = Math.ceil(count * fraction).toLong()
+      var accumulated = 0L
+      for (i in 0 until buckets.length()) {
+        accumulated += buckets.get(i)
+        if (accumulated >= threshold) {
+          val upperBound = if (i == 0) 0L else if (i >= 63) Long.MAX_VALUE else (1L shl i) - 1
+          return minOf(upperBound, max)
+        }
+      }
+      return max
+    }
+  }
+}
@@ -16,29 +16,55 @@ import org.jetbrains.annotations.Nullable;
 )
 public class EduStatistics implements PersistentStateComponent<Element> {
   private static final String DESCRIPTORS = "descriptors";
-  private TObjectIntHashMap<String> myUsageDescriptors = new TObjectIntHashMap<>();
+  private final TObjectIntHashMap<String> myUsageDescriptors = new TObjectIntHashMap<>();
 
   @Nullable
   @Override
   public Element getState() {
+    EduUsagesCollector.flush();
     Element descriptors = new Element(DESCRIPTORS);
-    myUsageDescriptors.forEachEntry((a, b) -> {
-      SerializationUtils.Xml.addChildWithName(descriptors, a, b);
-      return true;
-    });
+    synchronized (myUsageDescriptors) {
+      myUsageDescriptors.forEachEntry((a, b) -> {
+        SerializationUtils.Xml.addChildWithName(descriptors, a, b);
+        return true;
+      });
+    }
     return descriptors;
   }
 
   @Override
   public void loadState(@NotNull Element state) {
-    for (Element element : state.getChildren()) {
-      String key = element.getAttributeValue(SerializationUtils.Xml.NAME);
-      Integer value = Integer.valueOf(element.getAttributeValue(SerializationUtils.Xml.VALUE));
-      myUsageDescriptors.put(key, value);
+    synchronized (myUsageDescriptors) {
+      for (Element element : state.getChildren()) {
+        String key = element.getAttributeValue(SerializationUtils.Xml.NAME);
+        Integer value = Integer.valueOf(element.getAttributeValue(SerializationUtils.Xml.VALUE));
+        myUsageDescriptors.put(key, value);
+      }
     }
   }
 
-  public TObjectIntHashMap<String> getUsageDescriptors() {
-    return myUsageDescriptors;
+  public void addUsages(@NotNull TObjectIntHashMap<String> usages) {
+    synchronized (myUsageDescriptors) {
+      usages.forEachEntry((key, value) -> {
+        myUsageDescriptors.adjustOrPutValue(key, value, value);
+        return true;
+      });
+    }
+  }
+
+  /**
+   * @return collected usages, which are removed from this component
+   */
+  @NotNull
+  public TObjectIntHashMap<String> drainUsages() {
+    synchronized (myUsageDescriptors) {
+      TObjectIntHashMap<String> usages = new TObjectIntHashMap<>();
+      myUsageDescriptors.forEachEntry((key, value) -> {
+        usages.put(key, value);
+        return true;
+      });
+      myUsageDescriptors.clear();
+      return usages;
+    }
   }
 }
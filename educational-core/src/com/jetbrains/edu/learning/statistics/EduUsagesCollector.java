@@ -17,17 +17,37 @@ package com.jetbrains.edu.learning.statistics;
 
 import com.intellij.internal.statistic.beans.UsageDescriptor;
 import com.intellij.internal.statistic.service.fus.collectors.ProjectUsagesCollector;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.containers.hash.HashSet;
 import gnu.trove.TObjectIntHashMap;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Queue;
 import java.util.Set;
-
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Usage events are put into lock-free queue by the calling thread and aggregated into {@link EduStatistics}
+ * in batches on background thread, so reporting never delays actions (e.g. check completion) on EDT.
+ */
 public class EduUsagesCollector extends ProjectUsagesCollector {
   public static final String GROUP_ID = "statistics.educational";
 
+  private static final long FLUSH_DELAY_MS = 1000;
+  // events over this limit are dropped until the next flush
+  private static final int MAX_PENDING_EVENTS = 10_000;
+
+  private static final Queue<String> ourPendingEvents = new ConcurrentLinkedQueue<>();
+  private static final AtomicInteger ourPendingCount = new AtomicInteger();
+  private static final AtomicBoolean ourFlushScheduled = new AtomicBoolean();
+
   public static void projectTypeCreated(@NotNull String projectTypeId) {
     advanceKey("project.created." + projectTypeId);
   }
@@ -104,12 +124,12 @@ public class EduUsagesCollector extends ProjectUsagesCollector {
 
   @NotNull
   static Set<UsageDescriptor> collectUsages() {
+    flush();
     HashSet<UsageDescriptor> descriptors = new HashSet<>();
-    getDescriptors().forEachEntry((key, value) -> {
+    getStatistics().drainUsages().forEachEntry((key, value) -> {
       descriptors.add(new UsageDescriptor(key, value));
       return true;
     });
-    getDescriptors().clear();
     return descriptors;
   }
 
@@ -120,12 +140,34 @@ public class EduUsagesCollector extends ProjectUsagesCollector {
   }
 
   private static void advanceKey(@NotNull String key) {
-    TObjectIntHashMap<String> descriptors = getDescriptors();
-    int oldValue = descriptors.get(key);
-    descriptors.put(key, oldValue + 1);
-  }
-
-  private static TObjectIntHashMap<String> getDescriptors() {
-    return ServiceManager.getService(EduStatistics.class).getUsageDescriptors();
+    if (ourPendingCount.incrementAndGet() > MAX_PENDING_EVENTS) {
+      ourPendingCount.decrementAndGet();
+      return;
+    }
+    ourPendingEvents.add(key);
+    if (ourFlushScheduled.compareAndSet(false, true)) {
+      AppExecutorUtil.getAppScheduledExecutorService().schedule(EduUsagesCollector::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Aggregates pending usage events into {@link EduStatistics}
+   */
+  static void flush() {
+    ourFlushScheduled.set(false);
+    TObjectIntHashMap<String> batch = new TObjectIntHashMap<>();
+    String key;
+    while ((key = ourPendingEvents.poll()) != null) {
+      ourPendingCount.decrementAndGet();
+      batch.adjustOrPutValue(key, 1, 1);
+    }
+    if (batch.isEmpty()) return;
+    Application application = ApplicationManager.getApplication();
+    if (application == null || application.isDisposed()) return;
+    getStatistics().addUsages(batch);
+  }
+
+  private static EduStatistics getStatistics() {
+    return ServiceManager.getService(EduStatistics.class);
   }
 }
@@ -3,21 +3,22 @@ package com.jetbrains.edu.learning.statistics
 import com.intellij.openapi.project.Project
 import com.jetbrains.edu.learning.checker.CheckListener
 import com.jetbrains.edu.learning.checker.CheckResult
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
-import com.jetbrains.edu.learning.projectView.ProgressUtil
 
 
 class PostFeedbackCheckListener : CheckListener {
   override fun afterCheck(project: Project, task: Task, result: CheckResult) {
-    if (isFeedbackAsked()) {
+    // number of solved tasks changes only when task is solved
+    if (result.status != CheckStatus.Solved || isFeedbackAsked()) {
       return
     }
 
     val lesson = task.lesson
     val course = lesson.course
 
-    val progress = ProgressUtil.countProgress(course)
-    val solvedTasks = progress.first
+    // cached lesson counters are summed up, tasks aren't visited
+    val solvedTasks = course.solvedTasksCount
     if (solvedTasks == lesson.taskList.size) {
       showNotification(true, course, project)
     }
@@ -13,9 +13,12 @@ import org.apache.http.*;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -27,8 +30,12 @@ import java.util.Map;
 
 public class StepikAuthorizedClient {
   private static final Logger LOG = Logger.getInstance(StepikAuthorizedClient.class.getName());
+  private static final String AUTHORIZATION_HEADER = "Authorization";
 
+  // The client is created once and is never rebuilt, so all callers share the same connection pool.
+  // Authorized clients are lightweight wrappers around it, each of them adds Authorization header with its own token
   private static CloseableHttpClient ourClient;
+  private static final Object ourTokensLock = new Object();
 
   private StepikAuthorizedClient() {
   }
@@ -36,23 +43,15 @@ public class StepikAuthorizedClient {
   @Nullable
   public static CloseableHttpClient getHttpClient() {
     StepikUser user = EduSettings.getInstance().getUser();
-
-    final boolean isUpToDate = user == null || user.getTokenInfo().isUpToDate();
-    if (ourClient != null && isUpToDate) {
-      return ourClient;
-    }
-
     if (user == null) {
-       return null;
+      return null;
     }
 
-    if (!isUpToDate && !updateTokens(user)) {
+    if (!ensureTokensUpToDate(user)) {
       return null;
     }
 
-    ourClient = createInitializedClient(user.getAccessToken());
-
-    return ourClient;
+    return getClient(user.getAccessToken());
   }
 
   @Nullable
@@ -75,27 +74,33 @@ public class StepikAuthorizedClient {
    */
   @NotNull
   public static CloseableHttpClient getHttpClient(@NotNull final StepikUser user) {
-    final boolean isUpToDate = user.getTokenInfo().isUpToDate();
-
-    if (ourClient != null && isUpToDate) {
-      return ourClient;
-    }
-
-    if (!isUpToDate && !updateTokens(user)) {
+    if (!ensureTokensUpToDate(user)) {
       return StepikClient.getHttpClient();
     }
 
-    ourClient = createInitializedClient(user.getAccessToken());
-    return ourClient;
+    return getClient(user.getAccessToken());
   }
 
-  private static boolean updateTokens(@NotNull StepikUser user) {
-    TokenInfo tokenInfo = getUpdatedTokens(user.getRefreshToken());
-    if (tokenInfo != null) {
-      user.setTokenInfo(tokenInfo);
+  /**
+   * Refreshes tokens of {@code user} if they are expired.
+   * Only one refresh is performed at a time: concurrent callers wait for it and reuse its result
+   * instead of sending the same refresh token again.
+   */
+  private static boolean ensureTokensUpToDate(@NotNull StepikUser user) {
+    if (user.getTokenInfo().isUpToDate()) {
       return true;
     }
-    return false;
+    synchronized (ourTokensLock) {
+      if (user.getTokenInfo().isUpToDate()) {
+        return true;
+      }
+      TokenInfo tokenInfo = getUpdatedTokens(user.getRefreshToken());
+      if (tokenInfo != null) {
+        user.setTokenInfo(tokenInfo);
+        return true;
+      }
+      return false;
+    }
   }
 
   /*
@@ -112,16 +117,25 @@ public class StepikAuthorizedClient {
   }
 
   @NotNull
-  private static CloseableHttpClient createInitializedClient(@NotNull String accessToken) {
-    final List<BasicHeader> headers = new ArrayList<>();
-    headers.add(getAuthorizationHeader(accessToken));
-    headers.add(new BasicHeader("Content-type", StepikNames.CONTENT_TYPE_APP_JSON));
-    return StepikClient.getBuilder().setDefaultHeaders(headers).build();
+  private static CloseableHttpClient getClient(@NotNull String accessToken) {
+    return new AuthorizedHttpClient(getSharedClient(), accessToken);
+  }
+
+  @NotNull
+  private static synchronized CloseableHttpClient getSharedClient() {
+    if (ourClient == null) {
+      final List<BasicHeader> headers = new ArrayList<>();
+      headers.add(new BasicHeader("Content-type", StepikNames.CONTENT_TYPE_APP_JSON));
+      ourClient = StepikClient.getBuilder()
+        .setDefaultHeaders(headers)
+        .build();
+    }
+    return ourClient;
   }
 
   @NotNull
   public static BasicHeader getAuthorizationHeader(@NotNull String accessToken) {
-    return new BasicHeader("Authorization", "Bearer " + accessToken);
+    return new BasicHeader(AUTHORIZATION_HEADER, "Bearer " + accessToken);
   }
 
   @Nullable
@@ -142,19 +156,14 @@ public class StepikAuthorizedClient {
 
   public static StepikUser login(@NotNull TokenInfo tokenInfo) {
     final StepikUser user = new StepikUser(tokenInfo);
-    ourClient = createInitializedClient(user.getAccessToken());
 
-    final StepikUserInfo currentUser = getCurrentUser();
+    final StepikUserInfo currentUser = getCurrentUser(getClient(user.getAccessToken()));
     if (currentUser != null) {
       user.setUserInfo(currentUser);
     }
     return user;
   }
 
-  public static void invalidateClient() {
-    ourClient = null;
-  }
-
   @Nullable
   private static TokenInfo getUpdatedTokens(@NotNull final String refreshToken) {
     final List<NameValuePair> parameters = new ArrayList<>();
@@ -169,19 +178,22 @@ public class StepikAuthorizedClient {
   @Nullable
   public static StepikUserInfo getCurrentUser() {
     CloseableHttpClient client = getHttpClient();
-    if (client != null) {
-      try {
-        final StepikWrappers.AuthorWrapper wrapper = StepikClient.getFromStepik(StepikNames.CURRENT_USER,
-                                                                                   StepikWrappers.AuthorWrapper.class,
-                                                                                   client);
-        if (wrapper != null && !wrapper.users.isEmpty()) {
-          return wrapper.users.get(0);
-        }
-      }
-      catch (IOException e) {
-        LOG.warn("Couldn't get a current user");
+    return client == null ? null : getCurrentUser(client);
+  }
+
+  @Nullable
+  private static StepikUserInfo getCurrentUser(@NotNull CloseableHttpClient client) {
+    try {
+      final StepikWrappers.AuthorWrapper wrapper = StepikClient.getFromStepik(StepikNames.CURRENT_USER,
+                                                                                 StepikWrappers.AuthorWrapper.class,
+                                                                                 client);
+      if (wrapper != null && !wrapper.users.isEmpty()) {
+        return wrapper.users.get(0);
       }
     }
+    catch (IOException e) {
+      LOG.warn("Couldn't get a current user");
+    }
     return null;
   }
 
@@ -195,7 +207,7 @@ public class StepikAuthorizedClient {
     final HttpPost request = new HttpPost(StepikNames.TOKEN_URL);
 
     if (credentials != null) {
-      request.addHeader("Authorization", "Basic " + Base64.encodeBase64String(credentials.getBytes(Consts.UTF_8)));
+      request.addHeader(AUTHORIZATION_HEADER, "Basic " + Base64.encodeBase64String(credentials.getBytes(Consts.UTF_8)));
     }
     request.setEntity(new UrlEncodedFormEntity(parameters, Consts.UTF_8));
 
@@ -223,4 +235,43 @@ public class StepikAuthorizedClient {
   public static TokenInfo getTokens(@NotNull final List<NameValuePair> parameters) {
     return getTokens(parameters, null);
   }
+
+  /**
+   * Sends requests through the shared client adding Authorization header with its own access token,
+   * so clients of different users can be used concurrently.
+   * Closing it doesn't close the shared client.
+   */
+  private static class AuthorizedHttpClient extends CloseableHttpClient {
+    private final CloseableHttpClient myClient;
+    private final String myAccessToken;
+
+    AuthorizedHttpClient(@NotNull CloseableHttpClient client, @NotNull String accessToken) {
+      myClient = client;
+      myAccessToken = accessToken;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+      if (!request.containsHeader(AUTHORIZATION_HEADER)) {
+        request.addHeader(getAuthorizationHeader(myAccessToken));
+      }
+      return myClient.execute(target, request, context);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public HttpParams getParams() {
+      return myClient.getParams();
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public ClientConnectionManager getConnectionManager() {
+      return myClient.getConnectionManager();
+    }
+  }
 }
@@ -17,7 +17,6 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.utils.URIBuilder;
@@ -34,7 +33,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
 
 public class StepikCheckerConnector {
   public static final String EDU_TOOLS_COMMENT = " Posted from EduTools plugin\n";
@@ -79,7 +78,7 @@ public class StepikCheckerConnector {
     return attempt == null ? null : attempt.attempts;
   }
 
-  private static void setTimeout(HttpRequestBase request) {
+  static void setTimeout(HttpRequestBase request) {
     final RequestConfig requestConfig = RequestConfig.custom()
       .setConnectionRequestTimeout(CONNECTION_TIMEOUT)
       .setConnectTimeout(CONNECTION_TIMEOUT)
@@ -168,7 +167,14 @@ public class StepikCheckerConnector {
     if (client != null) {
       StepikWrappers.ResultSubmissionWrapper wrapper = postResultsForCheck(client, submission);
       if (wrapper != null) {
-        wrapper = getCheckResults(client, wrapper, attemptId, userId);
+        try {
+          // cancellation of the wait stops tracking of submission
+          wrapper = EduUtils.waitForFuture(StepikSubmissionTracker.track(client, wrapper, attemptId, userId), null);
+        }
+        catch (InterruptedException | ExecutionException e) {
+          LOG.warn(e.getMessage());
+          return CheckResult.FAILED_TO_CHECK;
+        }
         if (wrapper.submissions.length > 0) {
           final String status = wrapper.submissions[0].status;
           final String hint = wrapper.submissions[0].hint;
@@ -216,34 +222,6 @@ public class StepikCheckerConnector {
     return null;
   }
 
-  @NotNull
-  private static StepikWrappers.ResultSubmissionWrapper getCheckResults(@NotNull CloseableHttpClient client,
-                                                                        @NotNull StepikWrappers.ResultSubmissionWrapper wrapper,
-                                                                        int attemptId,
-                                                                        int userId) {
-    try {
-      while (wrapper.submissions.length == 1 && wrapper.submissions[0].status.equals("evaluation")) {
-        TimeUnit.MILLISECONDS.sleep(500);
-        final URI submissionURI = new URIBuilder(StepikNames.STEPIK_API_URL + StepikNames.SUBMISSIONS)
-          .addParameter("attempt", String.valueOf(attemptId))
-          .addParameter("order", "desc")
-          .addParameter("user", String.valueOf(userId))
-          .build();
-        final HttpGet httpGet = new HttpGet(submissionURI);
-        setTimeout(httpGet);
-        final CloseableHttpResponse httpResponse = client.execute(httpGet);
-        final HttpEntity entity = httpResponse.getEntity();
-        final String entityString = EntityUtils.toString(entity);
-        EntityUtils.consume(entity);
-        wrapper = new Gson().fromJson(entityString, StepikWrappers.ResultSubmissionWrapper.class);
-      }
-    }
-    catch (InterruptedException | URISyntaxException | IOException e) {
-      LOG.warn(e.getMessage());
-    }
-    return wrapper;
-  }
-
   private static int getAttemptId(@NotNull Task task) throws IOException {
     final StepikWrappers.AttemptWrapper attemptWrapper = new StepikWrappers.AttemptWrapper(task.getStepId());
 
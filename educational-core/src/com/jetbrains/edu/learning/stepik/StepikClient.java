@@ -12,11 +12,14 @@ import com.intellij.util.net.ssl.ConfirmingTrustManager;
 import com.jetbrains.edu.learning.EduNames;
 import com.jetbrains.edu.learning.PluginUtils;
 import com.jetbrains.edu.learning.courseFormat.Lesson;
+import com.jetbrains.edu.learning.statistics.EduMetrics;
 import com.jetbrains.edu.learning.stepik.serialization.StepikLessonAdapter;
 import com.jetbrains.edu.learning.stepik.serialization.StepikReplyAdapter;
 import com.jetbrains.edu.learning.stepik.serialization.StepikStepOptionsAdapter;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
 import org.apache.http.client.config.RequestConfig;
@@ -46,6 +49,10 @@ public class StepikClient {
   private static final Logger LOG = Logger.getInstance(StepikClient.class.getName());
   private static CloseableHttpClient ourClient;
   private static final int TIMEOUT_SECONDS = 10;
+  // all requests go to the same host, so per route limit is the actual limit of simultaneous requests
+  private static final int MAX_CONNECTIONS_PER_ROUTE = 16;
+  private static final int MAX_CONNECTIONS_TOTAL = 32;
+  private static final String REQUEST_TIMER_ATTRIBUTE = "edu.request.timer";
 
   private StepikClient() {
   }
@@ -124,7 +131,7 @@ public class StepikClient {
   @NotNull
   public static HttpClientBuilder getBuilder() {
     final HttpClientBuilder builder = HttpClients.custom().setSSLContext(CertificateManager.getInstance().getSslContext()).
-      setMaxConnPerRoute(100000).setConnectionReuseStrategy(DefaultConnectionReuseStrategy.INSTANCE).setUserAgent(getUserAgent());
+      setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE).setMaxConnTotal(MAX_CONNECTIONS_TOTAL).setConnectionReuseStrategy(DefaultConnectionReuseStrategy.INSTANCE).setUserAgent(getUserAgent());
 
     final HttpConfigurable proxyConfigurable = HttpConfigurable.getInstance();
     final List<Proxy> proxies = proxyConfigurable.getOnlyBySettingsSelector().select(URI.create(StepikNames.STEPIK_URL));
@@ -141,9 +148,31 @@ public class StepikClient {
     catch (NoSuchAlgorithmException | KeyManagementException e) {
       LOG.error(e.getMessage());
     }
+    addMetricsInterceptors(builder);
     return builder;
   }
 
+  /**
+   * Records time from sending request to receiving response headers and failed responses of all Stepik clients
+   */
+  private static void addMetricsInterceptors(@NotNull HttpClientBuilder builder) {
+    builder.addInterceptorFirst((HttpRequestInterceptor)(request, context) -> {
+      if (EduMetrics.isEnabled()) {
+        context.setAttribute(REQUEST_TIMER_ATTRIBUTE, EduMetrics.startTimer("stepik.http." + request.getRequestLine().getMethod()));
+      }
+    });
+    builder.addInterceptorLast((HttpResponseInterceptor)(response, context) -> {
+      final Object timer = context.removeAttribute(REQUEST_TIMER_ATTRIBUTE);
+      if (timer instanceof EduMetrics.Timer) {
+        ((EduMetrics.Timer)timer).stop();
+      }
+      final int statusCode = response.getStatusLine().getStatusCode();
+      if (statusCode >= HttpStatus.SC_BAD_REQUEST) {
+        EduMetrics.increment("stepik.http.status." + statusCode);
+      }
+    });
+  }
+
   @NotNull
   private static String getUserAgent() {
     String pluginVersion = PluginUtils.pluginVersion(EduNames.PLUGIN_ID);
@@ -32,6 +32,7 @@ import com.jetbrains.edu.learning.EduUtils;
 import com.jetbrains.edu.learning.authUtils.CustomAuthorizationServer;
 import com.jetbrains.edu.learning.courseFormat.*;
 import com.jetbrains.edu.learning.courseFormat.tasks.Task;
+import com.jetbrains.edu.learning.statistics.EduMetrics;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
@@ -132,6 +133,7 @@ public class StepikConnector {
   public static List<RemoteCourse> getCourseInfos(@Nullable StepikUser user) {
     LOG.info("Loading courses started...");
     long startTime = System.currentTimeMillis();
+    EduMetrics.Timer timer = EduMetrics.startTimer("stepik.getCourseInfos");
     List<RemoteCourse> result = ContainerUtil.newArrayList();
     List<Callable<List<RemoteCourse>>> tasks = ContainerUtil.newArrayList();
     tasks.add(() -> getCourseInfos(user, true));
@@ -153,6 +155,7 @@ public class StepikConnector {
     }
     setAuthors(result);
 
+    timer.stop();
     LOG.info("Loading courses finished...Took " + (System.currentTimeMillis() - startTime) + " ms");
     return result;
   }
@@ -402,6 +405,16 @@ public class StepikConnector {
   }
 
   public static void fillItems(@NotNull RemoteCourse remoteCourse) throws IOException {
+    EduMetrics.Timer timer = EduMetrics.startTimer("stepik.fillItems");
+    try {
+      doFillItems(remoteCourse);
+    }
+    finally {
+      timer.stop();
+    }
+  }
+
+  private static void doFillItems(@NotNull RemoteCourse remoteCourse) throws IOException {
     String[] sectionIds = remoteCourse.getSectionIds().stream().map(section -> String.valueOf(section)).toArray(String[]::new);
     List<Section> allSections = getSections(sectionIds);
 
@@ -637,6 +650,7 @@ public class StepikConnector {
       }
       List<Task> tasks = getTasks(remoteCourse.getLanguageById(), lesson, stepIds, allStepSources);
       lesson.taskList.addAll(tasks);
+      lesson.taskListChanged();
       lessons.add(lesson);
     }
 
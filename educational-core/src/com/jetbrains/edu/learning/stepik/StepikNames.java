@@ -5,7 +5,11 @@ import com.intellij.openapi.application.ApplicationManager;
 public class StepikNames {
   public static final String STEPIK = "Stepik";
   public static final String ARE_SOLUTIONS_UPDATED_PROPERTY = "Educational.StepikSolutionUpdated";
-  public static final String STEPIK_URL = ApplicationManager.getApplication().isUnitTestMode() ? "https://release.stepik.org" : "https://stepik.org" ;
+  // allows to send requests to another server, e.g. local mock server in load tests
+  public static final String STEPIK_URL_PROPERTY = "edu.stepik.url";
+  public static final String STEPIK_URL = System.getProperty(STEPIK_URL_PROPERTY, ApplicationManager.getApplication().isUnitTestMode()
+                                                                                  ? "https://release.stepik.org"
+                                                                                  : "https://stepik.org");
   public static final String TOKEN_URL = STEPIK_URL + "/oauth2/token/";
   public static final String STEPIK_API_URL = STEPIK_URL + "/api";
 
@@ -75,7 +75,6 @@ public class StepikOptions extends OauthOptions<StepikUser> {
     return new HyperlinkAdapter() {
       @Override
       protected void hyperlinkActivated(HyperlinkEvent e) {
-        StepikAuthorizedClient.invalidateClient();
         setCurrentAccount(null);
         setLastSavedAccount(null);
         updateLoginLabels();
@@ -12,6 +12,7 @@ import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task.Backgroundable;
@@ -37,9 +38,11 @@ import org.jetbrains.annotations.TestOnly;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -53,11 +56,18 @@ public class StepikSolutionsLoader implements Disposable {
   private static final String NOTIFICATION_CONTENT = "<html>Your version of EduTools plugin is outdated to apply all solutions.\n" +
                                                      "<a href=\"\">Update plugin</a> to avoid compatibility problems.\n";
 
+  // Stepik doesn't like lots of simultaneous requests from one user, and we don't want to occupy the whole application pool
+  private static final int MAX_CONCURRENT_LOADINGS = 4;
+
   private static final Logger LOG = Logger.getInstance(StepikSolutionsLoader.class);
-  private final HashMap<Integer, Future<Boolean>> myFutures = new HashMap<>();
+  private final Map<Integer, CompletableFuture<Boolean>> myFutures = new ConcurrentHashMap<>();
+  // tasks which aren't loaded yet, ordered as in course. Guarded by itself
+  private final List<Task> myPendingTasks = new ArrayList<>();
+  // last submissions received while looking for tasks to update, so they aren't requested again during loading
+  private final Map<Integer, StepikWrappers.Reply> myLoadedReplies = new ConcurrentHashMap<>();
   private final Project myProject;
   private MessageBusConnection myBusConnection;
-  private Task mySelectedTask;
+  private volatile Task mySelectedTask;
 
   protected StepikSolutionsLoader(@NotNull final Project project) {
     this.myProject = project;
@@ -109,29 +119,13 @@ public class StepikSolutionsLoader implements Disposable {
       .filter(task -> !(task instanceof TheoryTask))
       .collect(Collectors.toList());
 
-    CountDownLatch countDownLatch = new CountDownLatch(tasksToUpdate.size());
-    for (int i = 0; i < tasksToUpdate.size(); i++) {
-      final Task task = tasksToUpdate.get(i);
-      final int progressIndex = i + 1;
-      if (progressIndicator == null || !progressIndicator.isCanceled()) {
-        Future<Boolean> future = ApplicationManager.getApplication().executeOnPooledThread(() -> {
-          try {
-            boolean isSolved = task.getStatus() == CheckStatus.Solved;
-            if (progressIndicator != null) {
-              progressIndicator.setFraction((double)progressIndex / tasksToUpdate.size());
-              progressIndicator.setText(String.format("Loading solution %d from %d", progressIndex, tasksToUpdate.size()));
-            }
-            return loadSolution(myProject, task, isSolved);
-          }
-          finally {
-            countDownLatch.countDown();
-          }
-        });
-        myFutures.put(task.getStepId(), future);
-      }
-      else {
-        countDownLatch.countDown();
-      }
+    Map<Integer, Integer> positions = new HashMap<>();
+    for (Task task : tasksToUpdate) {
+      positions.put(task.getStepId(), positions.size());
+      myFutures.put(task.getStepId(), new CompletableFuture<>());
+    }
+    synchronized (myPendingTasks) {
+      myPendingTasks.addAll(tasksToUpdate);
     }
 
     ApplicationManager.getApplication().invokeLater(() -> {
@@ -144,41 +138,113 @@ public class StepikSolutionsLoader implements Disposable {
       }
     });
 
+    AtomicInteger processed = new AtomicInteger();
+    int workersCount = Math.min(MAX_CONCURRENT_LOADINGS, tasksToUpdate.size());
+    for (int i = 0; i < workersCount; i++) {
+      ApplicationManager.getApplication().executeOnPooledThread(
+        () -> loadPendingSolutions(positions, processed, progressIndicator));
+    }
+
+    waitForSolutions(progressIndicator);
+    myLoadedReplies.clear();
+    final boolean needToShowNotification = needToShowUpdateNotification();
+    ApplicationManager.getApplication().invokeLater(() -> ApplicationManager.getApplication().runWriteAction(() -> {
+      if (needToShowNotification) {
+        new UpdateNotification(NOTIFICATION_TITLE, NOTIFICATION_CONTENT).notify(myProject);
+      }
+      EduUtils.synchronize();
+      if (mySelectedTask != null) {
+        updateUI(myProject, mySelectedTask);
+      }
+    }));
+    myBusConnection.disconnect();
+  }
+
+  private void waitForSolutions(@Nullable ProgressIndicator progressIndicator) {
+    CompletableFuture<Void> allLoaded = CompletableFuture.allOf(myFutures.values().toArray(new CompletableFuture[0]));
     try {
-      countDownLatch.await();
-      final boolean needToShowNotification = needToShowUpdateNotification();
-      ApplicationManager.getApplication().invokeLater(() -> ApplicationManager.getApplication().runWriteAction(() -> {
-        if (needToShowNotification) {
-          new UpdateNotification(NOTIFICATION_TITLE, NOTIFICATION_CONTENT).notify(myProject);
-        }
-        EduUtils.synchronize();
-        if (mySelectedTask != null) {
-          updateUI(myProject, mySelectedTask);
-        }
-      }));
-      myBusConnection.disconnect();
+      EduUtils.waitForFuture(allLoaded, progressIndicator);
+    }
+    catch (ProcessCanceledException e) {
+      // solutions loaded before cancellation are still applied
+      cancelUnfinishedTasks();
     }
-    catch (InterruptedException e) {
-      LOG.warn(e);
+    catch (InterruptedException | ExecutionException | CancellationException ignored) {
+      // failures of single tasks are processed in `needToShowUpdateNotification`
     }
   }
 
-  private boolean needToShowUpdateNotification() {
-    return myFutures.values().stream().anyMatch(future -> {
+  /**
+   * Loads solutions one by one while there are pending tasks.
+   * Several workers share the same pending list, so the number of workers limits the number of simultaneous requests.
+   */
+  private void loadPendingSolutions(@NotNull Map<Integer, Integer> positions,
+                                    @NotNull AtomicInteger processed,
+                                    @Nullable ProgressIndicator progressIndicator) {
+    Task task;
+    while ((task = pollNextTask(positions)) != null) {
+      CompletableFuture<Boolean> future = myFutures.get(task.getStepId());
+      if (future == null || future.isDone()) continue;
+      if (progressIndicator != null && progressIndicator.isCanceled()) {
+        future.cancel(false);
+        continue;
+      }
       try {
-        Boolean result = future.get();
-        return result == Boolean.TRUE;
-      } catch (InterruptedException | ExecutionException e) {
-        LOG.warn(e);
-        return false;
+        boolean isSolved = task.getStatus() == CheckStatus.Solved;
+        future.complete(loadSolution(myProject, task, isSolved, myLoadedReplies.remove(task.getStepId())));
       }
-    });
+      catch (Throwable e) {
+        future.completeExceptionally(e);
+      }
+      finally {
+        if (progressIndicator != null) {
+          int progressIndex = processed.incrementAndGet();
+          progressIndicator.setFraction((double)progressIndex / positions.size());
+          progressIndicator.setText(String.format("Loading solution %d from %d", progressIndex, positions.size()));
+        }
+      }
+    }
+  }
+
+  /**
+   * @return pending task which is the closest to the selected one, so solutions of the selected task
+   * and its neighbours are loaded first
+   */
+  @Nullable
+  private Task pollNextTask(@NotNull Map<Integer, Integer> positions) {
+    synchronized (myPendingTasks) {
+      if (myPendingTasks.isEmpty()) return null;
+      Task selectedTask = mySelectedTask;
+      Integer selectedPosition = selectedTask == null ? null : positions.get(selectedTask.getStepId());
+      if (selectedPosition == null) {
+        return myPendingTasks.remove(0);
+      }
+      int bestIndex = 0;
+      int bestDistance = Integer.MAX_VALUE;
+      for (int i = 0; i < myPendingTasks.size(); i++) {
+        int distance = Math.abs(positions.get(myPendingTasks.get(i).getStepId()) - selectedPosition);
+        if (distance < bestDistance) {
+          bestIndex = i;
+          bestDistance = distance;
+        }
+      }
+      return myPendingTasks.remove(bestIndex);
+    }
+  }
+
+  private boolean needToShowUpdateNotification() {
+    return myFutures.values().stream()
+      .filter(future -> future.isDone() && !future.isCompletedExceptionally())
+      .anyMatch(future -> future.getNow(false) == Boolean.TRUE);
   }
 
   private void cancelUnfinishedTasks() {
-    for (Future future : myFutures.values()) {
+    synchronized (myPendingTasks) {
+      myPendingTasks.clear();
+    }
+    for (CompletableFuture<Boolean> future : myFutures.values()) {
       if (!future.isDone()) {
-        future.cancel(true);
+        future.cancel(false);
       }
     }
   }
@@ -223,7 +289,7 @@ public class StepikSolutionsLoader implements Disposable {
           Task task = taskFile.getTask();
           if (myFutures.containsKey(task.getStepId())) {
             eduEditor.startLoading();
-            Future future = myFutures.get(task.getStepId());
+            CompletableFuture<Boolean> future = myFutures.get(task.getStepId());
             if (!future.isDone() || !future.isCancelled()) {
               enableEditorWhenFutureDone(future);
             }
@@ -233,25 +299,22 @@ public class StepikSolutionsLoader implements Disposable {
     });
   }
 
-  private void enableEditorWhenFutureDone(@NotNull Future future) {
-    ApplicationManager.getApplication().executeOnPooledThread(() -> {
-      try {
-        future.get();
-        ApplicationManager.getApplication().invokeLater(() -> {
-          EduEditor selectedEditor = EduUtils.getSelectedEduEditor(myProject);
-          if (selectedEditor != null && mySelectedTask.getTaskFiles().containsKey(selectedEditor.getTaskFile().getName())) {
-            selectedEditor.stopLoading();
-            selectedEditor.validateTaskFile();
-          }
-        });
-      }
-      catch (InterruptedException | ExecutionException e) {
-        LOG.warn(e.getCause());
+  private void enableEditorWhenFutureDone(@NotNull CompletableFuture<Boolean> future) {
+    future.whenComplete((result, error) -> {
+      if (error != null && !(error instanceof CancellationException)) {
+        LOG.warn(error);
       }
+      ApplicationManager.getApplication().invokeLater(() -> {
+        EduEditor selectedEditor = EduUtils.getSelectedEduEditor(myProject);
+        if (selectedEditor != null && mySelectedTask.getTaskFiles().containsKey(selectedEditor.getTaskFile().getName())) {
+          selectedEditor.stopLoading();
+          selectedEditor.validateTaskFile();
+        }
+      });
     });
   }
 
-  private static boolean isToUpdate(Task task, @NotNull Boolean isSolved, @NotNull CheckStatus currentStatus, int stepId) {
+  private boolean isToUpdate(Task task, @NotNull Boolean isSolved, @NotNull CheckStatus currentStatus, int stepId) {
     if (isSolved && currentStatus != CheckStatus.Solved) {
       return true;
     }
@@ -261,6 +324,7 @@ public class StepikSolutionsLoader implements Disposable {
           String language = task.getCourse().getLanguageID();
           StepikWrappers.Reply reply = getLastSubmission(String.valueOf(stepId), isSolved, language);
           if (reply != null && !reply.solution.isEmpty()) {
+            myLoadedReplies.put(stepId, reply);
             return true;
           }
         }
@@ -282,9 +346,12 @@ public class StepikSolutionsLoader implements Disposable {
   /**
    * @return true if solutions for given task are incompatible with current plugin version, false otherwise
    */
-  private static boolean loadSolution(@NotNull Project project, @NotNull Task task, boolean isSolved) {
+  private static boolean loadSolution(@NotNull Project project,
+                                      @NotNull Task task,
+                                      boolean isSolved,
+                                      @Nullable StepikWrappers.Reply loadedReply) {
     try {
-      TaskSolutions taskSolutions = loadSolutionTexts(task, isSolved);
+      TaskSolutions taskSolutions = loadSolutionTexts(task, isSolved, loadedReply);
       if (!taskSolutions.hasIncompatibleSolutions && !taskSolutions.solutions.isEmpty()) {
         updateFiles(project, task, taskSolutions.solutions);
       }
@@ -296,9 +363,11 @@ public class StepikSolutionsLoader implements Disposable {
     }
   }
 
-  private static TaskSolutions loadSolutionTexts(@NotNull Task task, boolean isSolved) throws IOException {
+  private static TaskSolutions loadSolutionTexts(@NotNull Task task,
+                                                boolean isSolved,
+                                                @Nullable StepikWrappers.Reply loadedReply) throws IOException {
     if (task.isToSubmitToStepik()) {
-      return getEduTaskSolution(task, isSolved);
+      return getEduTaskSolution(task, isSolved, loadedReply);
     }
     else {
       return new TaskSolutions(getStepikTaskSolution(task, isSolved));
@@ -317,9 +386,13 @@ public class StepikSolutionsLoader implements Disposable {
     return solutions;
   }
 
-  private static TaskSolutions getEduTaskSolution(@NotNull Task task, boolean isSolved) throws IOException {
+  private static TaskSolutions getEduTaskSolution(@NotNull Task task,
+                                                 boolean isSolved,
+                                                 @Nullable StepikWrappers.Reply loadedReply) throws IOException {
     String language = task.getCourse().getLanguageID();
-    StepikWrappers.Reply reply = getLastSubmission(String.valueOf(task.getStepId()), isSolved, language);
+    StepikWrappers.Reply reply = loadedReply != null
+                                 ? loadedReply
+                                 : getLastSubmission(String.valueOf(task.getStepId()), isSolved, language);
     if (reply == null || reply.solution == null || reply.solution.isEmpty()) {
       // https://youtrack.jetbrains.com/issue/EDU-1449
       if (reply != null && reply.solution == null) {
@@ -449,7 +522,7 @@ public class StepikSolutionsLoader implements Disposable {
 
   @TestOnly
   public void doLoadSolution(Task task, boolean isSolved) {
-    loadSolution(myProject, task, isSolved);
+    loadSolution(myProject, task, isSolved, null);
   }
 
   private static void updateUI(@NotNull Project project, @NotNull Task task) {
@@ -0,0 +1,127 @@
+package com.jetbrains.edu.learning.stepik;
+
+import com.google.gson.Gson;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracks submissions which are being evaluated on Stepik.
+ * <p>
+ * Delays between requests are scheduled on the shared application scheduler and requests themselves are executed on pooled threads,
+ * so remote checks in flight don't hold a thread each between requests.
+ * The delay between requests grows while submission is being evaluated,
+ * so long evaluations don't produce lots of requests.
+ */
+class StepikSubmissionTracker {
+  private static final Logger LOG = Logger.getInstance(StepikSubmissionTracker.class);
+
+  private static final long INITIAL_DELAY_MS = 500;
+  private static final long MAX_DELAY_MS = 5000;
+  private static final double DELAY_FACTOR = 1.5;
+  private static final long EVALUATION_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
+  private static final String EVALUATION_STATUS = "evaluation";
+
+  private static final Gson ourGson = new Gson();
+
+  private StepikSubmissionTracker() {
+  }
+
+  /**
+   * @return future which is completed with submissions of given attempt when the last of them is evaluated.
+   * If submission isn't evaluated in {@link #EVALUATION_TIMEOUT_MS}, future is completed exceptionally with {@link TimeoutException}
+   */
+  @NotNull
+  static CompletableFuture<StepikWrappers.ResultSubmissionWrapper> track(@NotNull CloseableHttpClient client,
+                                                                         @NotNull StepikWrappers.ResultSubmissionWrapper wrapper,
+                                                                         int attemptId,
+                                                                         int userId) {
+    if (!isEvaluating(wrapper)) {
+      return CompletableFuture.completedFuture(wrapper);
+    }
+    final CompletableFuture<StepikWrappers.ResultSubmissionWrapper> result = new CompletableFuture<>();
+    try {
+      final URI submissionURI = new URIBuilder(StepikNames.STEPIK_API_URL + StepikNames.SUBMISSIONS)
+        .addParameter("attempt", String.valueOf(attemptId))
+        .addParameter("order", "desc")
+        .addParameter("user", String.valueOf(userId))
+        .build();
+      schedulePoll(client, submissionURI, result, INITIAL_DELAY_MS, System.currentTimeMillis() + EVALUATION_TIMEOUT_MS);
+    }
+    catch (URISyntaxException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  private static void schedulePoll(@NotNull CloseableHttpClient client,
+                                   @NotNull URI submissionURI,
+                                   @NotNull CompletableFuture<StepikWrappers.ResultSubmissionWrapper> result,
+                                   long delay,
+                                   long deadline) {
+    // scheduler thread is shared by the whole IDE, so blocking requests are moved to pooled threads
+    AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+      ApplicationManager.getApplication().executeOnPooledThread(() -> poll(client, submissionURI, result, delay, deadline));
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+  private static void poll(@NotNull CloseableHttpClient client,
+                           @NotNull URI submissionURI,
+                           @NotNull CompletableFuture<StepikWrappers.ResultSubmissionWrapper> result,
+                           long delay,
+                           long deadline) {
+    if (result.isDone()) return;
+    try {
+      final StepikWrappers.ResultSubmissionWrapper wrapper = getSubmissions(client, submissionURI);
+      if (!isEvaluating(wrapper)) {
+        result.complete(wrapper);
+      }
+      else if (System.currentTimeMillis() > deadline) {
+        result.completeExceptionally(new TimeoutException("Submission is still being evaluated"));
+      }
+      else {
+        schedulePoll(client, submissionURI, result, Math.min((long)(delay * DELAY_FACTOR), MAX_DELAY_MS), deadline);
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      LOG.warn(e.getMessage());
+      result.completeExceptionally(e);
+    }
+  }
+
+  @NotNull
+  private static StepikWrappers.ResultSubmissionWrapper getSubmissions(@NotNull CloseableHttpClient client,
+                                                                       @NotNull URI submissionURI) throws IOException {
+    final HttpGet httpGet = new HttpGet(submissionURI);
+    StepikCheckerConnector.setTimeout(httpGet);
+    try (CloseableHttpResponse httpResponse = client.execute(httpGet)) {
+      final HttpEntity entity = httpResponse.getEntity();
+      final String entityString = EntityUtils.toString(entity);
+      EntityUtils.consume(entity);
+      final StepikWrappers.ResultSubmissionWrapper wrapper = ourGson.fromJson(entityString, StepikWrappers.ResultSubmissionWrapper.class);
+      if (wrapper == null || wrapper.submissions == null) {
+        throw new IOException("Failed to get submissions: " + entityString);
+      }
+      return wrapper;
+    }
+  }
+
+  private static boolean isEvaluating(@NotNull StepikWrappers.ResultSubmissionWrapper wrapper) {
+    return wrapper.submissions.length == 1 && EVALUATION_STATUS.equals(wrapper.submissions[0].status);
+  }
+}
@@ -17,6 +17,9 @@ class StepikRemoteTaskChecker : RemoteTaskChecker {
     return (task.course is RemoteCourse || task.course is HyperskillCourse) && task.shouldBeCheckedOnStepik
   }
 
+  // every check is a submission on Stepik
+  override val isResultCacheable: Boolean get() = false
+
   private val Task.shouldBeCheckedOnStepik: Boolean
     get() = this is ChoiceTask || this is CodeTask
 
@@ -32,5 +32,6 @@ fun getLesson(course: HyperskillCourse, lessonId: Int, language: Language, stage
   }
 
   lesson.taskList.addAll(convertedTasks)
+  lesson.taskListChanged()
   return lesson
 }
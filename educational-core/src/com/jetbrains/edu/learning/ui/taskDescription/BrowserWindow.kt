@@ -64,9 +64,12 @@ class BrowserWindow(private val myProject: Project, private val myLinkInNewBrows
     }
   }
 
-  fun loadContent(content: String) {
+  /**
+   * Loads already prepared html page, see [htmlWithResources]
+   */
+  fun loadHtml(html: String) {
     StudyTaskManager.getInstance(myProject).course ?: return
-    Platform.runLater { myEngine.loadContent(htmlWithResources(myProject, content)) }
+    Platform.runLater { myEngine.loadContent(html) }
   }
 
   private fun initHyperlinkListener() {
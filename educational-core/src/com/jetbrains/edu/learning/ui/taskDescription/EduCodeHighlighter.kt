@@ -1,31 +1,72 @@
 package com.jetbrains.edu.learning.ui.taskDescription
 
 import com.intellij.codeEditor.printing.HTMLTextPainter
+import com.intellij.ide.ui.LafManager
 import com.intellij.lang.Language
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.editor.colors.EditorColorsListener
+import com.intellij.openapi.editor.colors.EditorColorsManager
+import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiFile
 import com.intellij.psi.PsiFileFactory
 import org.jsoup.Jsoup
 import org.jsoup.nodes.Element
 import org.jsoup.nodes.TextNode
+import java.util.*
 
 class EduCodeHighlighter {
 
   companion object {
+
+    private const val MAX_CACHED_FRAGMENTS = 256
+
+    /**
+     * Already highlighted code fragments.
+     * Descriptions of neighbour tasks often contain the same snippets, so we don't want to highlight them again
+     */
+    private val highlightedFragments: MutableMap<FragmentKey, String> = Collections.synchronizedMap(
+      object : LinkedHashMap<FragmentKey, String>(MAX_CACHED_FRAGMENTS, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<FragmentKey, String>?): Boolean = size > MAX_CACHED_FRAGMENTS
+      })
+
+    init {
+      // colors of the current scheme can be edited without changing its name, so cached fragments are dropped
+      // on any change of editor colors or look and feel
+      val application = ApplicationManager.getApplication()
+      application.messageBus.connect(application).subscribe(EditorColorsManager.TOPIC, EditorColorsListener { highlightedFragments.clear() })
+      LafManager.getInstance().addLafManagerListener { highlightedFragments.clear() }
+    }
+
+    // all languages are registered on ide start, so there is no need to scan them for each code fragment
+    private val languagesById: Map<String, Language> by lazy {
+      Language.getRegisteredLanguages().associateBy { it.id.toLowerCase() }
+    }
+
     @JvmStatic
     fun highlightCodeFragments(project: Project, html: String, defaultLanguage: Language): String {
       val document = Jsoup.parse(html)
 
       val codeElements = document.select("code")
+      if (codeElements.isEmpty()) return document.toString()
+
+      val colorScheme = EditorColorsManager.getInstance().globalScheme.name
+      // fake files are used only to get highlighter of language, so one file per language is enough
+      val psiFiles = HashMap<Language, PsiFile?>()
 
       for (codeElement in codeElements) {
+        // highlighting can be performed in background read action which should be cancelled by write action
+        ProgressManager.checkCanceled()
         val textNode = codeElement.childNodes().singleOrNull() as? TextNode ?: continue
         val text = textNode.wholeText
         val language = codeElement.language() ?: defaultLanguage
 
-        val psiFile = PsiFileFactory.getInstance(project).createFileFromText(language, "")
-        if (psiFile == null) return html
-
-        val codeText = HTMLTextPainter.convertCodeFragmentToHTMLFragmentWithInlineStyles(psiFile, text)
+        val key = FragmentKey(language.id, text, colorScheme)
+        val codeText = highlightedFragments[key] ?: run {
+          val psiFile = psiFiles.getOrPut(language) { PsiFileFactory.getInstance(project).createFileFromText(language, "") }
+                        ?: return html
+          HTMLTextPainter.convertCodeFragmentToHTMLFragmentWithInlineStyles(psiFile, text).also { highlightedFragments[key] = it }
+        }
 
         val parent = codeElement.parent()
         // We have to check `parent.parent()` for null
@@ -52,7 +93,9 @@ class EduCodeHighlighter {
       }
       if (lang.isEmpty()) return null
 
-      return Language.getRegisteredLanguages().find { it.id.toLowerCase() == lang }
+      return languagesById[lang]
     }
   }
+
+  private data class FragmentKey(val languageId: String, val text: String, val colorScheme: String)
 }
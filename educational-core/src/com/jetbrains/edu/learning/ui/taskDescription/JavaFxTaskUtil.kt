@@ -8,6 +8,7 @@ import com.intellij.ide.ui.laf.darcula.DarculaLookAndFeelInfo
 import com.intellij.openapi.editor.colors.EditorColorsManager
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.io.StreamUtil
+import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.util.ui.JBUI
 import com.intellij.util.ui.UIUtil
 import com.jetbrains.edu.learning.EduUtils
@@ -161,12 +162,17 @@ fun setButtonLaf(button: ButtonBase) {
   button.stylesheets.addAll(StyleManager().buttonStylesheets)
 }
 
+private val templateText: String? by lazy { loadText("/style/template.html.ft") }
+
 fun htmlWithResources(project: Project, content: String): String {
-  val templateText = loadText("/style/template.html.ft")
+  return htmlWithResources(project, content, EduUtils.getCurrentTask(project)?.getTaskDir(project))
+}
+
+fun htmlWithResources(project: Project, content: String, taskDir: VirtualFile?): String {
   val styleManager = StyleManager()
 
   val textWithResources = StrSubstitutor(styleManager.resources(project, content)).replace(templateText) ?: "Cannot load task text"
-  return absolutizeImgPaths(project, textWithResources)
+  return absolutizeImgPaths(taskDir, textWithResources)
 }
 
 fun loadText(filePath: String): String? {
@@ -176,15 +182,9 @@ fun loadText(filePath: String): String? {
   }
 }
 
-private fun absolutizeImgPaths(project: Project, content: String): String {
+private fun absolutizeImgPaths(taskDir: VirtualFile?, content: String): String {
   val srcAttribute = "src"
-  val task = EduUtils.getCurrentTask(project)
-  if (task == null) {
-    return content
-  }
-
-  val taskDir = task.getTaskDir(project)
-  if (taskDir == null) {
+  if (taskDir == null || !content.contains("<img", ignoreCase = true)) {
     return content
   }
 
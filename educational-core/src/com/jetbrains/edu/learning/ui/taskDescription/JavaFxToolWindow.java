@@ -88,8 +88,7 @@ public class JavaFxToolWindow extends TaskDescriptionToolWindow {
   }
 
   @Override
-  public void setText(@NotNull String text) {
-    String wrappedText = wrapHints(text);
-    myBrowserWindow.loadContent(wrappedText);
+  protected void setHtml(@NotNull String html) {
+    myBrowserWindow.loadHtml(html);
   }
 }
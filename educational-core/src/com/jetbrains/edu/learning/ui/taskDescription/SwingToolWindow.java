@@ -97,9 +97,9 @@ public class SwingToolWindow extends TaskDescriptionToolWindow {
     }
   }
 
-  public void setText(@NotNull String text) {
-    String wrappedText = wrapHints(text);
-    myTaskTextPane.setText(JavaFxTaskUtil.htmlWithResources(myProject, wrappedText));
+  @Override
+  protected void setHtml(@NotNull String html) {
+    myTaskTextPane.setText(html);
   }
 
   @Override
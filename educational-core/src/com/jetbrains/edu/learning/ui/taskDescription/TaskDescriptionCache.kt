@@ -0,0 +1,151 @@
+package com.jetbrains.edu.learning.ui.taskDescription
+
+import com.intellij.ide.ui.LafManager
+import com.intellij.ide.util.PropertiesComponent
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.editor.colors.EditorColorsListener
+import com.intellij.openapi.editor.colors.EditorColorsManager
+import com.intellij.openapi.keymap.KeymapManager
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils
+import com.intellij.openapi.project.Project
+import com.intellij.util.Consumer
+import com.intellij.util.ui.UIUtil
+import com.jetbrains.edu.learning.EduSettings
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.courseFormat.ext.taskDescriptionHintBlocks
+import com.jetbrains.edu.learning.navigation.NavigationUtils
+import com.jetbrains.edu.learning.ui.taskDescription.styleManagers.StyleManager
+import java.util.*
+
+/**
+ * Keeps rendered html of task descriptions, so switching between tasks doesn't parse markdown,
+ * highlight code fragments and build page resources again.
+ *
+ * Entries are keyed by description content and all settings which affect rendering (look and feel, fonts,
+ * editor color scheme, keymap), so outdated entries are never returned and just leave the cache as least recently used.
+ * Colors of the current scheme can be edited without changing its name, so the cache is also cleared on any scheme change.
+ */
+class TaskDescriptionCache(private val project: Project) {
+
+  private val cache: MutableMap<RenderKey, String> = Collections.synchronizedMap(object : LinkedHashMap<RenderKey, String>(MAX_SIZE, 0.75f, true) {
+    override fun removeEldestEntry(eldest: MutableMap.MutableEntry<RenderKey, String>?): Boolean = size > MAX_SIZE
+  })
+
+  init {
+    ApplicationManager.getApplication().messageBus.connect(project)
+      .subscribe(EditorColorsManager.TOPIC, EditorColorsListener { cache.clear() })
+  }
+
+  fun getHtml(task: Task?, toolWindow: TaskDescriptionToolWindow): String {
+    val key = task?.let { renderKey(it, toolWindow) } ?: return toolWindow.renderHtml(project, task)
+    cache[key]?.let { return it }
+    val html = toolWindow.renderHtml(project, task)
+    cache[key] = html
+    return html
+  }
+
+  fun getCachedHtml(task: Task, toolWindow: TaskDescriptionToolWindow): String? {
+    val key = renderKey(task, toolWindow) ?: return null
+    return cache[key]
+  }
+
+  /**
+   * Renders description of [task] on pooled thread and passes result to [onRendered] on EDT.
+   * Result isn't passed if description has been changed while it was rendered
+   */
+  fun renderInBackground(task: Task, toolWindow: TaskDescriptionToolWindow, onRendered: Consumer<String>) {
+    ApplicationManager.getApplication().executeOnPooledThread {
+      val (key, html) = render(task, toolWindow) ?: return@executeOnPooledThread
+      ApplicationManager.getApplication().invokeLater({
+        if (renderKey(task, toolWindow) == key) {
+          onRendered.consume(html)
+        }
+      }, project.disposed)
+    }
+  }
+
+  /**
+   * Renders descriptions of the next and the previous tasks in background
+   * to make navigation to them a cache hit
+   */
+  fun prerenderNeighbours(task: Task, toolWindow: TaskDescriptionToolWindow) {
+    if (ApplicationManager.getApplication().isUnitTestMode) return
+    val neighbours = listOfNotNull(NavigationUtils.nextTask(task), NavigationUtils.previousTask(task))
+    if (neighbours.isEmpty()) return
+    ApplicationManager.getApplication().executeOnPooledThread {
+      for (neighbour in neighbours) {
+        if (project.isDisposed) return@executeOnPooledThread
+        val key = runReadAction { renderKey(neighbour, toolWindow) } ?: continue
+        if (cache.containsKey(key)) continue
+        render(neighbour, toolWindow)
+      }
+    }
+  }
+
+  /**
+   * Renders description in read action which is cancelled by write actions and restarted after them,
+   * so rendering of long descriptions doesn't block EDT waiting for write action.
+   * Key and html are computed in the same read action, so html always matches content of the key
+   */
+  private fun render(task: Task, toolWindow: TaskDescriptionToolWindow): Pair<RenderKey?, String>? {
+    while (!project.isDisposed) {
+      var result: Pair<RenderKey?, String>? = null
+      val completed = ProgressIndicatorUtils.runInReadActionWithWriteActionPriority {
+        if (!project.isDisposed) {
+          result = renderKey(task, toolWindow) to toolWindow.renderHtml(project, task)
+        }
+      }
+      if (completed) {
+        val (key, html) = result ?: return null
+        if (key != null) {
+          cache[key] = html
+        }
+        return key to html
+      }
+      ProgressIndicatorUtils.yieldToPendingWriteActions()
+    }
+    return null
+  }
+
+  private fun renderKey(task: Task, toolWindow: TaskDescriptionToolWindow): RenderKey? {
+    val descriptionText = task.descriptionText ?: return null
+    val content = "${task.descriptionFormat}\n$descriptionText\n${task.taskDescriptionHintBlocks()}"
+    return RenderKey(
+      content,
+      task.getTaskDir(project)?.path,
+      task.course.courseMode,
+      toolWindow.javaClass.name,
+      lafKey(),
+      editorSchemeKey(),
+      KeymapManager.getInstance()?.activeKeymap?.name
+    )
+  }
+
+  private fun lafKey(): String = "${LafManager.getInstance().currentLookAndFeel?.name}:${UIUtil.isUnderDarcula()}:${UIUtil.isRetina()}"
+
+  private fun editorSchemeKey(): String {
+    val scheme = EditorColorsManager.getInstance().globalScheme
+    val fontFactor = PropertiesComponent.getInstance().getValue(StyleManager.FONT_FACTOR_PROPERTY)
+    return "${scheme.name}:${scheme.editorFontName}:${scheme.editorFontSize}:$fontFactor:${EduSettings.getInstance().shouldUseJavaFx()}"
+  }
+
+  private data class RenderKey(
+    // full content is compared, so different descriptions with the same hash never share an entry
+    val content: String,
+    val taskDirPath: String?,
+    val courseMode: String?,
+    val toolWindowKind: String,
+    val laf: String,
+    val editorScheme: String,
+    val keymap: String?
+  )
+
+  companion object {
+    private const val MAX_SIZE = 32
+
+    @JvmStatic
+    fun getInstance(project: Project): TaskDescriptionCache = ServiceManager.getService(project, TaskDescriptionCache::class.java)
+  }
+}
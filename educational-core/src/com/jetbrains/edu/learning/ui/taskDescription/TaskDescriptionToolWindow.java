@@ -24,6 +24,7 @@ import com.intellij.openapi.application.Application;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.extensions.Extensions;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.NavigatablePsiElement;
 import com.intellij.psi.PsiElement;
 import com.jetbrains.edu.learning.EduUtils;
@@ -41,6 +42,7 @@ public abstract class TaskDescriptionToolWindow {
   public static final String EMPTY_TASK_TEXT = "Please, open any task to see task description";
   public static final String PSI_ELEMENT_PROTOCOL = DocumentationManagerProtocol.PSI_ELEMENT_PROTOCOL;
 
+  @Nullable private Task myShownTask;
 
   public TaskDescriptionToolWindow() {
     LafManager.getInstance().addLafManagerListener(new StudyLafManagerListener());
@@ -67,20 +69,62 @@ public abstract class TaskDescriptionToolWindow {
   protected abstract String wrapHint(@NotNull String hintText, int hintNumber);
 
   protected void setTaskText(@NotNull Project project, @Nullable Task task) {
-    setText(getTaskDescriptionWithCodeHighlighting(project, task));
+    myShownTask = task;
+    TaskDescriptionCache cache = TaskDescriptionCache.getInstance(project);
+    String cachedHtml = task != null ? cache.getCachedHtml(task, this) : null;
+    if (cachedHtml != null) {
+      setHtml(cachedHtml);
+    }
+    else if (task == null || ApplicationManager.getApplication().isUnitTestMode()) {
+      setHtml(cache.getHtml(task, this));
+    }
+    else {
+      // code highlighting can take a while for descriptions with a lot of code fragments,
+      // so we show description without highlighting at once and replace it when highlighting is finished
+      setHtml(renderHtml(project, task, false));
+      cache.renderInBackground(task, this, html -> {
+        if (myShownTask == task) {
+          setHtml(html);
+        }
+      });
+    }
+    if (task != null) {
+      cache.prerenderNeighbours(task, this);
+    }
   }
 
-  public abstract void setText(@NotNull String text);
+  /**
+   * Builds full html page for task description. Result is cached by {@link TaskDescriptionCache},
+   * so it shouldn't depend on anything except task content and ide settings
+   */
+  @NotNull
+  public String renderHtml(@NotNull Project project, @Nullable Task task) {
+    return renderHtml(project, task, true);
+  }
+
+  @NotNull
+  private String renderHtml(@NotNull Project project, @Nullable Task task, boolean highlightCode) {
+    String text = getTaskDescription(project, task, highlightCode);
+    VirtualFile taskDir = task != null ? task.getTaskDir(project) : null;
+    return JavaFxTaskUtil.htmlWithResources(project, wrapHints(text), taskDir);
+  }
+
+  protected abstract void setHtml(@NotNull String html);
 
   protected abstract void updateLaf();
 
   @VisibleForTesting
   @NotNull
   public static String getTaskDescriptionWithCodeHighlighting(@NotNull Project project, @Nullable Task task) {
+    return getTaskDescription(project, task, true);
+  }
+
+  @NotNull
+  private static String getTaskDescription(@NotNull Project project, @Nullable Task task, boolean highlightCode) {
     if (task != null) {
       String taskText = EduUtils.getTaskTextFromTask(task.getTaskDir(project), task);
       if (taskText != null) {
-        return EduCodeHighlighter.highlightCodeFragments(project, taskText, task.getCourse().getLanguageById());
+        return highlightCode ? EduCodeHighlighter.highlightCodeFragments(project, taskText, task.getCourse().getLanguageById()) : taskText;
       }
     }
     return EMPTY_TASK_TEXT;
@@ -14,16 +14,8 @@ internal class StyleResourcesManager(project: Project, taskText: String) {
   val resources = mapOf(
     "typography_color_style" to typographyAndColorStylesheet(),
     "content" to taskText,
-    "base_css" to loadText("/style/browser.css"),
-    resourcePair("jquery", ("/style/hint/jquery-1.9.1.js")),
-    resourcePair("hint_base", "/style/hint/base.css"),
-    resourcePair("hint_laf_specific",  "/style/hint/${resourceFileName()}.css"),
-    resourcePair("toggle_hint_script", "/style/hint/toggleHint.js"),
-    resourcePair("mathjax_script", "/style/mathjaxConfigure.js"),
-    resourcePair("stepik_link", "/style/stepikLink.css")
-  )
-
-  private fun resourcePair(name: String, path: String) = name to resourceUrl(path)
+    resourcePair("hint_laf_specific",  "/style/hint/${resourceFileName()}.css")
+  ) + staticResources
 
   private fun typographyAndColorStylesheet(): String {
     val styleManager = StyleManager()
@@ -55,4 +47,20 @@ internal class StyleResourcesManager(project: Project, taskText: String) {
       }
     }.toString()
   }
-}
\ No newline at end of file
+
+  companion object {
+    // these resources don't depend on ide settings, so there is no need to load them for each task
+    private val staticResources: Map<String, String?> by lazy {
+      mapOf(
+        "base_css" to loadText("/style/browser.css"),
+        resourcePair("jquery", ("/style/hint/jquery-1.9.1.js")),
+        resourcePair("hint_base", "/style/hint/base.css"),
+        resourcePair("toggle_hint_script", "/style/hint/toggleHint.js"),
+        resourcePair("mathjax_script", "/style/mathjaxConfigure.js"),
+        resourcePair("stepik_link", "/style/stepikLink.css")
+      )
+    }
+
+    private fun resourcePair(name: String, path: String) = name to resourceUrl(path)
+  }
+}
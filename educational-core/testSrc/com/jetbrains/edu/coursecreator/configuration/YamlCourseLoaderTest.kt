@@ -0,0 +1,108 @@
+package com.jetbrains.edu.coursecreator.configuration
+
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.util.io.FileUtil
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.courseFormat.Lesson
+import com.jetbrains.edu.learning.courseFormat.Section
+import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
+import com.jetbrains.edu.learning.courseFormat.tasks.TheoryTask
+import java.io.File
+
+class YamlCourseLoaderTest : EduTestCase() {
+  private lateinit var courseDir: File
+
+  override fun setUp() {
+    super.setUp()
+    courseDir = FileUtil.createTempDirectory("course", null)
+  }
+
+  override fun tearDown() {
+    try {
+      FileUtil.delete(courseDir)
+    }
+    finally {
+      super.tearDown()
+    }
+  }
+
+  fun `test load course`() {
+    config("course-info.yaml", """
+      |title: Test Course
+      |language: English
+      |summary: test
+      |programming_language: Plain text
+      |content:
+      |- section1
+      |- lesson2
+      |""")
+    config("section1/section-info.yaml", """
+      |content:
+      |- lesson1
+      |""")
+    config("section1/lesson1/lesson-info.yaml", """
+      |content:
+      |- task1
+      |""")
+    config("section1/lesson1/task1/task-info.yaml", """
+      |task_files:
+      |- name: Task.txt
+      |type: edu
+      |""")
+    config("lesson2/lesson-info.yaml", """
+      |content:
+      |- task2
+      |""")
+    config("lesson2/task2/task-info.yaml", """
+      |type: theory
+      |""")
+
+    val result = YamlCourseLoader.loadCourse(courseDir.toPath(), EmptyProgressIndicator())
+    assertTrue(result.errorsReport, result.isSuccessful)
+    val course = result.course!!
+    assertEquals(listOf("section1", "lesson2"), course.items.map { it.name })
+    val section = course.items[0] as Section
+    val task1 = section.lessons.single().taskList.single()
+    assertTrue(task1 is EduTask)
+    assertEquals("task1", task1.name)
+    assertEquals(listOf("Task.txt"), task1.taskFiles.keys.toList())
+    val task2 = (course.items[1] as Lesson).taskList.single()
+    assertTrue(task2 is TheoryTask)
+    assertSame(course, task2.course)
+  }
+
+  fun `test all errors are reported`() {
+    config("course-info.yaml", """
+      |title: Test Course
+      |language: English
+      |summary: test
+      |programming_language: Plain text
+      |content:
+      |- lesson1
+      |- lesson2
+      |""")
+    config("lesson1/lesson-info.yaml", """
+      |content:
+      |- task1
+      |- task2
+      |""")
+    config("lesson1/task1/task-info.yaml", """
+      |type: unknown
+      |""")
+    config("lesson1/task2/task-info.yaml", """
+      |task_files: []
+      |""")
+
+    val result = YamlCourseLoader.loadCourse(courseDir.toPath(), EmptyProgressIndicator())
+    assertFalse(result.isSuccessful)
+    assertEquals("""
+      |lesson1/task1/task-info.yaml: Unsupported task type 'unknown'
+      |lesson1/task2/task-info.yaml: task type not specified
+      |lesson2: Config file not found
+    """.trimMargin(), result.errorsReport)
+  }
+
+  private fun config(path: String, text: String) {
+    FileUtil.writeToFile(File(courseDir, path), text.trimMargin())
+  }
+}
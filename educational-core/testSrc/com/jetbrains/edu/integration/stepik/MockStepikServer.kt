@@ -0,0 +1,409 @@
+package com.jetbrains.edu.integration.stepik
+
+import com.google.gson.Gson
+import com.google.gson.JsonArray
+import com.google.gson.JsonElement
+import com.google.gson.JsonObject
+import com.google.gson.JsonParser
+import com.intellij.openapi.fileTypes.PlainTextLanguage
+import com.jetbrains.edu.learning.JSON_FORMAT_VERSION
+import com.jetbrains.edu.learning.stepik.StepikNames
+import com.jetbrains.edu.learning.stepik.StepikSolutionsLoader.PROGRESS_ID_PREFIX
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import java.io.Closeable
+import java.net.HttpURLConnection.*
+import java.net.InetSocketAddress
+import java.net.URI
+import java.net.URLDecoder
+import java.text.SimpleDateFormat
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Embedded replacement of Stepik REST API, so connector can be tested and profiled without network.
+ *
+ * Serves [Settings.courses] synthetic public courses of plain text tasks. Objects posted by course uploading are stored
+ * and served back like on Stepik, so upload and following update work with the same server.
+ * Every other task is solved, unsolved tasks have a wrong submission.
+ *
+ * Connector sends requests to [StepikNames.STEPIK_URL], so it has to point to localhost (see [StepikNames.STEPIK_URL_PROPERTY])
+ * and the server is started on the port of this url.
+ */
+class MockStepikServer(private val settings: Settings = Settings()) : Closeable {
+
+  data class Settings(
+    val courses: Int = 10,
+    val sectionsPerCourse: Int = 3,
+    val lessonsPerSection: Int = 5,
+    val tasksPerLesson: Int = 5,
+    /** Delay before every response */
+    val latencyMs: Long = 0,
+    /** Share of GET requests failed with `503 Service Unavailable`. Uploading code treats failures as errors, so they aren't injected into it */
+    val errorRate: Double = 0.0
+  )
+
+  private val objects = ConcurrentHashMap<String, MutableMap<Int, JsonObject>>()
+  private val counters = ConcurrentHashMap<String, AtomicInteger>()
+  private val injectedErrors = AtomicInteger()
+  // ids far from ids of real courses requested by connector, e.g. in progress courses
+  private val nextId = AtomicInteger(1_000_000)
+  private val random = Random(42)
+  private val uploadedCourseIds = CopyOnWriteArrayList<Int>()
+  private val executor = Executors.newCachedThreadPool()
+  private val server: HttpServer
+
+  val publicCourseIds: List<Int> = (1..settings.courses).map { generateCourse(it) }
+
+  init {
+    server = HttpServer.create(InetSocketAddress("localhost", URI(StepikNames.STEPIK_URL).port), 0)
+    server.executor = executor
+    server.createContext(API_PATH) { exchange -> handle(exchange) }
+    server.start()
+  }
+
+  val requestCount: Int get() = counters.values.sumBy { it.get() }
+
+  /** Number of requests by method and collection, e.g. `GET steps` */
+  val requestCounts: Map<String, Int> get() = counters.mapValues { it.value.get() }.toSortedMap()
+
+  /** Number of requests failed because of [Settings.errorRate] */
+  val injectedErrorCount: Int get() = injectedErrors.get()
+
+  fun resetCounters() {
+    counters.clear()
+    injectedErrors.set(0)
+  }
+
+  override fun close() {
+    server.stop(0)
+    executor.shutdownNow()
+  }
+
+  private fun generateCourse(index: Int): Int {
+    val courseId = nextId.incrementAndGet()
+    val sectionIds = (1..settings.sectionsPerCourse).map { generateSection(courseId, it) }
+    store(COURSES, courseId, jsonObject(
+      "title" to "Course $index",
+      "summary" to "Synthetic course $index",
+      "course_format" to "${StepikNames.PYCHARM_PREFIX}$JSON_FORMAT_VERSION ${PlainTextLanguage.INSTANCE.id}",
+      "language" to "en",
+      "is_idea_compatible" to true,
+      "is_public" to true,
+      "instructors" to listOf(USER_ID),
+      "sections" to sectionIds
+    ))
+    return courseId
+  }
+
+  private fun generateSection(courseId: Int, position: Int): Int {
+    val sectionId = nextId.incrementAndGet()
+    val unitIds = (1..settings.lessonsPerSection).map { generateUnit(sectionId, it) }
+    store(SECTIONS, sectionId, jsonObject(
+      "title" to "Section $position",
+      "course" to courseId,
+      "position" to position,
+      "units" to unitIds
+    ))
+    return sectionId
+  }
+
+  private fun generateUnit(sectionId: Int, position: Int): Int {
+    val lessonId = nextId.incrementAndGet()
+    val stepIds = (1..settings.tasksPerLesson).map { generateStep(lessonId, it) }
+    store(LESSONS, lessonId, jsonObject(
+      "title" to "Lesson $position",
+      "steps" to stepIds,
+      "is_public" to true
+    ))
+    val unitId = nextId.incrementAndGet()
+    store(UNITS, unitId, jsonObject(
+      "section" to sectionId,
+      "lesson" to lessonId,
+      "position" to position
+    ))
+    return unitId
+  }
+
+  private fun generateStep(lessonId: Int, position: Int): Int {
+    val stepId = nextId.incrementAndGet()
+    val options = jsonObject(
+      "title" to "Task $position",
+      "task_type" to "edu",
+      "description_text" to "Solve task $position",
+      "description_format" to "html",
+      "files" to listOf(mapOf("name" to TASK_FILE_NAME, "text" to "task text $stepId", "placeholders" to emptyList<Any>())),
+      "test" to listOf(mapOf("name" to TEST_FILE_NAME, "text" to "test text $stepId")),
+      "format_version" to JSON_FORMAT_VERSION
+    )
+    store(STEPS, stepId, jsonObject(
+      "lesson" to lessonId,
+      "position" to position,
+      "progress" to "$PROGRESS_ID_PREFIX$stepId",
+      "block" to jsonObject("name" to StepikNames.PYCHARM_PREFIX, "text" to "Solve task $position", "options" to options)
+    ))
+    return stepId
+  }
+
+  private fun handle(exchange: HttpExchange) {
+    try {
+      val path = exchange.requestURI.path.removePrefix(API_PATH).split('/').filter { it.isNotEmpty() }
+      val collection = path.getOrElse(0) { "" }
+      val id = path.getOrNull(1)?.toIntOrNull()
+      val method = exchange.requestMethod
+      counters.getOrPut("$method $collection") { AtomicInteger() }.incrementAndGet()
+
+      if (settings.latencyMs > 0) {
+        Thread.sleep(settings.latencyMs)
+      }
+      val response = if (method == "GET" && random.nextDouble() < settings.errorRate) {
+        injectedErrors.incrementAndGet()
+        Response(HTTP_UNAVAILABLE, errorDetail("Injected error"))
+      }
+      else {
+        try {
+          when (method) {
+            "GET" -> get(collection, id, parseQuery(exchange.requestURI.rawQuery))
+            "POST" -> post(collection, readBody(exchange))
+            "PUT" -> put(collection, id, readBody(exchange))
+            "DELETE" -> delete(collection, id)
+            else -> Response(HTTP_BAD_METHOD, errorDetail("Unsupported method $method"))
+          }
+        }
+        catch (e: Exception) {
+          Response(HTTP_INTERNAL_ERROR, errorDetail(e.toString()))
+        }
+      }
+      respond(exchange, response)
+    }
+    finally {
+      exchange.close()
+    }
+  }
+
+  private fun get(collection: String, id: Int?, query: Map<String, List<String>>): Response {
+    val ids = if (id != null) listOf(id) else query["ids[]"].orEmpty().mapNotNull { it.toIntOrNull() }
+    val items = when (collection) {
+      COURSES -> return if (id != null) items(collection, ids) else coursesPage(query)
+      CURRENT_USER -> return Response(HTTP_OK, list(USERS, listOf(user(USER_ID))))
+      USERS -> ids.map { user(it) }
+      PROGRESSES -> query["ids[]"].orEmpty().map { progress(it) }
+      SUBMISSIONS -> submissions(query)
+      UNITS -> {
+        val lessonId = query["lesson"]?.firstOrNull()?.toInt() ?: return items(collection, ids)
+        storage(UNITS).values.filter { it["lesson"].asInt == lessonId }
+      }
+      ENROLLMENTS, ASSIGNMENTS -> emptyList()
+      else -> return items(collection, ids)
+    }
+    return Response(HTTP_OK, list(collection, items))
+  }
+
+  private fun items(collection: String, ids: List<Int>): Response {
+    val storage = storage(collection)
+    return Response(HTTP_OK, list(collection, ids.mapNotNull { storage[it] }))
+  }
+
+  private fun coursesPage(query: Map<String, List<String>>): Response {
+    val isPublic = query["is_public"]?.firstOrNull()?.toBoolean() ?: true
+    val page = query["page"]?.firstOrNull()?.toInt() ?: 1
+    val courseIds = if (isPublic) publicCourseIds else uploadedCourseIds
+    val from = minOf((page - 1) * PAGE_SIZE, courseIds.size)
+    val to = minOf(page * PAGE_SIZE, courseIds.size)
+    val storage = storage(COURSES)
+    val meta = jsonObject("page" to page, "has_next" to (to < courseIds.size), "has_previous" to (page > 1))
+    return Response(HTTP_OK, list(COURSES, courseIds.subList(from, to).mapNotNull { storage[it] }, meta))
+  }
+
+  private fun user(id: Int): JsonObject = jsonObject("id" to id, "first_name" to "User", "last_name" to "$id")
+
+  private fun progress(progressId: String): JsonObject {
+    val stepId = progressId.removePrefix(PROGRESS_ID_PREFIX).toIntOrNull() ?: 0
+    return jsonObject("id" to progressId, "is_passed" to isSolved(stepId))
+  }
+
+  private fun submissions(query: Map<String, List<String>>): List<JsonObject> {
+    val stepId = query["step"]?.firstOrNull()?.toIntOrNull() ?: return emptyList()
+    val status = query["status"]?.firstOrNull()
+    if (status != null && status != statusOf(stepId)) return emptyList()
+    val reply = jsonObject(
+      "score" to if (isSolved(stepId)) "1" else "0",
+      "solution" to listOf(mapOf("name" to TASK_FILE_NAME, "text" to "solution $stepId")),
+      "version" to JSON_FORMAT_VERSION
+    )
+    return listOf(jsonObject("id" to stepId, "step" to stepId, "status" to statusOf(stepId), "reply" to reply))
+  }
+
+  private fun isSolved(stepId: Int): Boolean = stepId % 2 == 0
+
+  private fun statusOf(stepId: Int): String = if (isSolved(stepId)) "correct" else "wrong"
+
+  private fun post(collection: String, body: JsonObject): Response {
+    // body is `{"<item name>": {...}}`
+    val item = body.entrySet().singleOrNull()?.value as? JsonObject
+               ?: return Response(HTTP_BAD_REQUEST, errorDetail("Unexpected request body"))
+    val id = nextId.incrementAndGet()
+    when (storageName(collection)) {
+      COURSES -> {
+        item.add("sections", JsonArray())
+        item.addProperty("admins_group", id.toString())
+        uploadedCourseIds += id
+      }
+      LESSONS -> item.add("steps", JsonArray())
+      SECTIONS -> item.add("units", JsonArray())
+      STEPS -> item.addProperty("progress", "$PROGRESS_ID_PREFIX$id")
+    }
+    store(collection, id, item)
+    PARENTS[storageName(collection)]?.let { parent -> parent.children(item)?.add(id) }
+    return Response(HTTP_CREATED, list(collection, listOf(item)))
+  }
+
+  private fun put(collection: String, id: Int?, body: JsonObject): Response {
+    val existing = id?.let { storage(collection)[it] } ?: return Response(HTTP_NOT_FOUND, errorDetail("Not found"))
+    val item = body.entrySet().singleOrNull()?.value as? JsonObject
+               ?: return Response(HTTP_BAD_REQUEST, errorDetail("Unexpected request body"))
+    val updated = existing.deepCopy()
+    for ((key, value) in item.entrySet()) {
+      // children lists are changed only by creating and deleting children, as on Stepik
+      if (key !in READ_ONLY_PROPERTIES) {
+        updated.add(key, value)
+      }
+    }
+    store(collection, id, updated)
+    return Response(HTTP_OK, list(collection, listOf(updated)))
+  }
+
+  private fun delete(collection: String, id: Int?): Response {
+    val item = id?.let { storage(collection).remove(it) } ?: return Response(HTTP_NOT_FOUND, errorDetail("Not found"))
+    val children = PARENTS[storageName(collection)]?.let { parent -> parent.children(item) }
+    val index = children?.indexOfFirst { it.asInt == id } ?: -1
+    if (index >= 0) {
+      children?.remove(index)
+    }
+    return Response(HTTP_NO_CONTENT, null)
+  }
+
+  private fun store(collection: String, id: Int, item: JsonObject) {
+    val date = formatDate(Date())
+    item.addProperty("id", id)
+    item.addProperty("update_date", date)
+    replaceDates(item, date)
+    storage(collection)[id] = item
+  }
+
+  private fun storage(collection: String): MutableMap<Int, JsonObject> =
+    objects.getOrPut(storageName(collection)) { ConcurrentHashMap() }
+
+  /** Posted items keep dates in default Gson format, so all dates are replaced with date of the last change in Stepik format */
+  private fun replaceDates(element: JsonElement, date: String) {
+    when {
+      element.isJsonObject -> for ((key, value) in element.asJsonObject.entrySet()) {
+        if (key.endsWith("_date") && value.isJsonPrimitive) {
+          element.asJsonObject.addProperty(key, date)
+        }
+        else {
+          replaceDates(value, date)
+        }
+      }
+      element.isJsonArray -> element.asJsonArray.forEach { replaceDates(it, date) }
+    }
+  }
+
+  private fun ParentLink.children(item: JsonObject): JsonArray? {
+    val parentId = item[parentProperty]?.takeIf { it.isJsonPrimitive }?.asInt ?: return null
+    return storage(parentCollection)[parentId]?.getAsJsonArray(childrenProperty)
+  }
+
+  private class ParentLink(val parentProperty: String, val parentCollection: String, val childrenProperty: String)
+
+  private class Response(val status: Int, val body: JsonObject?)
+
+  companion object {
+    private const val API_PATH = "/api"
+    const val PAGE_SIZE = 20
+    private const val USER_ID = 1
+    const val TASK_FILE_NAME = "Task.txt"
+    const val TEST_FILE_NAME = "Tests.txt"
+
+    private const val COURSES = "courses"
+    private const val SECTIONS = "sections"
+    private const val UNITS = "units"
+    private const val LESSONS = "lessons"
+    private const val STEPS = "steps"
+    private const val STEP_SOURCES = "step-sources"
+    private const val PROGRESSES = "progresses"
+    private const val SUBMISSIONS = "submissions"
+    private const val USERS = "users"
+    private const val CURRENT_USER = "stepics"
+    private const val ENROLLMENTS = "enrollments"
+    private const val ASSIGNMENTS = "assignments"
+
+    private val READ_ONLY_PROPERTIES = setOf("id", "sections", "units", "steps")
+
+    private val PARENTS = mapOf(
+      SECTIONS to ParentLink("course", COURSES, "sections"),
+      UNITS to ParentLink("section", SECTIONS, "units"),
+      STEPS to ParentLink("lesson", LESSONS, "steps")
+    )
+
+    private val GSON = Gson()
+
+    /** `true` if connector sends requests to local server, so mock server can be used */
+    @JvmStatic
+    val isEnabled: Boolean
+      get() = URI(StepikNames.STEPIK_URL).host == "localhost"
+
+    /** Step sources are steps with editable content */
+    private fun storageName(collection: String): String = if (collection == STEP_SOURCES) STEPS else collection
+
+    private fun jsonObject(vararg properties: Pair<String, Any>): JsonObject {
+      val result = JsonObject()
+      for ((key, value) in properties) {
+        result.add(key, GSON.toJsonTree(value))
+      }
+      return result
+    }
+
+    private fun list(collection: String, items: List<JsonObject>, meta: JsonObject = jsonObject("page" to 1, "has_next" to false)): JsonObject {
+      val result = JsonObject()
+      result.add(collection, JsonArray().apply { items.forEach { add(it) } })
+      result.add("meta", meta)
+      return result
+    }
+
+    private fun errorDetail(message: String): JsonObject = jsonObject("detail" to message)
+
+    private fun formatDate(date: Date): String {
+      val format = SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ", Locale.US)
+      format.timeZone = TimeZone.getTimeZone("UTC")
+      return format.format(date)
+    }
+
+    private fun parseQuery(rawQuery: String?): Map<String, List<String>> {
+      if (rawQuery.isNullOrEmpty()) return emptyMap()
+      return rawQuery.split('&')
+        .map { it.split('=', limit = 2) }
+        .groupBy({ URLDecoder.decode(it[0], "UTF-8") }, { URLDecoder.decode(it.getOrElse(1) { "" }, "UTF-8") })
+    }
+
+    private fun readBody(exchange: HttpExchange): JsonObject {
+      val text = exchange.requestBody.reader(Charsets.UTF_8).readText()
+      return if (text.isBlank()) JsonObject() else JsonParser().parse(text).asJsonObject
+    }
+
+    private fun respond(exchange: HttpExchange, response: Response) {
+      val bytes = response.body?.toString()?.toByteArray(Charsets.UTF_8)
+      exchange.responseHeaders.add("Content-Type", "application/json")
+      if (bytes == null) {
+        exchange.sendResponseHeaders(response.status, -1)
+      }
+      else {
+        exchange.sendResponseHeaders(response.status, bytes.size.toLong())
+        exchange.responseBody.write(bytes)
+      }
+    }
+  }
+}
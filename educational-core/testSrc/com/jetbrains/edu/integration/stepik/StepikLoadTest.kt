@@ -0,0 +1,197 @@
+package com.jetbrains.edu.integration.stepik
+
+import com.intellij.openapi.diagnostic.Logger
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.coursecreator.actions.stepik.CCPushCourse
+import com.jetbrains.edu.learning.EduSettings
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.authUtils.TokenInfo
+import com.jetbrains.edu.learning.courseFormat.RemoteCourse
+import com.jetbrains.edu.learning.courseFormat.StepikChangeStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.stepik.StepikAuthorizedClient
+import com.jetbrains.edu.learning.stepik.StepikConnector
+import com.jetbrains.edu.learning.stepik.StepikNames
+import com.jetbrains.edu.learning.stepik.StepikSolutionsLoader
+import java.io.IOException
+
+/**
+ * Checks number of requests of Stepik connector operations against [MockStepikServer] and logs their time.
+ *
+ * Run with `gradle :educational-core:test --tests *StepikLoadTest -PmockStepikUrl=http://localhost:8095`.
+ * Without `mockStepikUrl` connector sends requests to real Stepik, so the tests are not run.
+ */
+class StepikLoadTest : EduTestCase() {
+
+  override fun shouldRunTest(): Boolean {
+    if (!MockStepikServer.isEnabled) {
+      LOG.info("${StepikNames.STEPIK_URL} is not a local url, pass `-PmockStepikUrl=http://localhost:<port>` to use mock server")
+      return false
+    }
+    return super.shouldRunTest()
+  }
+
+  override fun tearDown() {
+    try {
+      EduSettings.getInstance().user = null
+    }
+    finally {
+      super.tearDown()
+    }
+  }
+
+  fun `test course list loading`() = withServer(MockStepikServer.Settings(courses = 100, latencyMs = LATENCY_MS)) { server ->
+    val courses = server.measure("Course list") { StepikConnector.getCourseInfos(null) }
+    assertEquals(server.publicCourseIds, courses.map { it.id }.filter { it in server.publicCourseIds })
+    // public courses are loaded page by page, authors of all courses are loaded with a single request
+    val publicPages = (server.publicCourseIds.size + MockStepikServer.PAGE_SIZE - 1) / MockStepikServer.PAGE_SIZE
+    assertTrue(server.requestCounts.getValue("GET courses") >= publicPages)
+    assertEquals(1, server.requestCounts["GET users"])
+  }
+
+  fun `test course structure loading`() = withServer(LARGE_COURSE) { server ->
+    val course = loadCourse(server)
+    assertEquals(LARGE_COURSE.sectionsPerCourse, course.sections.size)
+    assertEquals(LARGE_COURSE.taskCount, course.allTasks.size)
+    assertEquals(LARGE_COURSE.structureRequestCounts, server.requestCounts)
+  }
+
+  fun `test course structure loading with errors`() = withServer(LARGE_COURSE.copy(errorRate = 0.02)) { server ->
+    // errors are generated with fixed seed, so the first requests of course info succeed
+    val courseInfo = StepikConnector.getCourseInfo(null, server.publicCourseIds.first(), true)
+                     ?: error("Course ${server.publicCourseIds.first()} is not found")
+    val failure = server.measure("Course structure with errors") {
+      try {
+        StepikConnector.fillItems(courseInfo)
+        null
+      }
+      catch (e: IOException) {
+        e
+      }
+    }
+
+    // connector doesn't retry failed requests
+    val maxRequestCounts = LARGE_COURSE.structureRequestCounts
+    for ((request, count) in server.requestCounts) {
+      val maxCount = maxRequestCounts[request] ?: error("Unexpected request `$request`")
+      assertTrue("Too many `$request` requests: $count", count <= maxCount)
+    }
+    // failed request breaks loading of the whole structure, so course is never loaded partially
+    if (server.injectedErrorCount == 0) {
+      assertNull(failure)
+      assertEquals(LARGE_COURSE.taskCount, courseInfo.allTasks.size)
+    }
+    else {
+      LOG.info("Course structure loading failed after ${server.injectedErrorCount} injected errors: ${failure?.message}")
+      assertEmpty(courseInfo.allTasks)
+    }
+  }
+
+  fun `test solutions loading`() = withServer(LARGE_COURSE) { server ->
+    val course = loadCourse(server)
+    course.init(null, null, false)
+    val tasksToUpdate = server.measure("Solutions") { StepikSolutionsLoader.getInstance(project).tasksToUpdate(course) }
+    // solved tasks have no local status yet and unsolved ones have wrong submissions
+    assertEquals(course.allTasks.size, tasksToUpdate.size)
+    // progresses are requested in batches
+    val progressBatches = (course.allTasks.size + StepikConnector.MAX_REQUEST_PARAMS - 1) / StepikConnector.MAX_REQUEST_PARAMS
+    assertEquals(progressBatches, server.requestCounts["GET progresses"])
+    assertTrue(server.requestCounts.getOrDefault("GET submissions", 0) <= course.allTasks.size)
+  }
+
+  fun `test course uploading`() = withServer(MockStepikServer.Settings(courses = 0, latencyMs = LATENCY_MS)) { server ->
+    login()
+    val localCourse = courseWithFiles(courseMode = CCUtils.COURSE_MODE) {
+      for (sectionIndex in 1..UPLOADED_SECTIONS) {
+        section("section$sectionIndex") {
+          for (lessonIndex in 1..UPLOADED_LESSONS) {
+            lesson("lesson$lessonIndex") {
+              for (taskIndex in 1..UPLOADED_TASKS) {
+                eduTask("task$taskIndex") {
+                  taskFile(MockStepikServer.TASK_FILE_NAME)
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    server.measure("Course upload") { CCPushCourse.doPush(project, localCourse) }
+    val course = StudyTaskManager.getInstance(project).course as RemoteCourse
+    assertTrue(course.id > 0)
+    assertEquals(1, server.requestCounts["POST courses"])
+    assertEquals(UPLOADED_SECTIONS, server.requestCounts["POST sections"])
+    assertTrue(server.requestCounts.getValue("POST lessons") >= UPLOADED_SECTIONS * UPLOADED_LESSONS)
+    assertTrue(server.requestCounts.getValue("POST step-sources") >= UPLOADED_SECTIONS * UPLOADED_LESSONS * UPLOADED_TASKS)
+
+    val changedTasks = course.allTasks.filter { it.name == "task1" }
+    for (task in changedTasks) {
+      task.stepikChangeStatus = StepikChangeStatus.INFO_AND_CONTENT
+    }
+    server.measure("Course update") { CCPushCourse.doPush(project, course) }
+    // only changed tasks are updated and nothing new is created
+    assertEquals(changedTasks.size, server.requestCounts["PUT step-sources"])
+    assertNull(server.requestCounts["POST sections"])
+    assertNull(server.requestCounts["POST lessons"])
+  }
+
+  private fun loadCourse(server: MockStepikServer): RemoteCourse {
+    val course = StepikConnector.getCourseInfo(null, server.publicCourseIds.first(), true)
+                 ?: error("Course ${server.publicCourseIds.first()} is not found")
+    server.measure("Course structure") { StepikConnector.fillItems(course) }
+    return course
+  }
+
+  private fun login() {
+    val tokenInfo = TokenInfo().apply {
+      accessToken = "access token"
+      refreshToken = "refresh token"
+      expiresIn = System.currentTimeMillis() / 1000 + 3600
+    }
+    EduSettings.getInstance().user = StepikAuthorizedClient.login(tokenInfo)
+  }
+
+  private fun withServer(settings: MockStepikServer.Settings, test: (MockStepikServer) -> Unit) {
+    MockStepikServer(settings).use(test)
+  }
+
+  private val RemoteCourse.allTasks: List<Task>
+    get() = lessons.plus(sections.flatMap { it.lessons }).flatMap { it.taskList }
+
+  private fun <T> MockStepikServer.measure(name: String, action: () -> T): T {
+    resetCounters()
+    val start = System.nanoTime()
+    val result = action()
+    val timeMs = maxOf((System.nanoTime() - start) / 1_000_000, 1L)
+    LOG.info("$name: $timeMs ms, $requestCount requests (${requestCount * 1000 / timeMs} requests/s) $requestCounts")
+    return result
+  }
+
+  companion object {
+    private val LOG: Logger = Logger.getInstance(StepikLoadTest::class.java)
+
+    private const val LATENCY_MS = 20L
+    private const val UPLOADED_SECTIONS = 3
+    private const val UPLOADED_LESSONS = 3
+    private const val UPLOADED_TASKS = 3
+
+    private val LARGE_COURSE = MockStepikServer.Settings(courses = 1, sectionsPerCourse = 10, lessonsPerSection = 10,
+                                                         tasksPerLesson = 10, latencyMs = LATENCY_MS)
+
+    private val MockStepikServer.Settings.taskCount: Int
+      get() = sectionsPerCourse * lessonsPerSection * tasksPerLesson
+
+    /**
+     * Sections are requested together, then units and lessons are requested for every section
+     * and steps for every lesson (assuming each of them fits into a single request)
+     */
+    private val MockStepikServer.Settings.structureRequestCounts: Map<String, Int>
+      get() = mapOf(
+        "GET sections" to 1,
+        "GET units" to sectionsPerCourse,
+        "GET lessons" to sectionsPerCourse,
+        "GET steps" to sectionsPerCourse * lessonsPerSection
+      )
+  }
+}
@@ -0,0 +1,46 @@
+package com.jetbrains.edu.learning
+
+import com.intellij.testFramework.UsefulTestCase
+import com.jetbrains.edu.learning.statistics.EduMetrics
+
+class EduMetricsTest : UsefulTestCase() {
+  private var wasEnabled = false
+
+  override fun setUp() {
+    super.setUp()
+    wasEnabled = EduMetrics.isEnabled
+    EduMetrics.reset()
+  }
+
+  override fun tearDown() {
+    try {
+      EduMetrics.isEnabled = wasEnabled
+      EduMetrics.reset()
+    }
+    finally {
+      super.tearDown()
+    }
+  }
+
+  fun `test values are collected when enabled`() {
+    EduMetrics.isEnabled = true
+    EduMetrics.time("test.timer") { }
+    EduMetrics.increment("test.counter")
+    EduMetrics.add("test.counter", 2)
+    EduMetrics.record("test.histogram", 100)
+
+    val snapshot = EduMetrics.snapshot()
+    assertTrue(snapshot, snapshot.contains("test.timer"))
+    assertTrue(snapshot, Regex("test\\.counter\\s+3\\n").containsMatchIn(snapshot))
+    assertTrue(snapshot, snapshot.contains("test.histogram"))
+  }
+
+  fun `test nothing is collected when disabled`() {
+    EduMetrics.isEnabled = false
+    EduMetrics.startTimer("test.timer").stop()
+    EduMetrics.increment("test.counter")
+    EduMetrics.record("test.histogram", 100)
+
+    assertEquals("No metrics collected", EduMetrics.snapshot())
+  }
+}
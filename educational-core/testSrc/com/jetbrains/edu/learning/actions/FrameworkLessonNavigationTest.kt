@@ -8,6 +8,7 @@ import com.jetbrains.edu.coursecreator.CCUtils
 import com.jetbrains.edu.learning.*
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.FrameworkLesson
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.navigation.NavigationUtils
 
@@ -196,6 +197,44 @@ class FrameworkLessonNavigationTest : EduTestCase() {
     }.assertEquals(rootDir, myFixture)
   }
 
+  fun `test jump over several tasks`() {
+    val course = createFrameworkCourse()
+    val task1 = course.findTask("lesson1", "task1")
+    val task3 = course.findTask("lesson1", "task3")
+
+    withVirtualFileListener(course) {
+      task1.openTaskFileInEditor("fizz.kt", 0)
+      myFixture.type("\"Fizz\"")
+      task1.status = CheckStatus.Solved
+      NavigationUtils.navigateToTask(project, task3, task1)
+    }
+
+    assertEquals(2, course.lessons[0].let { it as FrameworkLesson }.currentTaskIndex)
+    fileTree {
+      dir("lesson1") {
+        dir("task") {
+          file("fizzBuzz.kt", """
+            fn fizzBuzz() = TODO() + TODO()
+          """)
+        }
+      }
+    }.assertEquals(rootDir, myFixture)
+
+    withVirtualFileListener(course) {
+      NavigationUtils.navigateToTask(project, task1, task3)
+    }
+
+    fileTree {
+      dir("lesson1") {
+        dir("task") {
+          file("fizz.kt", """
+            fn fizz() = "Fizz"
+          """)
+        }
+      }
+    }.assertEquals(rootDir, myFixture)
+  }
+
   fun `test navigation in CC mode`() {
     val course = createFrameworkCourse(CCUtils.COURSE_MODE)
     val task1 = course.findTask("lesson1", "task1")
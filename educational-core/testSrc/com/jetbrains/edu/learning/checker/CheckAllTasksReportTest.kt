@@ -0,0 +1,77 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.testFramework.UsefulTestCase
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.Lesson
+import com.jetbrains.edu.learning.courseFormat.Section
+import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+
+class CheckAllTasksReportTest : UsefulTestCase() {
+
+  fun `test all solved`() {
+    val lesson = lesson("lesson1")
+    val reports = listOf(
+      TaskCheckReport(task(lesson, "task1"), CheckResult(CheckStatus.Solved, "Congratulations!"), 1000),
+      TaskCheckReport(task(lesson, "task2"), CheckResult(CheckStatus.Solved, "Congratulations!"), 3000)
+    )
+
+    assertEquals("""
+      |Checked 2 tasks in ${duration(5000)}: 2 solved, 0 failed, 0 not checked
+      |
+      |Timings:
+      |  lesson1/task2: Solved, ${duration(3000)}
+      |  lesson1/task1: Solved, ${duration(1000)}
+      |""".trimMargin(), normalize(CheckAllTasksRunner.formatReport(reports, 5000)))
+  }
+
+  fun `test failed and not checked tasks`() {
+    val lesson1 = lesson("lesson1")
+    val lesson2 = lesson("lesson2", "section1")
+    val reports = listOf(
+      TaskCheckReport(task(lesson1, "task1"), CheckResult(CheckStatus.Solved, "Congratulations!"), 1000),
+      TaskCheckReport(task(lesson1, "task2"), CheckResult(CheckStatus.Failed, "Expected:\n1\nActual:\n2"), 2000),
+      TaskCheckReport(task(lesson2, "task1"), CheckResult(CheckStatus.Failed, CheckUtils.COMPILATION_FAILED_MESSAGE, "e: error"), 500),
+      TaskCheckReport(task(lesson2, "task2"), CheckResult.FAILED_TO_CHECK, 0)
+    )
+
+    assertEquals("""
+      |Checked 4 tasks in ${duration(4000)}: 1 solved, 2 failed, 1 not checked
+      |
+      |Failed:
+      |  lesson1/task2: Expected:
+      |  section1/lesson2/task1: ${CheckUtils.COMPILATION_FAILED_MESSAGE}
+      |
+      |Not checked:
+      |  section1/lesson2/task2: ${CheckUtils.FAILED_TO_CHECK_MESSAGE}
+      |
+      |Timings:
+      |  lesson1/task2: Failed, ${duration(2000)}
+      |  lesson1/task1: Solved, ${duration(1000)}
+      |  section1/lesson2/task1: Failed, ${duration(500)}
+      |  section1/lesson2/task2: Unchecked, ${duration(0)}
+      |""".trimMargin(), normalize(CheckAllTasksRunner.formatReport(reports, 4000)))
+  }
+
+  fun `test limit exceeded`() {
+    val lesson = lesson("lesson1")
+    val limitResult = CheckProcessOutput("", "", StopReason.TIMEOUT, CheckLimits.DEFAULT).limitExceededResult!!
+    val report = CheckAllTasksRunner.formatReport(listOf(TaskCheckReport(task(lesson, "task1"), limitResult, 60000)), 60000)
+
+    assertTrue(normalize(report).contains("Failed:\n  lesson1/task1: Time limit exceeded: solution was running for more than 60 seconds\n"))
+  }
+
+  private fun lesson(name: String, sectionName: String? = null): Lesson = Lesson().apply {
+    this.name = name
+    if (sectionName != null) {
+      section = Section().apply { this.name = sectionName }
+    }
+  }
+
+  private fun task(lesson: Lesson, name: String): Task = EduTask(name).apply { this.lesson = lesson }
+
+  private fun duration(ms: Long): String = StringUtil.formatDuration(ms)
+
+  private fun normalize(report: String): String = StringUtil.convertLineSeparators(report)
+}
@@ -0,0 +1,83 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.testFramework.UsefulTestCase
+
+class CheckProcessOutputTest : UsefulTestCase() {
+
+  fun `test split lines`() {
+    assertEquals(listOf("a", "b", "c"), split("a\nb\nc\n"))
+  }
+
+  fun `test split CRLF lines`() {
+    assertEquals(listOf("a", "b", ""), split("a\r\nb\r\n\r\n"))
+  }
+
+  fun `test CRLF split between chunks`() {
+    assertEquals(listOf("a", "b"), split("a\r", "\nb\r", "\n"))
+  }
+
+  fun `test partial lines`() {
+    assertEquals(listOf("Hello", "World"), split("He", "llo\nWo", "r", "ld\n"))
+  }
+
+  fun `test unterminated last line is processed on flush`() {
+    val lines = mutableListOf<String>()
+    val splitter = LineSplitter()
+    splitter.append("a\nb") { lines.add(it) }
+    assertEquals(listOf("a"), lines)
+    assertTrue(splitter.flush { lines.add(it) })
+    assertEquals(listOf("a", "b"), lines)
+  }
+
+  fun `test flush without pending line`() {
+    val lines = mutableListOf<String>()
+    val splitter = LineSplitter()
+    splitter.append("a\n") { lines.add(it) }
+    assertTrue(splitter.flush { lines.add(it) })
+    assertEquals(listOf("a"), lines)
+  }
+
+  fun `test processing stops when line is rejected`() {
+    val lines = mutableListOf<String>()
+    val splitter = LineSplitter()
+    assertFalse(splitter.append("a\nb\nc\n") { lines.add(it); it != "b" })
+    assertEquals(listOf("a", "b"), lines)
+  }
+
+  fun `test buffer within limit`() {
+    val buffer = BoundedOutputBuffer(10)
+    buffer.append("12345")
+    buffer.append("67890")
+    assertEquals("1234567890", buffer.toString())
+  }
+
+  fun `test buffer over limit before trimming`() {
+    val buffer = BoundedOutputBuffer(10)
+    buffer.append("1234567890")
+    buffer.append("ab")
+    assertEquals(CheckProcessRunner.TRUNCATED_OUTPUT_PREFIX + "34567890ab", buffer.toString())
+  }
+
+  fun `test buffer keeps last characters after trimming`() {
+    val buffer = BoundedOutputBuffer(10)
+    // "abc0abc1...abc9"
+    repeat(10) { buffer.append("abc$it") }
+    assertEquals(CheckProcessRunner.TRUNCATED_OUTPUT_PREFIX + "c7abc8abc9", buffer.toString())
+  }
+
+  fun `test buffer exactly at limit is not truncated`() {
+    val buffer = BoundedOutputBuffer(10)
+    buffer.append("1234567890")
+    assertEquals("1234567890", buffer.toString())
+  }
+
+  private fun split(vararg chunks: String): List<String> {
+    val lines = mutableListOf<String>()
+    val splitter = LineSplitter()
+    for (chunk in chunks) {
+      splitter.append(chunk) { lines.add(it) }
+    }
+    splitter.flush { lines.add(it) }
+    return lines
+  }
+}
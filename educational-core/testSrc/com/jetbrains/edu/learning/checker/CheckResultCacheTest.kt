@@ -0,0 +1,116 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.application.runWriteAction
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.vfs.VfsUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.gradle.GradleConstants
+
+class CheckResultCacheTest : EduTestCase() {
+
+  fun `test hash is stable for unchanged solution`() {
+    createCourse()
+    assertEquals(computeHash(), computeHash())
+  }
+
+  fun `test hash changes on task file edit`() {
+    createCourse()
+    val before = computeHash()
+    setText(findFileInTask(0, 0, "Task.kt"), "fun foo() = 2")
+    assertFalse(before == computeHash())
+  }
+
+  fun `test hash changes on test edit`() {
+    createCourse()
+    val before = computeHash()
+    setText(findFile("lesson1/task1/Tests.kt"), "fun test() = Unit")
+    assertFalse(before == computeHash())
+  }
+
+  fun `test hash changes on build gradle edit`() {
+    createCourse()
+    val buildGradle = createCourseFile(GradleConstants.BUILD_GRADLE, "apply plugin: 'java'")
+    val before = computeHash()
+    setText(buildGradle, "apply plugin: 'kotlin'")
+    assertFalse(before == computeHash())
+  }
+
+  fun `test hash changes on test helper edit`() {
+    createCourse()
+    val testHelper = createCourseFile(EduNames.TEST_HELPER, "def check(): pass")
+    val before = computeHash()
+    setText(testHelper, "def check(): return 1")
+    assertFalse(before == computeHash())
+  }
+
+  fun `test hash changes on util file edit`() {
+    createCourse()
+    val utilFile = createCourseFile("${EduNames.UTIL}/src/Util.kt", "fun util() = 1")
+    val before = computeHash()
+    setText(utilFile, "fun util() = 2")
+    assertFalse(before == computeHash())
+  }
+
+  fun `test hash changes on util file creation`() {
+    createCourse()
+    createCourseFile("${EduNames.UTIL}/src/Util.kt", "fun util() = 1")
+    val before = computeHash()
+    createCourseFile("${EduNames.UTIL}/src/Util2.kt", "fun util2() = 1")
+    assertFalse(before == computeHash())
+  }
+
+  fun `test hash changes on nested test file edit`() {
+    createCourse()
+    val testFile = createCourseFile("lesson1/task1/test/data/Expected.txt", "1")
+    val before = computeHash()
+    setText(testFile, "2")
+    assertFalse(before == computeHash())
+  }
+
+  fun `test hash changes on additional file edit`() {
+    createCourse()
+    val before = computeHash()
+    setText(findFile("lesson1/task1/resources/input.txt"), "2")
+    assertFalse(before == computeHash())
+  }
+
+  fun `test hash doesn't change on flushed windows`() {
+    createCourse()
+    val before = computeHash()
+    createCourseFile("lesson1/task1/Task${EduNames.WINDOWS_POSTFIX}", "#educational_plugin_window = 1")
+    assertEquals(before, computeHash())
+  }
+
+  private fun createCourse() {
+    courseWithFiles {
+      lesson {
+        eduTask {
+          taskFile("Task.kt", "fun foo() = 1")
+          testFile("Tests.kt", "fun test() = assert(foo() == 1)")
+          additionalFile("resources/input.txt", "1")
+        }
+      }
+    }
+  }
+
+  private fun computeHash(): String {
+    val task = findTask(0, 0)
+    return CheckResultCache.getInstance(project).computeSolutionHash(task, TaskChecker(task, project))
+           ?: error("Failed to compute hash")
+  }
+
+  private fun createCourseFile(path: String, text: String): VirtualFile = runWriteAction {
+    val dirPath = path.substringBeforeLast("/", "")
+    val dir = if (dirPath.isEmpty()) EduUtils.getCourseDir(project) else VfsUtil.createDirectoryIfMissing(EduUtils.getCourseDir(project), dirPath)
+    val file = dir.createChildData(this, path.substringAfterLast("/"))
+    VfsUtil.saveText(file, text)
+    file
+  }
+
+  private fun setText(file: VirtualFile, text: String) {
+    runWriteAction { FileDocumentManager.getInstance().getDocument(file)!!.setText(text) }
+  }
+}
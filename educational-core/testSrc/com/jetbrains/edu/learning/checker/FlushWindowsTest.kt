@@ -0,0 +1,33 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.util.io.FileUtil
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.EduTestCase
+import java.nio.charset.Charset
+import java.nio.file.Files
+import java.nio.file.Path
+
+class FlushWindowsTest : EduTestCase() {
+
+  fun `test task files with the same name in different dirs`() {
+    courseWithFiles {
+      lesson {
+        eduTask {
+          taskFile("first/Task.txt", "val a = <p>1</p>")
+          taskFile("second/Task.txt", "val b = <p>2</p>")
+        }
+      }
+    }
+    val task = findTask(0, 0)
+    val windowsDir = CheckUtils.flushWindowsToTempDir(task, task.getTaskDir(project)!!)
+    try {
+      assertEquals(listOf("${CheckUtils.WINDOW_PREFIX}1"), readLines(windowsDir.resolve("first/Task${EduNames.WINDOWS_POSTFIX}")))
+      assertEquals(listOf("${CheckUtils.WINDOW_PREFIX}2"), readLines(windowsDir.resolve("second/Task${EduNames.WINDOWS_POSTFIX}")))
+    }
+    finally {
+      FileUtil.delete(windowsDir.toFile())
+    }
+  }
+
+  private fun readLines(path: Path): List<String> = Files.readAllLines(path, Charset.defaultCharset())
+}
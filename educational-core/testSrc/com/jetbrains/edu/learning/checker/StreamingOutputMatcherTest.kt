@@ -0,0 +1,63 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.testFramework.UsefulTestCase
+
+class StreamingOutputMatcherTest : UsefulTestCase() {
+
+  fun `test full match`() {
+    val matcher = StreamingOutputMatcher("Hello\nWorld\n")
+    assertTrue(matcher.processLine("Hello"))
+    assertFalse(matcher.isMatched)
+    assertTrue(matcher.processLine("World"))
+    assertTrue(matcher.isMatched)
+    assertFalse(matcher.isMismatched)
+  }
+
+  fun `test expected output without last line break`() {
+    val matcher = StreamingOutputMatcher("Hello\nWorld")
+    assertTrue(matcher.processLine("Hello"))
+    assertTrue(matcher.processLine("World"))
+    assertTrue(matcher.isMatched)
+  }
+
+  fun `test expected output with CRLF`() {
+    val matcher = StreamingOutputMatcher("Hello\r\nWorld\r\n")
+    assertTrue(matcher.processLine("Hello"))
+    assertTrue(matcher.processLine("World"))
+    assertTrue(matcher.isMatched)
+  }
+
+  fun `test mismatch on first line`() {
+    val matcher = StreamingOutputMatcher("Hello\nWorld\n")
+    assertFalse(matcher.processLine("Bye"))
+    assertTrue(matcher.isMismatched)
+    assertFalse(matcher.isMatched)
+    // mismatch is final
+    assertFalse(matcher.processLine("Hello"))
+    assertTrue(matcher.isMismatched)
+  }
+
+  fun `test mismatch on last line`() {
+    val matcher = StreamingOutputMatcher("Hello\nWorld\n")
+    assertTrue(matcher.processLine("Hello"))
+    assertFalse(matcher.processLine("World!"))
+    assertTrue(matcher.isMismatched)
+    assertFalse(matcher.isMatched)
+  }
+
+  fun `test extra line`() {
+    val matcher = StreamingOutputMatcher("Hello\n")
+    assertTrue(matcher.processLine("Hello"))
+    assertTrue(matcher.isMatched)
+    assertFalse(matcher.processLine(""))
+    assertTrue(matcher.isMismatched)
+    assertFalse(matcher.isMatched)
+  }
+
+  fun `test missing lines`() {
+    val matcher = StreamingOutputMatcher("Hello\nWorld\n")
+    assertTrue(matcher.processLine("Hello"))
+    assertFalse(matcher.isMatched)
+    assertFalse(matcher.isMismatched)
+  }
+}
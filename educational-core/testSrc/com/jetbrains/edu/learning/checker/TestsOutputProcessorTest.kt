@@ -0,0 +1,113 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.testFramework.UsefulTestCase
+import com.jetbrains.edu.learning.checker.TestsOutputParser.TEST_RESULT_PREFIX
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+
+class TestsOutputProcessorTest : UsefulTestCase() {
+
+  fun `test structured passed results`() {
+    val processor = process(
+      """$TEST_RESULT_PREFIX{"test": "test1", "passed": true}""",
+      """$TEST_RESULT_PREFIX{"test": "test2", "passed": true}"""
+    )
+    assertEquals(listOf("test1", "test2"), processor.testResults.map { it.name })
+    assertTrue(processor.testResults.all { it.isPassed })
+    assertEquals(CheckStatus.Solved, processor.checkResult.status)
+    assertEquals(TestsOutputParser.CONGRATULATIONS, processor.checkResult.message)
+  }
+
+  fun `test structured failed result`() {
+    val processor = TestsOutputProcessor()
+    assertTrue(processor.process("""$TEST_RESULT_PREFIX{"test": "test1", "passed": true}"""))
+    assertFalse(processor.process("""$TEST_RESULT_PREFIX{"test": "test2", "passed": false, "message": "Wrong\nanswer"}"""))
+    // output after the first failure is ignored
+    assertFalse(processor.process("""$TEST_RESULT_PREFIX{"test": "test3", "passed": false, "message": "Other"}"""))
+
+    assertEquals(listOf("test1", "test2"), processor.testResults.map { it.name })
+    assertEquals(CheckStatus.Failed, processor.checkResult.status)
+    assertEquals("Wrong\nanswer", processor.checkResult.message)
+  }
+
+  fun `test structured expected and actual`() {
+    val processor = process("""$TEST_RESULT_PREFIX{"test": "test1", "passed": false, "message": "Sum expected:<3> but was:<4>"}""")
+    assertEquals("Sum\nExpected:\n<3>\nActual:\n<4>", processor.checkResult.message)
+  }
+
+  fun `test structured congratulations`() {
+    val processor = process(
+      """$TEST_RESULT_PREFIX{"test": "test1", "passed": true}""",
+      """$TEST_RESULT_PREFIX{"congratulations": "Well done!"}"""
+    )
+    assertEquals(listOf("test1"), processor.testResults.map { it.name })
+    assertEquals(CheckStatus.Solved, processor.checkResult.status)
+    assertEquals("Well done!", processor.checkResult.message)
+  }
+
+  fun `test legacy results`() {
+    val processor = process("test1 test OK", "CONGRATS_MESSAGE Well done!")
+    assertEquals(listOf("test1"), processor.testResults.map { it.name })
+    assertEquals(CheckStatus.Solved, processor.checkResult.status)
+    assertEquals("Well done!", processor.checkResult.message)
+  }
+
+  fun `test legacy failed result`() {
+    val processor = process("test1 test OK", "test2 FAILED + Wrong answer")
+    assertEquals(listOf("test1", "test2"), processor.testResults.map { it.name })
+    assertEquals(CheckStatus.Failed, processor.checkResult.status)
+    assertEquals("Wrong answer", processor.checkResult.message)
+  }
+
+  fun `test mixed output`() {
+    val processor = process(
+      "Some program output",
+      """$TEST_RESULT_PREFIX{"test": "test1", "passed": true}""",
+      "test2 test OK",
+      "More output",
+      """$TEST_RESULT_PREFIX{"test": "test3", "passed": false, "message": "Structured failure"}""",
+      "test4 FAILED + Legacy failure"
+    )
+    assertEquals(listOf("test1", "test2", "test3"), processor.testResults.map { it.name })
+    assertEquals(CheckStatus.Failed, processor.checkResult.status)
+    assertEquals("Structured failure", processor.checkResult.message)
+  }
+
+  fun `test structured result after other output in the same message`() {
+    val processor = process("""output $TEST_RESULT_PREFIX{"test": "test1", "passed": false, "message": "Failed"}""")
+    assertEquals(CheckStatus.Failed, processor.checkResult.status)
+    assertEquals("Failed", processor.checkResult.message)
+  }
+
+  fun `test malformed json is ignored`() {
+    val processor = TestsOutputProcessor()
+    assertTrue(processor.process("""$TEST_RESULT_PREFIX{"test": "test1", "passed": fal"""))
+    assertTrue(processor.process("${TEST_RESULT_PREFIX}not a json"))
+    assertTrue(processor.process("""$TEST_RESULT_PREFIX{"test": "test2", "passed": true}"""))
+
+    assertEquals(listOf("test2"), processor.testResults.map { it.name })
+    assertEquals(CheckStatus.Solved, processor.checkResult.status)
+  }
+
+  fun `test empty output`() {
+    val processor = process()
+    assertEmpty(processor.testResults)
+    assertEquals(CheckStatus.Solved, processor.checkResult.status)
+  }
+
+  fun `test parser stops at first failure`() {
+    val result = TestsOutputParser.getCheckResult(listOf(
+      "test1 FAILED + First",
+      """$TEST_RESULT_PREFIX{"test": "test2", "passed": false, "message": "Second"}"""
+    ))
+    assertEquals(CheckStatus.Failed, result.status)
+    assertEquals("First", result.message)
+  }
+
+  private fun process(vararg messages: String): TestsOutputProcessor {
+    val processor = TestsOutputProcessor()
+    for (message in messages) {
+      processor.process(message)
+    }
+    return processor
+  }
+}
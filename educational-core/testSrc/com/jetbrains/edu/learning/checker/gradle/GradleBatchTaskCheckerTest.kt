@@ -0,0 +1,170 @@
+package com.jetbrains.edu.learning.checker.gradle
+
+import com.intellij.testFramework.UsefulTestCase
+import com.jetbrains.edu.learning.checker.CheckLimits
+import com.jetbrains.edu.learning.checker.CheckProcessOutput
+import com.jetbrains.edu.learning.checker.CheckUtils
+import com.jetbrains.edu.learning.checker.StopReason
+import com.jetbrains.edu.learning.checker.TaskCheckReport
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.Lesson
+import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+
+class GradleBatchTaskCheckerTest : UsefulTestCase() {
+
+  private val lesson = Lesson().apply { name = "lesson1" }
+  private val task1 = task("task1")
+  private val task2 = task("task2")
+  private val task3 = task("task3")
+  private val tasks = linkedMapOf(":lesson1-task1:test" to task1, ":lesson1-task2:test" to task2, ":lesson1-task3:test" to task3)
+
+  fun `test results are attributed to tasks between compile headers`() {
+    val reports = process("""
+      > Task :lesson1-task1:compileKotlin
+      > Task :lesson1-task1:compileJava NO-SOURCE
+      > Task :lesson1-task1:classes
+      > Task :lesson1-task1:test
+      #educational_plugin_result {"test": "testSolution", "passed": true}
+      > Task :lesson1-task2:compileKotlin
+      > Task :lesson1-task2:compileJava NO-SOURCE
+      > Task :lesson1-task2:test
+      #educational_plugin_result {"test": "testSolution", "passed": false, "message": "Wrong answer"}
+      > Task :lesson1-task2:test FAILED
+      > Task :lesson1-task3:compileKotlin
+      > Task :lesson1-task3:compileJava NO-SOURCE
+      > Task :lesson1-task3:test
+      #educational_plugin_result {"test": "testFirst", "passed": true}
+      #educational_plugin_result {"test": "testSecond", "passed": true}
+    """)
+
+    assertEquals(listOf(task1, task2, task3), reports.map { it.task })
+    assertResult(reports[0], CheckStatus.Solved)
+    assertResult(reports[1], CheckStatus.Failed, "Wrong answer")
+    assertResult(reports[2], CheckStatus.Solved)
+  }
+
+  fun `test output of compile tasks isn't attributed to previous test task`() {
+    val reports = process("""
+      > Task :lesson1-task1:test
+      #educational_plugin_result {"test": "testSolution", "passed": true}
+      > Task :lesson1-task2:compileKotlin
+      #educational_plugin_result {"test": "unrelated", "passed": false, "message": "Not a test result"}
+      > Task :lesson1-task2:test
+      #educational_plugin_result {"test": "testSolution", "passed": true}
+      > Task :lesson1-task3:test
+    """)
+
+    assertResult(reports[0], CheckStatus.Solved)
+    assertResult(reports[1], CheckStatus.Solved)
+    assertResult(reports[2], CheckStatus.Solved)
+  }
+
+  // old templates print the rest of failure message lines right after the prefix
+  fun `test legacy multiline messages`() {
+    val reports = process("""
+      > Task :lesson1-task1:test
+      #educational_plugin FAILED + Wrong
+      #educational_pluginanswer
+      > Task :lesson1-task2:test
+      > Task :lesson1-task3:test
+    """)
+
+    assertResult(reports[0], CheckStatus.Failed, "Wrong\nanswer")
+    assertResult(reports[1], CheckStatus.Solved)
+    assertResult(reports[2], CheckStatus.Solved)
+  }
+
+  fun `test compile failure in one module with continue`() {
+    val stderr = """
+      e: /course/lesson1/task2/src/Task.kt: (1, 12): Unresolved reference: foo
+
+      FAILURE: Build failed with an exception.
+
+      * What went wrong:
+      Execution failed for task ':lesson1-task2:compileKotlin'.
+      > Compilation error. See log for more details
+    """.trimIndent()
+    val reports = process("""
+      > Task :lesson1-task1:compileKotlin
+      > Task :lesson1-task1:test
+      #educational_plugin_result {"test": "testSolution", "passed": true}
+      > Task :lesson1-task2:compileKotlin FAILED
+      > Task :lesson1-task3:compileKotlin
+      > Task :lesson1-task3:test
+      #educational_plugin_result {"test": "testSolution", "passed": false, "message": "Wrong answer"}
+      > Task :lesson1-task3:test FAILED
+    """, stderr)
+
+    assertResult(reports[0], CheckStatus.Solved)
+    assertResult(reports[1], CheckStatus.Failed, CheckUtils.COMPILATION_FAILED_MESSAGE)
+    assertEquals(stderr, reports[1].result.details)
+    assertResult(reports[2], CheckStatus.Failed, "Wrong answer")
+  }
+
+  fun `test task is not executed without compilation error`() {
+    val reports = process("""
+      > Task :lesson1-task1:test
+      #educational_plugin_result {"test": "testSolution", "passed": true}
+    """, "Could not resolve all dependencies")
+
+    assertResult(reports[0], CheckStatus.Solved)
+    assertEquals(CheckStatus.Unchecked, reports[1].result.status)
+    assertEquals(CheckUtils.FAILED_TO_CHECK_MESSAGE, reports[1].result.message)
+    assertEquals(CheckStatus.Unchecked, reports[2].result.status)
+  }
+
+  fun `test limit exceeded in the middle of task`() {
+    val reports = process("""
+      > Task :lesson1-task1:test
+      #educational_plugin_result {"test": "testSolution", "passed": true}
+      > Task :lesson1-task2:test
+      #educational_plugin_result {"test": "testFirst", "passed": true}
+    """, stopReason = StopReason.OUTPUT_LIMIT)
+
+    // finished task keeps its result
+    assertResult(reports[0], CheckStatus.Solved)
+    // interrupted task and tasks which haven't been started get limit result instead of partial one
+    assertEquals(CheckStatus.Failed, reports[1].result.status)
+    assertTrue(reports[1].result.message.startsWith("Output limit exceeded"))
+    assertEquals(CheckStatus.Failed, reports[2].result.status)
+    assertTrue(reports[2].result.message.startsWith("Output limit exceeded"))
+  }
+
+  fun `test durations`() {
+    var time = 0L
+    val processor = GradleBatchTaskChecker.BatchOutputProcessor(tasks) { time }
+    time = 100
+    processor.processLine("> Task :lesson1-task1:test")
+    time = 300
+    processor.processLine("> Task :lesson1-task2:compileKotlin")
+    time = 350
+    processor.processLine("> Task :lesson1-task2:test")
+    time = 1000
+    val reports = processor.getReports(output(""))
+
+    assertEquals(200L, reports[0].durationMs)
+    assertEquals(650L, reports[1].durationMs)
+    assertEquals(0L, reports[2].durationMs)
+  }
+
+  private fun process(recordedOutput: String, stderr: String = "", stopReason: StopReason? = null): List<TaskCheckReport> {
+    val processor = GradleBatchTaskChecker.BatchOutputProcessor(tasks)
+    for (line in recordedOutput.trimIndent().lines()) {
+      processor.processLine(line)
+    }
+    return processor.getReports(output(stderr, stopReason))
+  }
+
+  private fun output(stderr: String, stopReason: StopReason? = null): CheckProcessOutput =
+    CheckProcessOutput("", stderr, stopReason, CheckLimits.DEFAULT)
+
+  private fun assertResult(report: TaskCheckReport, status: CheckStatus, message: String? = null) {
+    assertEquals(status, report.result.status)
+    if (message != null) {
+      assertEquals(message, report.result.message)
+    }
+  }
+
+  private fun task(name: String): Task = EduTask(name).apply { lesson = this@GradleBatchTaskCheckerTest.lesson }
+}
@@ -0,0 +1,124 @@
+package com.jetbrains.edu.learning.courseGeneration
+
+import com.intellij.openapi.application.runWriteAction
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.vfs.LocalFileSystem
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileVisitor
+import com.intellij.openapi.vfs.newvfs.impl.VfsRootAccess
+import com.intellij.testFramework.LightPlatformTestCase
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.course
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.DescriptionFormat
+import com.jetbrains.edu.learning.courseFormat.StudyItem
+import java.io.File
+
+class CourseMaterializerTest : EduTestCase() {
+  private lateinit var courseDir: File
+
+  override fun setUp() {
+    super.setUp()
+    courseDir = FileUtil.createTempDirectory("course", null)
+    VfsRootAccess.allowRootAccess(testRootDisposable, courseDir.path)
+  }
+
+  override fun tearDown() {
+    try {
+      FileUtil.delete(courseDir)
+    }
+    finally {
+      super.tearDown()
+    }
+  }
+
+  fun `test study course`() = doTest(EduNames.STUDY)
+
+  fun `test course creator course`() = doTest(CCUtils.COURSE_MODE)
+
+  private fun doTest(courseMode: String) {
+    val localDir = LocalFileSystem.getInstance().refreshAndFindFileByIoFile(courseDir)!!
+    assertTrue(CourseMaterializer.isApplicable(localDir))
+    val materializedCourse = createCourse(courseMode)
+    GeneratorUtils.createCourse(materializedCourse, localDir, EmptyProgressIndicator())
+
+    // non local file system, so files are created one by one with VFS
+    val vfsDir = runWriteAction { LightPlatformTestCase.getSourceRoot().createChildDirectory(this, "vfs") }
+    assertFalse(CourseMaterializer.isApplicable(vfsDir))
+    val generatedCourse = createCourse(courseMode)
+    GeneratorUtils.createCourse(generatedCourse, vfsDir, EmptyProgressIndicator())
+
+    assertEquals(collectFiles(vfsDir), collectFiles(localDir))
+    assertEquals(itemNames(generatedCourse), itemNames(materializedCourse))
+  }
+
+  private fun createCourse(courseMode: String): Course {
+    return course(courseMode = courseMode) {
+      section("section1") {
+        lesson("lesson1") {
+          eduTask("task1") {
+            taskFile("Task.txt", "task text")
+            testFile("tests/Tests.txt", "tests text")
+            additionalFile("data/input.txt", "input")
+          }
+        }
+        lesson("lesson2") {
+          eduTask("task1", taskDescriptionFormat = DescriptionFormat.MD) {
+            taskFile("Task.txt")
+          }
+        }
+      }
+      lesson("lesson1") {
+        eduTask("task1") {
+          taskFile("Task.txt")
+        }
+        // the same name, so the task dir gets unique name
+        eduTask("task1") {
+          taskFile("Task.txt", "another text")
+        }
+      }
+      frameworkLesson("framework") {
+        eduTask("task1") {
+          taskFile("src/Task.txt", "first")
+        }
+        eduTask("task2") {
+          taskFile("src/Task.txt", "second")
+        }
+      }
+    }.apply { init(null, null, false) }
+  }
+
+  private fun collectFiles(root: VirtualFile): Map<String, String?> {
+    val files = sortedMapOf<String, String?>()
+    VfsUtilCore.visitChildrenRecursively(root, object : VirtualFileVisitor<Any>() {
+      override fun visitFile(file: VirtualFile): Boolean {
+        if (file != root) {
+          val path = VfsUtilCore.getRelativePath(file, root)!!
+          files[path] = if (file.isDirectory) null else VfsUtilCore.loadText(file)
+        }
+        return true
+      }
+    })
+    return files
+  }
+
+  private fun itemNames(course: Course): List<String> {
+    val names = mutableListOf<String>()
+    fun add(item: StudyItem) {
+      names += "${item.name}:${item.presentableName}"
+    }
+    for (item in course.items) {
+      add(item)
+    }
+    course.visitLessons { lesson ->
+      add(lesson)
+      lesson.taskList.forEach(::add)
+      true
+    }
+    return names
+  }
+}
@@ -12,6 +12,9 @@ import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.StudyTaskManager
 import com.jetbrains.edu.learning.actions.CheckAction
 import com.jetbrains.edu.learning.actions.RevertTaskAction
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
+import com.jetbrains.edu.learning.courseFormat.tasks.TheoryTask
 import com.jetbrains.edu.learning.navigation.NavigationUtils
 import com.jetbrains.edu.learning.projectView.CourseViewPane
 import junit.framework.TestCase
@@ -84,6 +87,76 @@ class CourseViewTest : CourseViewTestBase() {
     TestCase.assertNotNull((pane as CourseViewPane).getProgressBar())
   }
 
+  fun testProgressCountersUpdatedOnStatusChange() {
+    createStudyCourse()
+    val course = StudyTaskManager.getInstance(project).course!!
+    val lesson = course.lessons[0]
+    TestCase.assertEquals(0, course.solvedTasksCount)
+    TestCase.assertEquals(4, course.tasksForProgressCount)
+
+    lesson.taskList[0].status = CheckStatus.Solved
+    lesson.taskList[1].status = CheckStatus.Failed
+    TestCase.assertEquals(1, course.solvedTasksCount)
+
+    lesson.taskList.forEach { it.status = CheckStatus.Solved }
+    TestCase.assertEquals(4, course.solvedTasksCount)
+    TestCase.assertEquals(CheckStatus.Solved, lesson.status)
+
+    lesson.taskList[2].status = CheckStatus.Failed
+    TestCase.assertEquals(3, course.solvedTasksCount)
+    TestCase.assertEquals(CheckStatus.Unchecked, lesson.status)
+  }
+
+  fun testProgressCountersUpdatedOnTaskReplace() {
+    createStudyCourse()
+    val course = StudyTaskManager.getInstance(project).course!!
+    val lesson = course.lessons[0]
+    lesson.taskList[0].status = CheckStatus.Solved
+    TestCase.assertEquals(1, course.solvedTasksCount)
+
+    // task list keeps the same size, so counters have to be invalidated explicitly
+    val solvedTask = lesson.taskList[0]
+    lesson.removeTask(solvedTask)
+    lesson.addTask(EduTask("task5").apply { this.lesson = lesson })
+    TestCase.assertEquals(0, course.solvedTasksCount)
+    TestCase.assertEquals(4, course.tasksForProgressCount)
+
+    lesson.taskList[0] = EduTask("task6").apply {
+      this.lesson = lesson
+      status = CheckStatus.Solved
+    }
+    lesson.taskListChanged()
+    TestCase.assertEquals(1, course.solvedTasksCount)
+
+    lesson.taskList[1] = TheoryTask("theory").apply { this.lesson = lesson }
+    lesson.taskListChanged()
+    TestCase.assertEquals(1, course.solvedTasksCount)
+    TestCase.assertEquals(3, course.tasksForProgressCount)
+
+    lesson.taskList.forEach { it.status = CheckStatus.Solved }
+    TestCase.assertEquals(3, course.solvedTasksCount)
+    TestCase.assertEquals(CheckStatus.Solved, lesson.status)
+  }
+
+  fun testNodesUpdatedOnStatusChange() {
+    createStudyCourse()
+    configureByTaskFile(1, 1, "taskFile1.txt")
+    val pane = createPane()
+    val course = StudyTaskManager.getInstance(project).course!!
+
+    course.lessons[0].taskList[0].status = CheckStatus.Solved
+    PlatformTestUtil.dispatchAllInvocationEventsInIdeEventQueue()
+
+    val structure = "-Project\n" +
+                    " -CourseNode Edu test course  1/4\n" +
+                    "  -LessonNode lesson1\n" +
+                    "   +TaskNode task1\n" +
+                    "   +TaskNode task2\n" +
+                    "   +TaskNode task3\n" +
+                    "   +TaskNode task4\n"
+    PlatformTestUtil.assertTreeEqual(pane.tree, structure)
+  }
+
   fun testSwitchingPane() {
     createStudyCourse()
     val projectView = ProjectView.getInstance(project)
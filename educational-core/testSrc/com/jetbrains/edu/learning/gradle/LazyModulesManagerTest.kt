@@ -0,0 +1,125 @@
+package com.jetbrains.edu.learning.gradle
+
+import com.intellij.openapi.application.runWriteAction
+import com.intellij.openapi.vfs.VfsUtil
+import com.intellij.testFramework.LightPlatformTestCase
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.configurators.FakeGradleBasedLanguage
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.gradle.GradleConstants.IMPORTED_MODULES_MANIFEST
+import com.jetbrains.edu.learning.gradle.GradleConstants.SETTINGS_GRADLE
+import com.jetbrains.edu.learning.gradle.generation.EduGradleUtils
+
+class LazyModulesManagerTest : EduTestCase() {
+
+  fun `test opened task is imported with neighbours and next tasks`() {
+    val course = createLargeCourse()
+
+    assertTrue(manager.taskOpened(course.findTask("lesson1", "task5")))
+    assertEquals(listOf("lesson1/task8", "lesson1/task7", "lesson1/task4", "lesson1/task5", "lesson1/task6"), importedTaskDirs())
+  }
+
+  fun `test navigation to imported tasks doesn't change manifest`() {
+    val course = createLargeCourse()
+    manager.taskOpened(course.findTask("lesson1", "task5"))
+    val importedTaskDirs = importedTaskDirs()
+
+    assertFalse(manager.taskOpened(course.findTask("lesson1", "task6")))
+    assertFalse(manager.taskOpened(course.findTask("lesson1", "task7")))
+    assertEquals(importedTaskDirs, importedTaskDirs())
+
+    assertTrue(manager.taskOpened(course.findTask("lesson1", "task8")))
+    assertContainsElements(importedTaskDirs(), "lesson1/task9", "lesson1/task10", "lesson1/task11")
+  }
+
+  fun `test least recently used tasks are detached`() {
+    val course = createLargeCourse()
+    for (index in listOf(1, 6, 11, 16, 21)) {
+      manager.taskOpened(course.findTask("lesson1", "task$index"))
+    }
+
+    val importedTaskDirs = importedTaskDirs()
+    assertEquals(LazyModulesManager.MAX_IMPORTED_TASKS, importedTaskDirs.size)
+    assertDoesntContain(importedTaskDirs, "lesson1/task1", "lesson1/task2", "lesson1/task3", "lesson1/task4")
+    assertContainsElements(importedTaskDirs, "lesson1/task20", "lesson1/task21", "lesson1/task22")
+  }
+
+  fun `test tasks opened across lessons`() {
+    val course = createLargeCourse()
+
+    assertTrue(manager.taskOpened(course.findTask("lesson1", "task${TASKS_IN_LESSON}")))
+    assertContainsElements(importedTaskDirs(), "lesson1/task${TASKS_IN_LESSON - 1}", "lesson2/task1", "lesson2/task2", "lesson2/task3")
+  }
+
+  fun `test deleted tasks are detached on structure change`() {
+    val course = createLargeCourse()
+    manager.taskOpened(course.findTask("lesson1", "task5"))
+
+    val lesson = course.getLesson("lesson1")!!
+    lesson.removeTask(course.findTask("lesson1", "task6"))
+    manager.courseStructureChanged(course)
+
+    assertEquals(listOf("lesson1/task8", "lesson1/task7", "lesson1/task4", "lesson1/task5"), importedTaskDirs())
+  }
+
+  fun `test first unsolved task is imported on structure change`() {
+    val course = createLargeCourse()
+    for (index in 1..3) {
+      course.findTask("lesson1", "task$index").status = CheckStatus.Solved
+    }
+
+    manager.courseStructureChanged(course)
+
+    assertContainsElements(importedTaskDirs(), "lesson1/task3", "lesson1/task4", "lesson1/task5")
+    assertDoesntContain(importedTaskDirs(), "lesson1/task1")
+  }
+
+  fun `test disabled for small courses`() {
+    val course = createGradleCourse(LazyModulesManager.LAZY_MODULES_THRESHOLD / 2)
+
+    assertFalse(manager.isEnabled(course))
+    assertFalse(manager.taskOpened(course.findTask("lesson1", "task5")))
+    manager.courseStructureChanged(course)
+    assertNull(readImportedTaskDirs())
+  }
+
+  fun `test disabled if settings gradle doesn't read imported modules`() {
+    val course = createLargeCourse()
+    val settingsGradle = findFile(SETTINGS_GRADLE)
+    val text = VfsUtil.loadText(settingsGradle).replace(IMPORTED_MODULES_MANIFEST, "")
+    runWriteAction { VfsUtil.saveText(settingsGradle, text) }
+
+    assertFalse(manager.isEnabled(course))
+    assertFalse(manager.taskOpened(course.findTask("lesson1", "task5")))
+    manager.courseStructureChanged(course)
+    assertNull(readImportedTaskDirs())
+  }
+
+  private val manager: LazyModulesManager get() = LazyModulesManager.getInstance(project)
+
+  private fun createLargeCourse(): Course = createGradleCourse(TASKS_IN_LESSON)
+
+  private fun createGradleCourse(tasksInLesson: Int): Course {
+    return courseWithFiles(language = FakeGradleBasedLanguage, settings = JdkProjectSettings.emptySettings()) {
+      repeat(2) {
+        lesson {
+          repeat(tasksInLesson) {
+            eduTask {
+              taskFile("src/Task.kt")
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private fun readImportedTaskDirs(): List<String>? =
+    EduGradleUtils.readModulesManifest(LightPlatformTestCase.getSourceRoot(), IMPORTED_MODULES_MANIFEST)
+
+  private fun importedTaskDirs(): List<String> = readImportedTaskDirs() ?: error("Can't find `$IMPORTED_MODULES_MANIFEST`")
+
+  companion object {
+    private const val TASKS_IN_LESSON = 30
+  }
+}
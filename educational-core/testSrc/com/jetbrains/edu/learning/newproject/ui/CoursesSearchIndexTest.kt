@@ -0,0 +1,82 @@
+package com.jetbrains.edu.learning.newproject.ui
+
+import com.intellij.openapi.fileTypes.PlainTextLanguage
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.courseFormat.Course
+
+/**
+ * Checks that [CoursesSearchIndex] filters courses exactly like plain [CoursesPanel.accept] filtering
+ */
+class CoursesSearchIndexTest : EduTestCase() {
+
+  private lateinit var courses: List<Course>
+  private lateinit var index: CoursesSearchIndex
+
+  override fun setUp() {
+    super.setUp()
+    courses = listOf(
+      course("Kotlin Koans", "en", "Svetlana Isakova", "Andrey Breslav"),
+      course("Introduction to Python", "en", "Liana Bakradze"),
+      course("Основы Kotlin", "ru", "Mikhail Glukhikh"),
+      course("Java Tasks", "de", "Anna Schmidt"),
+      course("Algorithms and Data Structures", "en"),
+      course("atomic kotlin", "en", "Bruce Eckel")
+    )
+    index = CoursesSearchIndex(courses)
+  }
+
+  fun `test empty query`() = doTest("")
+
+  fun `test only spaces`() = doTest(" ", "  ")
+
+  fun `test leading space`() = doTest(" kot", " kotlin", "  java")
+
+  fun `test trailing space`() = doTest("kot ", "java ")
+
+  fun `test several parts`() = doTest("python koans", "java  data", "bruce nothing")
+
+  fun `test case insensitive`() = doTest("KOTLIN", "Koans", "ОСНОВЫ")
+
+  fun `test author names`() = doTest("isakova", "svetlana isakova", "eckel", "liana b")
+
+  fun `test tag prefix`() = doTest("tag:", "tag:en", "tag:english", "tag:text")
+
+  fun `test language prefix`() = doTest("language:", "language:e", "language:eng", "language:russ", "language:kotlin")
+
+  fun `test programming language prefix`() = doTest("programming_language:", "programming_language:plain", "programming_language:java")
+
+  fun `test no matches`() = doTest("xyz", "tag:xyz", "language:xyz")
+
+  fun `test extending query`() = doTest("k", "ko", "kot", "kotl", "kotlin", "kotlin ", "kotlin k", "kotlin ko", "kotlin koa")
+
+  fun `test extending query with prefix`() = doTest("l", "la", "language", "language:", "language:r", "language:ru", "language:rus")
+
+  fun `test shortening query`() = doTest("kotlin koa", "kotlin ko", "kotlin k", "kotlin ", "kotlin", "kotl", "kot", "ko", "k", "")
+
+  fun `test shortening query with prefix`() = doTest("language:rus", "language:ru", "language:", "language", "lang", "l", "")
+
+  fun `test replacing query`() = doTest("kotlin", "java", "jav", "javascript", "py", "tag:", "python")
+
+  /**
+   * Searches [queries] one after another as user types them, reusing previous search result like [CoursesPanel] does
+   */
+  private fun doTest(vararg queries: String) {
+    var previous: CoursesSearchIndex.SearchResult? = null
+    for (query in queries) {
+      val expected = courses.filter { CoursesPanel.accept(query, it) }
+      val result = index.search(query, previous)
+      assertEquals("Query `$query`", expected.map { it.name }, result.courses.map { it.name })
+
+      // search from scratch must give the same result
+      assertEquals("Query `$query` without previous result", expected.map { it.name }, index.search(query).courses.map { it.name })
+      previous = result
+    }
+  }
+
+  private fun course(name: String, languageCode: String, vararg authors: String): Course = Course().apply {
+    this.name = name
+    language = PlainTextLanguage.INSTANCE.id
+    setLanguageCode(languageCode)
+    setAuthorsAsString(arrayOf(*authors))
+  }
+}
@@ -0,0 +1,157 @@
+package com.jetbrains.edu.learning.placeholderDependencies
+
+import com.intellij.openapi.application.runWriteAction
+import com.intellij.openapi.vfs.VirtualFileListener
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.testFramework.LightPlatformTestCase
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.coursecreator.handlers.CCVirtualFileListener
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.ext.getDependentTasks
+import com.jetbrains.edu.learning.courseFormat.ext.getUnsolvedTaskDependencies
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+
+class PlaceholderDependencyIndexTest : EduTestCase() {
+
+  private lateinit var listener: VirtualFileListener
+
+  override fun setUp() {
+    super.setUp()
+    listener = CCVirtualFileListener(project)
+    VirtualFileManager.getInstance().addVirtualFileListener(listener)
+  }
+
+  override fun tearDown() {
+    try {
+      VirtualFileManager.getInstance().removeVirtualFileListener(listener)
+    }
+    finally {
+      super.tearDown()
+    }
+  }
+
+  fun `test dependencies are resolved`() {
+    createCourse()
+    val (sourceTask, dependentTask) = getTasks()
+
+    assertEquals(listOf(sourceTask), dependentTask.getUnsolvedTaskDependencies())
+    assertEquals(setOf(dependentTask), sourceTask.getDependentTasks())
+  }
+
+  fun `test delete dependency source task`() {
+    createCourse()
+    val (sourceTask, dependentTask) = getTasks()
+    // build index before changes
+    assertEquals(listOf(sourceTask), dependentTask.getUnsolvedTaskDependencies())
+
+    runWriteAction { findFile("lesson1/task1").delete(this) }
+
+    assertEmpty(dependentTask.getUnsolvedTaskDependencies())
+    assertEmpty(sourceTask.getDependentTasks())
+    assertNull(index.resolve(dependency(dependentTask)))
+  }
+
+  fun `test delete dependency source file`() {
+    createCourse()
+    val (sourceTask, dependentTask) = getTasks()
+    assertEquals(listOf(sourceTask), dependentTask.getUnsolvedTaskDependencies())
+
+    runWriteAction { findFileInTask(0, 0, "Task.kt").delete(this) }
+
+    assertEmpty(dependentTask.getUnsolvedTaskDependencies())
+    assertEmpty(sourceTask.getDependentTasks())
+  }
+
+  fun `test rename dependency source file`() {
+    createCourse()
+    val (sourceTask, dependentTask) = getTasks()
+    assertEquals(listOf(sourceTask), dependentTask.getUnsolvedTaskDependencies())
+
+    val rebuildCount = index.rebuildCount
+
+    runWriteAction { findFileInTask(0, 0, "Task.kt").rename(this, "Renamed.kt") }
+
+    assertEmpty(dependentTask.getUnsolvedTaskDependencies())
+    assertEmpty(sourceTask.getDependentTasks())
+
+    runWriteAction { findFileInTask(0, 0, "Renamed.kt").rename(this, "Task.kt") }
+
+    assertEquals(listOf(sourceTask), dependentTask.getUnsolvedTaskDependencies())
+    assertEquals(setOf(dependentTask), sourceTask.getDependentTasks())
+    // entries of affected tasks are updated in place
+    assertEquals(rebuildCount, index.rebuildCount)
+  }
+
+  fun `test rename dependency source task`() {
+    createCourse()
+    val (sourceTask, dependentTask) = getTasks()
+    assertEquals(listOf(sourceTask), dependentTask.getUnsolvedTaskDependencies())
+
+    val rebuildCount = index.rebuildCount
+
+    // the same as `CCRenameHandler` does
+    sourceTask.name = "renamed"
+    index.itemChanged(sourceTask)
+    runWriteAction { findFile("lesson1/task1").rename(this, "renamed") }
+
+    assertEmpty(dependentTask.getUnsolvedTaskDependencies())
+    assertEmpty(sourceTask.getDependentTasks())
+
+    sourceTask.name = "task1"
+    index.itemChanged(sourceTask)
+    runWriteAction { findFile("lesson1/renamed").rename(this, "task1") }
+
+    assertEquals(listOf(sourceTask), dependentTask.getUnsolvedTaskDependencies())
+    assertEquals(rebuildCount, index.rebuildCount)
+  }
+
+  fun `test unrelated file events don't rebuild index`() {
+    createCourse()
+    val (sourceTask, dependentTask) = getTasks()
+    assertEquals(listOf(sourceTask), dependentTask.getUnsolvedTaskDependencies())
+    val rebuildCount = index.rebuildCount
+
+    runWriteAction {
+      // file outside of tasks, e.g. build output or project settings
+      val buildDir = LightPlatformTestCase.getSourceRoot().createChildDirectory(this, "build")
+      val outsideFile = buildDir.createChildData(this, "Task.class")
+      outsideFile.rename(this, "Renamed.class")
+      buildDir.delete(this)
+      // file which can't contain placeholders
+      val additionalFile = findFile("lesson1/task1").createChildData(this, "notes.txt")
+      additionalFile.rename(this, "renamed.txt")
+    }
+    sourceTask.status = CheckStatus.Solved
+
+    assertEmpty(dependentTask.getUnsolvedTaskDependencies())
+    assertEquals(setOf(dependentTask), sourceTask.getDependentTasks())
+    assertEquals(rebuildCount, index.rebuildCount)
+  }
+
+  private fun createCourse() {
+    courseWithFiles(courseMode = CCUtils.COURSE_MODE) {
+      lesson {
+        eduTask {
+          taskFile("Task.kt", "fun foo() = <p>1</p>")
+        }
+      }
+      lesson {
+        eduTask {
+          taskFile("Task.kt", "fun bar() = <p>type here</p>") {
+            placeholder(0, dependency = "lesson1#task1#Task.kt#1")
+          }
+        }
+      }
+    }
+  }
+
+  private val index: PlaceholderDependencyIndex get() = PlaceholderDependencyIndex.getInstance(project)
+
+  private fun getTasks(): Pair<Task, Task> {
+    val course = getCourse()
+    return course.lessons[0].taskList[0] to course.lessons[1].taskList[0]
+  }
+
+  private fun dependency(task: Task) = task.getTaskFile("Task.kt")!!.answerPlaceholders[0].placeholderDependency!!
+}